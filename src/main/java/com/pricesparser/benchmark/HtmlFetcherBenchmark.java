@@ -0,0 +1,199 @@
+package com.pricesparser.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.pricesparser.client.HtmlFetcher;
+import com.pricesparser.client.JsoupHtmlFetcher;
+import com.pricesparser.client.ProductHtmlClient;
+import com.pricesparser.parser.FetchBudget;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.service.FeignClientService;
+import com.pricesparser.service.RestTemplateService;
+import com.pricesparser.service.WebClientService;
+import com.pricesparser.util.BandwidthMeter;
+import com.pricesparser.util.HedgePolicy;
+import com.pricesparser.util.HostCircuitBreaker;
+import com.pricesparser.util.HostRateLimiter;
+import com.pricesparser.util.HttpArchive;
+import com.pricesparser.util.PooledConnectionRequestFactory;
+import com.pricesparser.util.ReplayServer;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import feign.Feign;
+import feign.Target;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Сравнение реализаций {@link HtmlFetcher} на локальном {@link ReplayServer}: пропускная
+ * способность, p50/p99 времени загрузки (режим SampleTime) и байты, выделенные на одну загрузку
+ * во всех потоках, включая event loop (gc.alloc.rate.norm от GCProfiler). Без {@code archive}
+ * сервер отдаёт страницы из корпуса бенчмарков, иначе — из архива, записанного с
+ * {@code parser.replay.mode=record}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(value = 1, jvmArgs = {"-Xms1G", "-Xmx1G"})
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class HtmlFetcherBenchmark {
+
+  private static final String CORPUS_DIR = "benchmark/corpus/";
+  private static final String URL_MARKER = "<!-- url: ";
+  private static final int MAX_CONNECTIONS = 64;
+
+  @Param({"netty", "jsoup", "resttemplate", "webclient", "feign"})
+  public String client;
+
+  // Задержка ответа сервера: при 0 видна стоимость самого клиента, с задержкой — его поведение
+  // при ожидании сети
+  @Param({"0", "20"})
+  public int latencyMs;
+
+  @Param({""})
+  public String archive;
+
+  private Path corpusArchive;
+  private ReplayServer server;
+  private ConnectionProvider connectionProvider;
+  private HtmlFetcher fetcher;
+  private List<String> urls;
+  private final AtomicInteger next = new AtomicInteger();
+
+  @Setup
+  public void setup() throws IOException {
+    // Отладочный лог клиентов на каждый запрос мерил бы скорость консоли
+    ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+    HttpArchive responses;
+    if (archive.isEmpty()) {
+      corpusArchive = writeCorpusArchive();
+      responses = HttpArchive.load(corpusArchive);
+    } else {
+      responses = HttpArchive.load(Path.of(archive));
+    }
+    server = new ReplayServer(responses,
+        new ReplayServer.Options(Duration.ofMillis(latencyMs), Duration.ZERO, 0, 0), "127.0.0.1",
+        0);
+    server.start();
+    urls = responses.entries().stream().filter(entry -> entry.status() == 200)
+        .map(entry -> server.baseUrl() + HttpArchive.key(entry.url())).toList();
+
+    connectionProvider = ConnectionProvider.create("benchmark", MAX_CONNECTIONS);
+    fetcher = newFetcher(client, HttpClient.create(connectionProvider));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    connectionProvider.dispose();
+    server.stop();
+    if (corpusArchive != null) {
+      Files.deleteIfExists(corpusArchive);
+    }
+  }
+
+  // Ошибка загрузки не прерывает прогон: под нагрузкой их число — такой же результат клиента
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class FetchErrors {
+
+    public long errors;
+  }
+
+  @Benchmark
+  public String fetch(FetchErrors fetchErrors) {
+    try {
+      return fetcher.fetch(urls.get(Math.floorMod(next.getAndIncrement(), urls.size())));
+    } catch (RuntimeException e) {
+      fetchErrors.errors++;
+      return null;
+    }
+  }
+
+  // Клиенты собраны так же, как в контексте Spring, но без политики вежливости и повторов
+  static HtmlFetcher newFetcher(String client, HttpClient httpClient) {
+    return switch (client) {
+      case "netty" -> new PageFetcher(httpClient, BandwidthMeter.disabled(),
+          FetchBudget.disabled());
+      case "jsoup" -> new JsoupHtmlFetcher();
+      case "resttemplate" -> new RestTemplateService(
+          new RestTemplate(new PooledConnectionRequestFactory(
+              new ReactorNettyClientRequestFactory(httpClient.compress(true)))));
+      case "webclient" -> new WebClientService(
+          WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient))
+              .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
+              .build(),
+          FetchBudget.disabled(), HostCircuitBreaker.disabled(), HostRateLimiter.disabled(),
+          HedgePolicy.disabled());
+      case "feign" -> new FeignClientService(Feign.builder().contract(new SpringMvcContract())
+          .decoder(new SpringDecoder(HttpMessageConverters::new))
+          .target(Target.EmptyTarget.create(ProductHtmlClient.class)));
+      default -> throw new RuntimeException("Неизвестный клиент загрузки страниц: " + client);
+    };
+  }
+
+  private static Path writeCorpusArchive() throws IOException {
+    Path file = Files.createTempFile("html-fetcher-benchmark", ".bin.gz");
+    try (HttpArchive.Writer writer = new HttpArchive.Writer(file)) {
+      for (String page : List.of("pitergsm-iphone", "pitergsm-missing-price", "generic-shop",
+          "jsonld-only")) {
+        byte[] body;
+        try (InputStream in = HtmlFetcherBenchmark.class.getClassLoader()
+            .getResourceAsStream(CORPUS_DIR + page + ".html")) {
+          body = in.readAllBytes();
+        }
+        String html = new String(body, StandardCharsets.UTF_8);
+        String url = html.substring(URL_MARKER.length(), html.indexOf(" -->"));
+        writer.append(new HttpArchive.Entry(url, 200,
+            Map.of("Content-Type", "text/html; charset=utf-8"), body));
+      }
+    }
+    return file;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HtmlFetcherBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).resultFormat(ResultFormatType.JSON)
+        .result("target/jmh-fetch.json").build()).run();
+  }
+}
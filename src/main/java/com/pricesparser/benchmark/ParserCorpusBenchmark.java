@@ -0,0 +1,140 @@
+package com.pricesparser.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.BodyTextPriceScanner;
+import com.pricesparser.parser.ExtractionProfile;
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.pricesparser.parser.ExtractionResult;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.SelectorExtractionEngine;
+import com.pricesparser.parser.StreamingExtraction;
+import com.pricesparser.parser.StreamingProductExtractor;
+import com.pricesparser.parser.StructuredDataExtractor;
+import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.util.AdaptiveTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ParserCorpusBenchmark {
+
+  private static final String CORPUS_DIR = "benchmark/corpus/";
+  private static final String URL_MARKER = "<!-- url: ";
+  private static final int PRICE_TEXT_SCAN_MAX_CHARS = 65536;
+
+  @Param({"pitergsm-iphone", "pitergsm-missing-price", "generic-shop", "jsonld-only"})
+  public String page;
+
+  private String url;
+  private String html;
+  private byte[] bytes;
+  private Document document;
+  private UniversalProductParser parser;
+  private ExtractionProfileRegistry profiles;
+  private SelectorExtractionEngine genericEngine;
+  private StructuredDataExtractor structuredDataExtractor;
+  private StreamingProductExtractor streamingExtractor;
+
+  @Setup
+  public void setup() throws IOException {
+    html = loadPage(page);
+    bytes = html.getBytes(StandardCharsets.UTF_8);
+    url = html.substring(URL_MARKER.length(), html.indexOf(" -->"));
+    document = Jsoup.parse(html, url);
+
+    try (InputStream in = getClass().getClassLoader()
+        .getResourceAsStream("extraction_profiles.json")) {
+      List<ExtractionProfile> loaded = ExtractionProfileRegistry.readProfiles(in);
+      profiles = new ExtractionProfileRegistry(loaded, new SimpleMeterRegistry(), 0);
+    }
+    parser = new UniversalProductParser(AdaptiveTracer.noop(), profiles,
+        ParseFailureCaptureStore.disabled(), PageFetcher.standalone(), new SimpleMeterRegistry(),
+        true, PRICE_TEXT_SCAN_MAX_CHARS);
+    genericEngine = new SelectorExtractionEngine(UniversalProductParser.defaultRules());
+    structuredDataExtractor = new StructuredDataExtractor();
+    streamingExtractor = new StreamingProductExtractor(4000);
+  }
+
+  static String loadPage(String name) throws IOException {
+    try (InputStream in = ParserCorpusBenchmark.class.getClassLoader()
+        .getResourceAsStream(CORPUS_DIR + name + ".html")) {
+      if (in == null) {
+        throw new IOException("Страница корпуса не найдена: " + name);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Benchmark
+  public Product parseFromHtml() {
+    return parser.parseFromHtml(url, html);
+  }
+
+  @Benchmark
+  public Document jsoupParse() {
+    return Jsoup.parse(html, url);
+  }
+
+  @Benchmark
+  public ExtractionResult profileSelectorExtraction() {
+    return profiles.extract(url, document, genericEngine);
+  }
+
+  @Benchmark
+  public ExtractionResult genericSelectorExtraction() {
+    return genericEngine.extract(document);
+  }
+
+  @Benchmark
+  public Product structuredDataExtraction() {
+    return structuredDataExtractor.extract(url, bytes);
+  }
+
+  @Benchmark
+  public StreamingExtraction streamingExtraction() throws IOException {
+    return streamingExtractor.extract(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public BodyTextPriceScanner.Result bodyTextPriceScan() {
+    return BodyTextPriceScanner.scan(document.body(), PRICE_TEXT_SCAN_MAX_CHARS);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ParserCorpusBenchmark.class.getSimpleName())
+        .include(PriceParsingBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class)
+        .resultFormat(ResultFormatType.JSON).result("target/jmh-parser.json").build()).run();
+  }
+}
@@ -0,0 +1,93 @@
+package com.pricesparser.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.PriceScanner;
+import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.util.AdaptiveTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PriceParsingBenchmark {
+
+  private static final String[] PRICES = {"79 990 ₽", "79\u00A0990 ₽", "149\u2009990 ₽",
+      "1 990,50 руб.", "от 12 490 р.", "249999.50", "99999.99", "89 999 руб", "Цена: 5 490₽",
+      "3 290", "129990", "6 990 ₽\n\t\t\t\t", "24 990 руб."};
+
+  private UniversalProductParser parser;
+
+  @Setup
+  public void setup() {
+    parser = new UniversalProductParser(AdaptiveTracer.noop(), ExtractionProfileRegistry.disabled(),
+        ParseFailureCaptureStore.disabled(), PageFetcher.standalone(), new SimpleMeterRegistry(),
+        true, 65536);
+  }
+
+  @Benchmark
+  public void regexAndBigDecimal(Blackhole blackhole) {
+    for (String price : PRICES) {
+      blackhole.consume(legacyParsePrice(price));
+    }
+  }
+
+  @Benchmark
+  public void scannerMinorUnits(Blackhole blackhole) {
+    for (String price : PRICES) {
+      blackhole.consume(PriceScanner.scanMinorUnits(price));
+    }
+  }
+
+  @Benchmark
+  public void scannerToBigDecimal(Blackhole blackhole) {
+    for (String price : PRICES) {
+      blackhole.consume(PriceScanner.toBigDecimal(PriceScanner.scanMinorUnits(price)));
+    }
+  }
+
+  @Benchmark
+  public void parsePrice(Blackhole blackhole) {
+    for (String price : PRICES) {
+      blackhole.consume(parser.parsePrice(price));
+    }
+  }
+
+  private static BigDecimal legacyParsePrice(String priceText) {
+    try {
+      String cleanPrice = priceText.replaceAll("[^0-9.,]", "").replace(",", ".");
+      return cleanPrice.isEmpty() ? BigDecimal.ZERO : new BigDecimal(cleanPrice);
+    } catch (NumberFormatException e) {
+      return BigDecimal.ZERO;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(PriceParsingBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+}
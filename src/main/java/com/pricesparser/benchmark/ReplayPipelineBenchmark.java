@@ -0,0 +1,96 @@
+package com.pricesparser.benchmark;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.pricesparser.PricesParserApplication;
+import com.pricesparser.service.ScheduledTaskService;
+import com.pricesparser.util.ReplayServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Сквозной прогон всего конвейера (раздача URL, загрузка, разбор, сохранение) на ответах из
+ * архива, записанного с {@code parser.replay.mode=record}. Первый аргумент — путь к архиву,
+ * остальные — свойства приложения вида {@code ключ=значение}, например задержка и доля ошибок
+ * воспроизводящего сервера.
+ */
+public final class ReplayPipelineBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplayPipelineBenchmark.class);
+
+  private static final int DEFAULT_PORT = 18080;
+  private static final long TIMEOUT_MINUTES = 30;
+
+  private ReplayPipelineBenchmark() {
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    if (args.length == 0) {
+      System.err.println("Использование: ReplayPipelineBenchmark <архив> [ключ=значение ...]");
+      System.exit(2);
+    }
+    Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("parser.replay.mode", "replay");
+    properties.put("parser.replay.archive", args[0]);
+    properties.put("parser.replay.port", DEFAULT_PORT);
+    properties.put("server.port", 0);
+    properties.put("spring.jpa.show-sql", false);
+    properties.put("logging.level.com.pricesparser", "INFO");
+    // Локальный сервер не нужно беречь: скорость ограничивает только max-in-flight
+    properties.put("parser.politeness.enabled", false);
+    properties.put("parser.capture.enabled", false);
+    for (int i = 1; i < args.length; i++) {
+      int separator = args[i].indexOf('=');
+      properties.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+    }
+    properties.put("parser.links.base-url", "http://127.0.0.1:"
+        + properties.get("parser.replay.port"));
+
+    // Аргументы командной строки важнее application.properties, в отличие от properties()
+    String[] arguments = properties.entrySet().stream()
+        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+        .toArray(String[]::new);
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(PricesParserApplication.class).run(arguments)) {
+      ScheduledTaskService tasks = context.getBean(ScheduledTaskService.class);
+      ReplayServer replayServer = context.getBean(ReplayServer.class);
+      MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(TIMEOUT_MINUTES);
+      while (replayServer.servedCount() == 0 && !tasks.isFinished()
+          && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      long start = System.nanoTime();
+      while (!tasks.isFinished() && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      logger.info("Обработано успешно: {}, отдано сервером: {}, время: {} мс, {} стр/с",
+          tasks.succeededCount(), replayServer.servedCount(), elapsed.toMillis(),
+          String.format("%.1f", tasks.succeededCount() * 1000.0 / Math.max(1, elapsed.toMillis())));
+      // Этапы реактивного и поэтапного конвейеров, заполнены метрики только запущенного
+      for (String timerName : new String[] {"parse_pipeline_stage_duration_seconds",
+          "staged_pipeline_service_seconds"}) {
+        for (String stage : new String[] {"fetch", "buffer", "parse", "persist"}) {
+          Timer timer = meterRegistry.find(timerName).tag("stage", stage).timer();
+          if (timer != null && timer.count() > 0) {
+            logger.info("Этап {}: среднее {} мс, максимум {} мс, элементов {}", stage,
+                String.format("%.1f", timer.mean(TimeUnit.MILLISECONDS)),
+                String.format("%.1f", timer.max(TimeUnit.MILLISECONDS)), timer.count());
+          }
+        }
+      }
+    }
+  }
+}
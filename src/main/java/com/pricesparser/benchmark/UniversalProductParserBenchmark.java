@@ -0,0 +1,109 @@
+package com.pricesparser.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.ExtractionProfile;
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.util.AdaptiveTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class UniversalProductParserBenchmark {
+
+  private static final String URL =
+      "https://pitergsm.ru/catalog/phones/iphone/iphone-15/smartfon-apple-iphone-15-128gb-chernyy/";
+
+  private UniversalProductParser parser;
+  private String html;
+
+  @Setup
+  public void setup() throws IOException {
+    try (InputStream in = getClass().getClassLoader()
+        .getResourceAsStream("extraction_profiles.json")) {
+      List<ExtractionProfile> profiles = ExtractionProfileRegistry.readProfiles(in);
+      parser = new UniversalProductParser(AdaptiveTracer.noop(),
+          new ExtractionProfileRegistry(profiles, new SimpleMeterRegistry(), 0),
+          ParseFailureCaptureStore.disabled(), PageFetcher.standalone(),
+          new SimpleMeterRegistry(), true, 65536);
+    }
+    html = buildProductPage(150 * 1024);
+  }
+
+  @Benchmark
+  public Product parseViaSerializedHtml() {
+    Document doc = Jsoup.parse(html, URL);
+    return parser.parseFromHtml(URL, doc.html());
+  }
+
+  @Benchmark
+  public Product parseFromDocument() {
+    return parser.parseFromDocument(URL, Jsoup.parse(html, URL));
+  }
+
+  static String buildProductPage(int targetSize) {
+    StringBuilder sb = new StringBuilder(targetSize + 4096);
+    sb.append("<!DOCTYPE html><html lang=\"ru\"><head><meta charset=\"utf-8\">")
+        .append("<title>Смартфон Apple iPhone 15 128GB Черный — купить в PiterGSM</title>")
+        .append("<meta property=\"og:title\" content=\"Смартфон Apple iPhone 15 128GB Черный\">")
+        .append("<meta name=\"description\" content=\"Купить iPhone 15 в Санкт-Петербурге\">")
+        .append("</head><body><header class=\"header\"><nav class=\"menu\">");
+    for (int i = 0; i < 40; i++) {
+      sb.append("<a class=\"menu__item\" href=\"/catalog/section-").append(i).append("/\">Раздел ")
+          .append(i).append("</a>");
+    }
+    sb.append("</nav></header><main class=\"section\">")
+        .append("<h1 class=\"section__title\" itemprop=\"name\">")
+        .append("Смартфон Apple iPhone 15 128GB Черный</h1>")
+        .append("<div class=\"product__price\" itemprop=\"offers\" itemscope>")
+        .append("<span itemprop=\"price\" content=\"79990\">79 990 ₽</span>")
+        .append("<meta itemprop=\"priceCurrency\" content=\"RUB\"></div>")
+        .append("<div class=\"product__descr\" itemprop=\"description\">")
+        .append("<p>iPhone 15 с Dynamic Island, камерой 48 Мп и разъёмом USB-C.</p></div>")
+        .append("</main><section class=\"recommendations\">");
+    int card = 0;
+    while (sb.length() < targetSize) {
+      sb.append("<div class=\"card\"><a class=\"card__title\" href=\"/catalog/item-").append(card)
+          .append("/\">Аксессуар ").append(card).append("</a><div class=\"card__price\">")
+          .append(990 + card * 10).append(" ₽</div><script>window.dataLayer.push({id:")
+          .append(card).append("});</script></div>");
+      card++;
+    }
+    sb.append("</section><footer class=\"footer\">© PiterGSM</footer></body></html>");
+    return sb.toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(UniversalProductParserBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class).build()).run();
+  }
+}
@@ -0,0 +1,14 @@
+package com.pricesparser.client;
+
+/**
+ * Блокирующая загрузка HTML-страницы. Реализации на разных HTTP-клиентах взаимозаменяемы: клиент
+ * для загрузки в блокирующем режиме выбирается свойством {@code parser.fetch.client}, а
+ * {@code HtmlFetcherBenchmark} сравнивает их между собой на локальном сервере.
+ */
+public interface HtmlFetcher {
+
+  // Имя клиента в parser.fetch.client и в результатах бенчмарка
+  String name();
+
+  String fetch(String url);
+}
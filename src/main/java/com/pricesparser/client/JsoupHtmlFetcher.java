@@ -0,0 +1,30 @@
+package com.pricesparser.client;
+
+import java.io.IOException;
+
+import org.jsoup.Jsoup;
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.config.WebClientConfig;
+
+// Jsoup ходит через HttpURLConnection: общий пул соединений и лимиты хостов на него не действуют
+@Component
+public class JsoupHtmlFetcher implements HtmlFetcher {
+
+  private static final int TIMEOUT_MS = 10000;
+
+  @Override
+  public String name() {
+    return "jsoup";
+  }
+
+  @Override
+  public String fetch(String url) {
+    try {
+      return Jsoup.connect(url).userAgent(WebClientConfig.USER_AGENT).timeout(TIMEOUT_MS)
+          .ignoreContentType(true).maxBodySize(0).execute().body();
+    } catch (IOException e) {
+      throw new RuntimeException("Ошибка при загрузке через Jsoup: " + e.getMessage(), e);
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.pricesparser.client;
 
+import java.net.URI;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,4 +14,12 @@ public interface ProductHtmlClient {
 
   @GetMapping("/{path}")
   String getHtmlByPath(@PathVariable String path);
+
+  // Параметр URI Feign подставляет вместо url из аннотации: так загружается любая страница
+  @GetMapping
+  String getPage(URI url);
+
+  // Завершающий слэш адреса без query Feign отрезает, путь метода возвращает его на место
+  @GetMapping("/")
+  String getPageWithTrailingSlash(URI url);
 }
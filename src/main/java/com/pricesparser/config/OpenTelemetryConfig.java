@@ -1,5 +1,11 @@
 package com.pricesparser.config;
 
+import java.time.Duration;
+
+import com.pricesparser.util.AdaptiveTracer;
+import com.pricesparser.util.EscalationSampler;
+import com.pricesparser.util.RateLimitingSampler;
+
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
@@ -9,6 +15,7 @@ import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.semconv.ResourceAttributes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -23,6 +30,27 @@ public class OpenTelemetryConfig {
     @Value("${otel.exporter.otlp.endpoint:http://localhost:4318/v1/traces}")
     private String otlpEndpoint;
 
+    @Value("${tracing.level:coarse}")
+    private String tracingLevel;
+
+    @Value("${tracing.detail-ratio:0.05}")
+    private double detailRatio;
+
+    @Value("${tracing.slow-threshold-ms:3000}")
+    private long slowThresholdMs;
+
+    @Value("${tracing.sampler:ratio}")
+    private String samplerType;
+
+    @Value("${tracing.sampler.ratio:0.1}")
+    private double samplerRatio;
+
+    @Value("${tracing.sampler.max-traces-per-second:20}")
+    private double maxTracesPerSecond;
+
+    @Value("${tracing.escalation.max-traces-per-second:5}")
+    private double maxEscalationsPerSecond;
+
     @Bean
     public OpenTelemetry openTelemetry() {
         Resource resource = Resource.getDefault()
@@ -36,6 +64,8 @@ public class OpenTelemetryConfig {
         SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
                 .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
                 .setResource(resource)
+                .setSampler(Sampler.parentBased(new EscalationSampler(rootSampler(),
+                        new RateLimitingSampler(maxEscalationsPerSecond))))
                 .build();
 
         return OpenTelemetrySdk.builder()
@@ -43,4 +73,16 @@ public class OpenTelemetryConfig {
                 .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
                 .buildAndRegisterGlobal();
     }
+
+    @Bean
+    public AdaptiveTracer adaptiveTracer(OpenTelemetry openTelemetry) {
+        return new AdaptiveTracer(openTelemetry, AdaptiveTracer.Level.from(tracingLevel),
+                detailRatio, Duration.ofMillis(slowThresholdMs));
+    }
+
+    private Sampler rootSampler() {
+        return "rate-limited".equalsIgnoreCase(samplerType)
+                ? new RateLimitingSampler(maxTracesPerSecond)
+                : Sampler.traceIdRatioBased(samplerRatio);
+    }
 }
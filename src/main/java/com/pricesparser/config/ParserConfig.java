@@ -0,0 +1,117 @@
+package com.pricesparser.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+
+import com.pricesparser.client.HtmlFetcher;
+import com.pricesparser.client.JsoupHtmlFetcher;
+import com.pricesparser.parser.ExtractionProfile;
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.ProductParser;
+import com.pricesparser.parser.StreamingProductParser;
+import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.service.FeignClientService;
+import com.pricesparser.service.RestTemplateService;
+import com.pricesparser.service.WebClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ParserConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParserConfig.class);
+
+  @Value("${parser.mode:dom}")
+  private String parserMode;
+
+  @Value("${parser.fetch.client:netty}")
+  private String fetchClient;
+
+  @Value("${parser.profiles.location:extraction_profiles.json}")
+  private String profilesLocation;
+
+  @Value("${parser.profiles.timing-sample-rate:0.01}")
+  private double timingSampleRate;
+
+  @Value("${parser.capture.enabled:true}")
+  private boolean captureEnabled;
+
+  @Value("${parser.capture.directory:${java.io.tmpdir}/prices-parser/captures}")
+  private String captureDirectory;
+
+  @Value("${parser.capture.max-captures:50}")
+  private int maxCaptures;
+
+  @Value("${parser.capture.max-page-bytes:2097152}")
+  private int maxCapturePageBytes;
+
+  @Bean
+  public ParseFailureCaptureStore parseFailureCaptureStore(MeterRegistry meterRegistry) {
+    if (!captureEnabled) {
+      return ParseFailureCaptureStore.disabled();
+    }
+    return new ParseFailureCaptureStore(Paths.get(captureDirectory), maxCaptures,
+        maxCapturePageBytes, meterRegistry);
+  }
+
+  @Bean
+  public ExtractionProfileRegistry extractionProfileRegistry(MeterRegistry meterRegistry) {
+    List<ExtractionProfile> profiles = List.of();
+    try {
+      ClassPathResource resource = new ClassPathResource(profilesLocation);
+      if (resource.exists()) {
+        try (InputStream in = resource.getInputStream()) {
+          profiles = ExtractionProfileRegistry.readProfiles(in);
+        }
+      } else if (Files.exists(Paths.get(profilesLocation))) {
+        try (InputStream in = Files.newInputStream(Paths.get(profilesLocation))) {
+          profiles = ExtractionProfileRegistry.readProfiles(in);
+        }
+      } else {
+        logger.warn("Файл профилей извлечения {} не найден, используется только общий каскад",
+            profilesLocation);
+      }
+    } catch (IOException e) {
+      logger.error("Не удалось загрузить профили извлечения из {}: {}", profilesLocation,
+          e.getMessage());
+    }
+    return new ExtractionProfileRegistry(profiles, meterRegistry, timingSampleRate);
+  }
+
+  @Bean
+  @Primary
+  public ProductParser productParser(UniversalProductParser universalProductParser,
+      StreamingProductParser streamingProductParser) {
+    return "streaming".equalsIgnoreCase(parserMode) ? streamingProductParser
+        : universalProductParser;
+  }
+
+  // Условные запросы и лимит тела есть только у PageFetcher, остальные клиенты загружают
+  // страницу целиком
+  @Bean
+  @Primary
+  public HtmlFetcher htmlFetcher(PageFetcher pageFetcher, JsoupHtmlFetcher jsoupHtmlFetcher,
+      RestTemplateService restTemplateService, WebClientService webClientService,
+      FeignClientService feignClientService) {
+    HtmlFetcher htmlFetcher = List.<HtmlFetcher>of(pageFetcher, jsoupHtmlFetcher,
+        restTemplateService, webClientService, feignClientService).stream()
+        .filter(fetcher -> fetcher.name().equalsIgnoreCase(fetchClient)).findFirst()
+        .orElseThrow(() -> new RuntimeException("Неизвестный клиент загрузки страниц: "
+            + fetchClient + " (parser.fetch.client)"));
+    logger.info("Клиент загрузки страниц в блокирующем режиме: {}", htmlFetcher.name());
+    return htmlFetcher;
+  }
+}
@@ -0,0 +1,60 @@
+package com.pricesparser.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.pricesparser.util.HttpArchive;
+import com.pricesparser.util.RecordingFilter;
+import com.pricesparser.util.ReplayServer;
+
+/**
+ * Запись и воспроизведение ответов магазина ({@code parser.replay.mode}: off | record | replay).
+ * При воспроизведении ссылки на товары надо направить на локальный сервер через
+ * {@code parser.links.base-url}.
+ */
+@Configuration
+public class ReplayConfig {
+
+  @Value("${parser.replay.mode:off}")
+  private String mode;
+
+  @Value("${parser.replay.archive:${java.io.tmpdir}/prices-parser/replay.bin.gz}")
+  private String archive;
+
+  @Value("${parser.replay.host:127.0.0.1}")
+  private String host;
+
+  @Value("${parser.replay.port:18080}")
+  private int port;
+
+  @Value("${parser.replay.latency-ms:0}")
+  private long latencyMs;
+
+  @Value("${parser.replay.jitter-ms:0}")
+  private long jitterMs;
+
+  @Value("${parser.replay.error-rate:0}")
+  private double errorRate;
+
+  @Value("${parser.replay.bandwidth-bytes-per-second:0}")
+  private long bandwidthBytesPerSecond;
+
+  @Bean(destroyMethod = "close")
+  public RecordingFilter recordingFilter() {
+    return "record".equalsIgnoreCase(mode) ? RecordingFilter.to(Path.of(archive))
+        : RecordingFilter.disabled();
+  }
+
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  @ConditionalOnProperty(name = "parser.replay.mode", havingValue = "replay")
+  public ReplayServer replayServer() {
+    return new ReplayServer(HttpArchive.load(Path.of(archive)),
+        new ReplayServer.Options(Duration.ofMillis(latencyMs), Duration.ofMillis(jitterMs),
+            errorRate, bandwidthBytesPerSecond), host, port);
+  }
+}
@@ -6,22 +6,29 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.pricesparser.util.PooledConnectionRequestFactory;
+
+import reactor.netty.http.client.HttpClient;
+
 @Configuration
 public class RestTemplateConfig {
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
-    return builder.setConnectTimeout(Duration.ofSeconds(10)).setReadTimeout(Duration.ofSeconds(10))
-        .requestFactory(this::clientHttpRequestFactory).build();
+  public RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient fetchHttpClient) {
+    return builder.requestFactory(() -> clientHttpRequestFactory(fetchHttpClient)).build();
   }
 
-  private ClientHttpRequestFactory clientHttpRequestFactory() {
-    SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-    factory.setConnectTimeout(10000);
-    factory.setReadTimeout(10000);
-    return factory;
+  // Блокирующий RestTemplate поверх общего пула соединений из WebClientConfig, gzip и deflate
+  // распаковывает сам Reactor Netty. Ответы не должны закрывать соединение, уже вернувшееся
+  // в пул, см. PooledConnectionRequestFactory
+  private ClientHttpRequestFactory clientHttpRequestFactory(HttpClient fetchHttpClient) {
+    ReactorNettyClientRequestFactory factory =
+        new ReactorNettyClientRequestFactory(fetchHttpClient.compress(true));
+    factory.setConnectTimeout(Duration.ofSeconds(10));
+    factory.setReadTimeout(Duration.ofSeconds(10));
+    return new PooledConnectionRequestFactory(factory);
   }
 }
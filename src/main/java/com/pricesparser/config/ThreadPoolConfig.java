@@ -1,17 +1,29 @@
 package com.pricesparser.config;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.pricesparser.util.HostConcurrencyLimiter;
+import com.pricesparser.util.VirtualThreadPinningMonitor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class ThreadPoolConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(ThreadPoolConfig.class);
+
   @Value("${parser.thread-pool.core-size:5}")
   private int corePoolSize;
 
@@ -24,8 +36,30 @@ public class ThreadPoolConfig {
   @Value("${parser.thread-pool.keep-alive-seconds:60}")
   private long keepAliveSeconds;
 
+  @Value("${parser.pipeline.parse-threads:0}")
+  private int parseThreads;
+
+  @Value("${parser.thread-pool.mode:platform}")
+  private String mode;
+
+  @Value("${parser.thread-pool.virtual.max-concurrency:200}")
+  private int virtualMaxConcurrency;
+
+  @Value("${parser.thread-pool.virtual.max-per-host:8}")
+  private int virtualMaxPerHost;
+
+  @Value("${parser.thread-pool.virtual.pinned-threshold-ms:20}")
+  private long pinnedThresholdMs;
+
   @Bean(name = "productParseExecutor")
   public ExecutorService productParseExecutor() {
+    if (isVirtual()) {
+      logger.info("productParseExecutor на виртуальных потоках: до {} задач, до {} на хост",
+          virtualMaxConcurrency, virtualMaxPerHost);
+      return Executors.newThreadPerTaskExecutor(
+          Thread.ofVirtual().name("ProductParse-vt-", 0).factory());
+    }
+
     ThreadPoolExecutor executor = new ThreadPoolExecutor(corePoolSize, maxPoolSize,
         keepAliveSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), r -> {
           Thread thread = new Thread(r, "ProductParse-" + System.currentTimeMillis());
@@ -35,4 +69,35 @@ public class ThreadPoolConfig {
 
     return executor;
   }
+
+  // В режиме platform параллелизм ограничивает размер пула, семафоры не нужны
+  @Bean
+  public HostConcurrencyLimiter parseConcurrencyLimiter(MeterRegistry meterRegistry) {
+    return isVirtual()
+        ? new HostConcurrencyLimiter(virtualMaxConcurrency, virtualMaxPerHost, meterRegistry)
+        : HostConcurrencyLimiter.unbounded();
+  }
+
+  @Bean(destroyMethod = "close")
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+    return isVirtual()
+        ? new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(pinnedThresholdMs))
+        : VirtualThreadPinningMonitor.disabled();
+  }
+
+  // Разбор HTML упирается в CPU: пул по числу ядер, ожидание сети идёт на event loop
+  @Bean(name = "productCpuParseExecutor", destroyMethod = "shutdown")
+  public ExecutorService productCpuParseExecutor() {
+    int threads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(r, "ProductCpuParse-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private boolean isVirtual() {
+    return "virtual".equalsIgnoreCase(mode);
+  }
 }
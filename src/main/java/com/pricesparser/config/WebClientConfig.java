@@ -2,24 +2,207 @@ package com.pricesparser.config;
 
 import java.time.Duration;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.pricesparser.util.BandwidthMeter;
+import com.pricesparser.util.ContentDecodingFilter;
+import com.pricesparser.util.HedgePolicy;
+import com.pricesparser.util.HostCircuitBreaker;
+import com.pricesparser.util.RecordingFilter;
+import com.pricesparser.util.HostRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
+import io.netty.util.AttributeKey;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Общий HTTP-клиент для всех загрузок страниц: парсеры, {@code WebClient} и {@code RestTemplate}
+ * берут соединения из одного пула, поэтому TCP и TLS к магазину устанавливаются один раз.
+ */
 @Configuration
 public class WebClientConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
+
+  private static final AttributeKey<Long> REQUEST_STARTED_AT =
+      AttributeKey.valueOf("fetchRequestStartedAt");
+
+  public static final String USER_AGENT =
+      "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+  @Value("${parser.http.pool.max-connections-per-host:8}")
+  private int maxConnectionsPerHost;
+
+  @Value("${parser.http.pool.pending-acquire-max-count:256}")
+  private int pendingAcquireMaxCount;
+
+  @Value("${parser.http.pool.pending-acquire-timeout-ms:30000}")
+  private long pendingAcquireTimeoutMs;
+
+  @Value("${parser.http.pool.max-idle-seconds:30}")
+  private long maxIdleSeconds;
+
+  @Value("${parser.http.pool.max-life-seconds:300}")
+  private long maxLifeSeconds;
+
+  @Value("${parser.http.http2.enabled:true}")
+  private boolean http2Enabled;
+
+  @Value("${parser.politeness.enabled:true}")
+  private boolean politenessEnabled;
+
+  @Value("${parser.politeness.initial-rate:1.0}")
+  private double initialRate;
+
+  @Value("${parser.politeness.min-rate:0.1}")
+  private double minRate;
+
+  @Value("${parser.politeness.max-rate:10.0}")
+  private double maxRate;
+
+  @Value("${parser.politeness.increase-step:0.1}")
+  private double increaseStep;
+
+  @Value("${parser.politeness.decrease-factor:0.5}")
+  private double decreaseFactor;
+
+  @Value("${parser.politeness.burst:2}")
+  private int burst;
+
+  @Value("${parser.politeness.slow-response-ms:2000}")
+  private long slowResponseMs;
+
+  @Value("${parser.politeness.max-retry-after-seconds:600}")
+  private long maxRetryAfterSeconds;
+
+  @Value("${parser.circuit-breaker.enabled:true}")
+  private boolean circuitBreakerEnabled;
+
+  @Value("${parser.circuit-breaker.window-size:20}")
+  private int breakerWindowSize;
+
+  @Value("${parser.circuit-breaker.minimum-calls:10}")
+  private int breakerMinimumCalls;
+
+  @Value("${parser.circuit-breaker.failure-rate-threshold:0.5}")
+  private double breakerFailureRateThreshold;
+
+  @Value("${parser.circuit-breaker.open-seconds:30}")
+  private long breakerOpenSeconds;
+
+  @Value("${parser.circuit-breaker.half-open-probes:3}")
+  private int breakerHalfOpenProbes;
+
+  @Value("${parser.hedging.enabled:true}")
+  private boolean hedgingEnabled;
+
+  @Value("${parser.hedging.percentile:0.95}")
+  private double hedgingPercentile;
+
+  @Value("${parser.hedging.window-size:100}")
+  private int hedgingWindowSize;
+
+  @Value("${parser.hedging.min-samples:20}")
+  private int hedgingMinSamples;
+
+  @Value("${parser.hedging.min-delay-ms:50}")
+  private long hedgingMinDelayMs;
+
+  @Value("${parser.hedging.max-delay-ms:5000}")
+  private long hedgingMaxDelayMs;
+
+  // Пул в Reactor Netty заводится на каждый удалённый адрес, поэтому maxConnections — лимит на хост
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider fetchConnectionProvider() {
+    logger.info("Пул HTTP-соединений: до {} на хост, простой до {} с, HTTP/2: {}",
+        maxConnectionsPerHost, maxIdleSeconds, http2Enabled);
+    return ConnectionProvider.builder("fetch").maxConnections(maxConnectionsPerHost)
+        .pendingAcquireMaxCount(pendingAcquireMaxCount)
+        .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+        .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+        .maxLifeTime(Duration.ofSeconds(maxLifeSeconds))
+        .evictInBackground(Duration.ofSeconds(maxIdleSeconds)).lifo().metrics(true).build();
+  }
+
   @Bean
-  public WebClient webClient() {
-    HttpClient httpClient = HttpClient.create().responseTimeout(Duration.ofSeconds(10))
-        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000);
+  public HostRateLimiter hostRateLimiter(MeterRegistry meterRegistry) {
+    if (!politenessEnabled) {
+      return HostRateLimiter.disabled();
+    }
+    logger.info("Ограничение скорости по хостам: старт {} запр/с, от {} до {}", initialRate,
+        minRate, maxRate);
+    return new HostRateLimiter(initialRate, minRate, maxRate, increaseStep, decreaseFactor, burst,
+        Duration.ofMillis(slowResponseMs), Duration.ofSeconds(maxRetryAfterSeconds),
+        meterRegistry);
+  }
 
-    return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient))
-        .defaultHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+  @Bean
+  public HostCircuitBreaker hostCircuitBreaker(MeterRegistry meterRegistry) {
+    if (!circuitBreakerEnabled) {
+      return HostCircuitBreaker.disabled();
+    }
+    logger.info("Предохранитель по хостам: порог ошибок {} в окне {}, пауза {} с",
+        breakerFailureRateThreshold, breakerWindowSize, breakerOpenSeconds);
+    return new HostCircuitBreaker(breakerWindowSize, breakerMinimumCalls,
+        breakerFailureRateThreshold, Duration.ofSeconds(breakerOpenSeconds),
+        breakerHalfOpenProbes, meterRegistry);
+  }
+
+  @Bean
+  public HedgePolicy hedgePolicy(MeterRegistry meterRegistry) {
+    if (!hedgingEnabled) {
+      return HedgePolicy.disabled();
+    }
+    logger.info("Дублирующие запросы после p{} времени ответа хоста",
+        Math.round(hedgingPercentile * 100));
+    return new HedgePolicy(hedgingWindowSize, hedgingMinSamples, hedgingPercentile,
+        Duration.ofMillis(hedgingMinDelayMs), Duration.ofMillis(hedgingMaxDelayMs), meterRegistry);
+  }
+
+  @Bean
+  public HttpClient fetchHttpClient(ConnectionProvider fetchConnectionProvider,
+      HostRateLimiter hostRateLimiter) {
+    HttpClient httpClient = HttpClient.create(fetchConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+        .option(ChannelOption.SO_KEEPALIVE, true).keepAlive(true)
+        .responseTimeout(Duration.ofSeconds(10)).followRedirect(true)
+        // Путь в тегах не нужен: хватает remote.address, иначе метрик будет по числу товаров
+        .metrics(true, uri -> "/")
+        // Каждый ответ любого клиента подстраивает скорость запросов к его хосту
+        .doOnRequest((request, connection) ->
+            connection.channel().attr(REQUEST_STARTED_AT).set(System.nanoTime()))
+        .doOnResponse((response, connection) -> {
+          Long startedAt = connection.channel().attr(REQUEST_STARTED_AT).getAndSet(null);
+          hostRateLimiter.onResponse(response.resourceUrl(), response.status().code(),
+              startedAt != null ? System.nanoTime() - startedAt : 0,
+              response.responseHeaders().get("Retry-After"));
+        });
+    // h2 согласуется через ALPN только по TLS, на http:// остаётся HTTP/1.1
+    return http2Enabled ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : httpClient;
+  }
+
+  @Bean
+  public BandwidthMeter bandwidthMeter(MeterRegistry meterRegistry) {
+    return new BandwidthMeter(meterRegistry);
+  }
+
+  // Сжатие распаковывается фильтром, а не Reactor Netty, чтобы видеть байты до распаковки.
+  // Запись стоит снаружи распаковки и сохраняет уже распакованное тело
+  @Bean
+  public WebClient webClient(HttpClient fetchHttpClient, BandwidthMeter bandwidthMeter,
+      RecordingFilter recordingFilter) {
+    return WebClient.builder().clientConnector(new ReactorClientHttpConnector(fetchHttpClient))
+        .filter(recordingFilter).filter(new ContentDecodingFilter(bandwidthMeter))
+        .defaultHeader("User-Agent", USER_AGENT)
         .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)).build();
   }
 }
@@ -0,0 +1,37 @@
+package com.pricesparser.controller;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.ParseFailureCaptureStore.ParseCapture;
+
+@Component
+@Endpoint(id = "parsecaptures")
+public class ParseCaptureEndpoint {
+
+  private final ParseFailureCaptureStore captureStore;
+
+  public ParseCaptureEndpoint(ParseFailureCaptureStore captureStore) {
+    this.captureStore = captureStore;
+  }
+
+  @ReadOperation
+  public List<ParseCapture> captures() {
+    return captureStore.list();
+  }
+
+  @ReadOperation(produces = "application/gzip")
+  public WebEndpointResponse<Resource> capture(@Selector String id) {
+    return captureStore.pageFile(id)
+        .map(file -> new WebEndpointResponse<Resource>(new FileSystemResource(file)))
+        .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+  }
+}
@@ -1,6 +1,6 @@
 package com.pricesparser.controller;
 
-import java.util.concurrent.CompletableFuture;
+import java.net.URI;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,52 +8,68 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.pricesparser.dto.ParseJobResponse;
 import com.pricesparser.dto.ParseRequest;
 import com.pricesparser.dto.ProductResponse;
-import com.pricesparser.service.ProductParseService;
+import com.pricesparser.service.ParseJob;
+import com.pricesparser.service.ParseJobService;
 import com.pricesparser.service.ProductService;
 
+import reactor.core.publisher.Flux;
+
 @RestController
 @RequestMapping("/api")
 public class ParseController {
 
   private static final Logger logger = LoggerFactory.getLogger(ParseController.class);
 
-  private final ProductParseService productParseService;
+  private final ParseJobService parseJobService;
   private final ProductService productService;
 
-  public ParseController(ProductParseService productParseService, ProductService productService) {
-    this.productParseService = productParseService;
+  public ParseController(ParseJobService parseJobService, ProductService productService) {
+    this.parseJobService = parseJobService;
     this.productService = productService;
   }
 
+  // Возвращает id задания; ход выполнения — GET /api/jobs/{id}, товары — /api/jobs/{id}/results
   @PostMapping("/parse")
-  public ResponseEntity<String> parseProducts(@RequestBody ParseRequest request) {
+  public ResponseEntity<ParseJobResponse> parseProducts(@RequestBody ParseRequest request) {
+    if (request.getUrls() == null || request.getUrls().isEmpty()) {
+      return ResponseEntity.badRequest().build();
+    }
     logger.info("Получен запрос на парсинг {} URL", request.getUrls().size());
 
-    try {
-      CompletableFuture.runAsync(() -> {
-        logger.info("Запуск асинхронного парсинга {} URL", request.getUrls().size());
-        productParseService.parseProducts(request.getUrls());
-        logger.info("Парсинг завершён для {} URL", request.getUrls().size());
-      });
-
-      return ResponseEntity.accepted()
-          .body("Парсинг запущен для " + request.getUrls().size() + " URL");
-    } catch (Exception e) {
-      logger.error("Ошибка при запуске парсинга: {}", e.getMessage(), e);
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-          .body("Ошибка при запуске парсинга: " + e.getMessage());
-    }
+    ParseJob job = parseJobService.submit(request.getUrls());
+    return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id()))
+        .body(toResponse(job));
+  }
+
+  @GetMapping("/jobs/{id}")
+  public ResponseEntity<ParseJobResponse> getJob(@PathVariable String id) {
+    return ResponseEntity.of(parseJobService.find(id).map(this::toResponse));
+  }
+
+  @DeleteMapping("/jobs/{id}")
+  public ResponseEntity<ParseJobResponse> cancelJob(@PathVariable String id) {
+    return ResponseEntity.of(parseJobService.cancel(id).map(this::toResponse));
+  }
+
+  // Товары по мере сохранения: text/event-stream или application/x-ndjson по заголовку Accept
+  @GetMapping(value = "/jobs/{id}/results",
+      produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<Flux<ProductResponse>> streamJobResults(@PathVariable String id) {
+    return ResponseEntity.of(parseJobService.find(id).map(ParseJob::results));
   }
 
   @GetMapping("/results")
@@ -74,4 +90,10 @@ public class ParseController {
 
     return ResponseEntity.ok(results);
   }
+
+  private ParseJobResponse toResponse(ParseJob job) {
+    return new ParseJobResponse(job.id(), job.state().name(), job.total(), job.finished(),
+        job.inFlight(), job.succeeded(), job.unchanged(), job.failed(), job.cancelled(),
+        job.createdAt(), job.finishedAt());
+  }
 }
@@ -0,0 +1,25 @@
+package com.pricesparser.controller;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.service.StartupWarmup;
+
+// Входит в группу readiness: пока идёт прогрев, экземпляр не готов принимать нагрузку
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+  private final StartupWarmup startupWarmup;
+
+  public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+    this.startupWarmup = startupWarmup;
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = startupWarmup.isComplete() ? Health.up() : Health.outOfService();
+    return builder.withDetail("phase", startupWarmup.phase())
+        .withDetails(startupWarmup.details()).build();
+  }
+}
@@ -0,0 +1,124 @@
+package com.pricesparser.dto;
+
+import java.time.Instant;
+
+public class ParseJobResponse {
+
+  private String id;
+  private String state;
+  private int total;
+  private int finished;
+  private int inFlight;
+  private int succeeded;
+  private int unchanged;
+  private int failed;
+  private int cancelled;
+  private Instant createdAt;
+  private Instant finishedAt;
+
+  public ParseJobResponse() {}
+
+  public ParseJobResponse(String id, String state, int total, int finished, int inFlight,
+      int succeeded, int unchanged, int failed, int cancelled, Instant createdAt,
+      Instant finishedAt) {
+    this.id = id;
+    this.state = state;
+    this.total = total;
+    this.finished = finished;
+    this.inFlight = inFlight;
+    this.succeeded = succeeded;
+    this.unchanged = unchanged;
+    this.failed = failed;
+    this.cancelled = cancelled;
+    this.createdAt = createdAt;
+    this.finishedAt = finishedAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  public int getFinished() {
+    return finished;
+  }
+
+  public void setFinished(int finished) {
+    this.finished = finished;
+  }
+
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  public void setInFlight(int inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  public int getSucceeded() {
+    return succeeded;
+  }
+
+  public void setSucceeded(int succeeded) {
+    this.succeeded = succeeded;
+  }
+
+  public int getUnchanged() {
+    return unchanged;
+  }
+
+  public void setUnchanged(int unchanged) {
+    this.unchanged = unchanged;
+  }
+
+  public int getFailed() {
+    return failed;
+  }
+
+  public void setFailed(int failed) {
+    this.failed = failed;
+  }
+
+  public int getCancelled() {
+    return cancelled;
+  }
+
+  public void setCancelled(int cancelled) {
+    this.cancelled = cancelled;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Instant finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+}
@@ -38,6 +38,9 @@ public class Product {
     @Column(name = "parsed_at")
     private LocalDateTime parsedAt;
 
+    @Column(name = "content_fingerprint", nullable = false)
+    private long contentFingerprint;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -105,6 +108,14 @@ public class Product {
         this.parsedAt = parsedAt;
     }
 
+    public long getContentFingerprint() {
+        return contentFingerprint;
+    }
+
+    public void setContentFingerprint(long contentFingerprint) {
+        this.contentFingerprint = contentFingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,135 @@
+package com.pricesparser.parser;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+
+public final class BodyTextPriceScanner implements NodeFilter {
+
+  private enum State {
+    NONE, NUMBER, NUMBER_SPACE
+  }
+
+  private final int maxChars;
+  private final StringBuilder candidate = new StringBuilder(32);
+  private State state = State.NONE;
+  private int groupLength;
+  private boolean decimal;
+  private int charsScanned;
+  private long minorUnits = PriceScanner.NOT_FOUND;
+
+  private BodyTextPriceScanner(int maxChars) {
+    this.maxChars = maxChars;
+  }
+
+  public static Result scan(Element root, int maxChars) {
+    BodyTextPriceScanner scanner = new BodyTextPriceScanner(maxChars);
+    root.filter(scanner);
+    return new Result(scanner.minorUnits, scanner.charsScanned,
+        scanner.minorUnits < 0 && scanner.charsScanned >= maxChars);
+  }
+
+  @Override
+  public FilterResult head(Node node, int depth) {
+    if (node instanceof TextNode text) {
+      String value = text.getWholeText();
+      int limit = Math.min(value.length(), maxChars - charsScanned);
+      for (int i = 0; i < limit; i++) {
+        if (accept(value.charAt(i))) {
+          charsScanned += i + 1;
+          return FilterResult.STOP;
+        }
+      }
+      charsScanned += limit;
+      if (charsScanned >= maxChars) {
+        return FilterResult.STOP;
+      }
+    } else if (node instanceof Element element && (element.isBlock()
+        || "br".equals(element.normalName()))) {
+      accept(' ');
+    }
+    return FilterResult.CONTINUE;
+  }
+
+  @Override
+  public FilterResult tail(Node node, int depth) {
+    if (node instanceof Element element && element.isBlock()) {
+      accept(' ');
+    }
+    return FilterResult.CONTINUE;
+  }
+
+  // Повторяет PRICE_IN_TEXT_PATTERN: группы цифр через пробел, копейки и знак рубля
+  private boolean accept(char c) {
+    boolean digit = c >= '0' && c <= '9';
+    switch (state) {
+      case NONE -> {
+        if (digit) {
+          startNumber(c);
+        }
+      }
+      case NUMBER -> {
+        if (digit) {
+          candidate.append(c);
+          groupLength++;
+        } else if ((c == '.' || c == ',') && !decimal) {
+          candidate.append(c);
+          decimal = true;
+          groupLength = 0;
+        } else if (isSpace(c)) {
+          state = State.NUMBER_SPACE;
+        } else {
+          return isCurrency(c) ? complete() : reset();
+        }
+      }
+      case NUMBER_SPACE -> {
+        if (digit) {
+          if (groupLength <= 3 && !decimal) {
+            candidate.append(' ').append(c);
+            groupLength = 1;
+            state = State.NUMBER;
+          } else {
+            startNumber(c);
+          }
+        } else if (!isSpace(c)) {
+          return isCurrency(c) ? complete() : reset();
+        }
+      }
+    }
+    return false;
+  }
+
+  private void startNumber(char c) {
+    candidate.setLength(0);
+    candidate.append(c);
+    groupLength = 1;
+    decimal = false;
+    state = State.NUMBER;
+  }
+
+  private boolean complete() {
+    long value = PriceScanner.scanMinorUnits(candidate);
+    if (value > 0) {
+      minorUnits = value;
+      return true;
+    }
+    return reset();
+  }
+
+  private boolean reset() {
+    state = State.NONE;
+    return false;
+  }
+
+  private static boolean isSpace(char c) {
+    return Character.isWhitespace(c) || c == '\u00A0' || c == '\u202F';
+  }
+
+  private static boolean isCurrency(char c) {
+    return c == 'р' || c == 'у' || c == 'б' || c == '₽';
+  }
+
+  public record Result(long minorUnits, int charsScanned, boolean budgetExhausted) {
+  }
+}
@@ -0,0 +1,21 @@
+package com.pricesparser.parser;
+
+import com.pricesparser.model.Product;
+
+/**
+ * Результат условной загрузки: товар и валидаторы ответа или признак, что страница не менялась.
+ */
+public record ConditionalParse(Product product, HttpValidators validators) {
+
+  public static ConditionalParse modified(Product product, HttpValidators validators) {
+    return new ConditionalParse(product, validators);
+  }
+
+  public static ConditionalParse notModified(HttpValidators validators) {
+    return new ConditionalParse(null, validators);
+  }
+
+  public boolean isNotModified() {
+    return product == null;
+  }
+}
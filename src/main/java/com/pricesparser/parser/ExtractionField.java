@@ -0,0 +1,5 @@
+package com.pricesparser.parser;
+
+public enum ExtractionField {
+  TITLE, PRICE, DESCRIPTION
+}
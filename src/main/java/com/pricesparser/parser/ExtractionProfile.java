@@ -0,0 +1,27 @@
+package com.pricesparser.parser;
+
+import java.util.Locale;
+
+public final class ExtractionProfile {
+
+  private final String host;
+  private final SelectorExtractionEngine engine;
+
+  public ExtractionProfile(String host, SelectorExtractionEngine engine) {
+    this.host = normalizeHost(host);
+    this.engine = engine;
+  }
+
+  static String normalizeHost(String host) {
+    String normalized = host.toLowerCase(Locale.ROOT);
+    return normalized.startsWith("www.") ? normalized.substring(4) : normalized;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public SelectorExtractionEngine getEngine() {
+    return engine;
+  }
+}
@@ -0,0 +1,38 @@
+package com.pricesparser.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record ExtractionProfileDefinition(String host, List<RuleDefinition> title,
+    List<RuleDefinition> price, List<RuleDefinition> description) {
+
+  public record RuleDefinition(String selector, String attribute, String within) {
+
+    ExtractionRule toRule(ExtractionField field) {
+      ExtractionRule rule = attribute != null ? ExtractionRule.attribute(field, selector, attribute)
+          : ExtractionRule.text(field, selector);
+      if (within != null) {
+        rule = rule.within(within);
+      }
+      if (field == ExtractionField.PRICE) {
+        rule = rule.accepting(value -> PriceScanner.scanMinorUnits(value) > 0);
+      }
+      return rule;
+    }
+  }
+
+  ExtractionProfile toProfile() {
+    List<ExtractionRule> rules = new ArrayList<>();
+    addRules(rules, ExtractionField.TITLE, title);
+    addRules(rules, ExtractionField.PRICE, price);
+    addRules(rules, ExtractionField.DESCRIPTION, description);
+    return new ExtractionProfile(host, new SelectorExtractionEngine(rules));
+  }
+
+  private static void addRules(List<ExtractionRule> rules, ExtractionField field,
+      List<RuleDefinition> definitions) {
+    if (definitions != null) {
+      definitions.forEach(definition -> rules.add(definition.toRule(field)));
+    }
+  }
+}
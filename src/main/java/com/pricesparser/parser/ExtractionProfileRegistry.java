@@ -0,0 +1,162 @@
+package com.pricesparser.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ExtractionProfileRegistry {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExtractionProfileRegistry.class);
+
+  public static final String GENERIC_PROFILE = "generic";
+
+  private final Map<String, ExtractionProfile> profiles;
+  private final MeterRegistry meterRegistry;
+  private final double timingSampleRate;
+  private final Map<ExtractionRule, RuleMeters> ruleMeters = new ConcurrentHashMap<>();
+  private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+
+  public ExtractionProfileRegistry(List<ExtractionProfile> profiles, MeterRegistry meterRegistry,
+      double timingSampleRate) {
+    this.profiles = profiles.stream()
+        .collect(Collectors.toUnmodifiableMap(ExtractionProfile::getHost, Function.identity()));
+    this.meterRegistry = meterRegistry;
+    this.timingSampleRate = timingSampleRate;
+    logger.info("Загружено {} профилей извлечения: {}", profiles.size(), this.profiles.keySet());
+  }
+
+  public static ExtractionProfileRegistry disabled() {
+    return new ExtractionProfileRegistry(List.of(), new SimpleMeterRegistry(), 0);
+  }
+
+  public static List<ExtractionProfile> readProfiles(InputStream in) throws IOException {
+    List<ExtractionProfileDefinition> definitions = new ObjectMapper().readValue(in,
+        new TypeReference<List<ExtractionProfileDefinition>>() {});
+    return definitions.stream().map(ExtractionProfileDefinition::toProfile).toList();
+  }
+
+  public Optional<ExtractionProfile> findProfile(String url) {
+    if (profiles.isEmpty() || url == null) {
+      return Optional.empty();
+    }
+    try {
+      String host = URI.create(url).getHost();
+      return host != null ? Optional.ofNullable(profiles.get(ExtractionProfile.normalizeHost(host)))
+          : Optional.empty();
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  public ExtractionResult extract(String url, Element root, SelectorExtractionEngine generic) {
+    boolean timed =
+        timingSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < timingSampleRate;
+    ExtractionProfile profile = findProfile(url).orElse(null);
+    if (profile == null) {
+      ExtractionResult result =
+          generic.extract(root, EnumSet.allOf(ExtractionField.class), timed);
+      record(GENERIC_PROFILE, result);
+      return result;
+    }
+
+    ExtractionResult result =
+        profile.getEngine().extract(root, EnumSet.allOf(ExtractionField.class), timed);
+    record(profile.getHost(), result);
+    if (result.isComplete()) {
+      countOutcome(profile.getHost(), "hit");
+      return result;
+    }
+
+    EnumSet<ExtractionField> missing = EnumSet.noneOf(ExtractionField.class);
+    for (ExtractionField field : ExtractionField.values()) {
+      if (!result.isResolved(field)) {
+        missing.add(field);
+      }
+    }
+    countOutcome(profile.getHost(),
+        missing.size() == ExtractionField.values().length ? "miss" : "partial");
+    logger.debug("Профиль {} не нашёл поля {}, запускаем общий каскад", profile.getHost(),
+        missing);
+
+    ExtractionResult fallback = generic.extract(root, missing, timed);
+    record(GENERIC_PROFILE, fallback);
+    for (ExtractionField field : missing) {
+      if (fallback.isResolved(field)) {
+        result.resolve(field, fallback.getRule(field), fallback.getValue(field));
+      }
+    }
+    return result;
+  }
+
+  private void record(String profile, ExtractionResult result) {
+    ExtractionRule[] rules = result.getWalkedRules();
+    for (int i = 0; i < rules.length; i++) {
+      ExtractionRule rule = rules[i];
+      if (!result.isWalked(rule.getField())) {
+        continue;
+      }
+      RuleMeters meters = ruleMeters.computeIfAbsent(rule, r -> new RuleMeters(profile, r));
+      if (result.isMatched(i)) {
+        meters.matches.increment();
+      }
+      if (result.getRule(rule.getField()) == rule) {
+        meters.hits.increment();
+      }
+      long nanos = result.getRuleNanos(i);
+      if (nanos >= 0) {
+        meters.evaluation.record(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private void countOutcome(String profile, String outcome) {
+    outcomeCounters.computeIfAbsent(profile + ":" + outcome,
+        key -> Counter.builder("parser_profile_extractions_total")
+            .description("Extractions served by a host profile").tag("profile", profile)
+            .tag("outcome", outcome).register(meterRegistry))
+        .increment();
+  }
+
+  private final class RuleMeters {
+
+    private final Counter matches;
+    private final Counter hits;
+    private final Timer evaluation;
+
+    RuleMeters(String profile, ExtractionRule rule) {
+      String field = rule.getField().name().toLowerCase(Locale.ROOT);
+      String name = rule.toString();
+      this.matches = Counter.builder("parser_rule_matches_total")
+          .description("Pages where the extraction rule matched an element")
+          .tag("profile", profile).tag("field", field).tag("rule", name).register(meterRegistry);
+      this.hits = Counter.builder("parser_rule_hits_total")
+          .description("Pages where the extraction rule supplied the field value")
+          .tag("profile", profile).tag("field", field).tag("rule", name).register(meterRegistry);
+      this.evaluation = Timer.builder("parser_rule_evaluation_seconds")
+          .description("Sampled time spent evaluating the extraction rule per page")
+          .tag("profile", profile).tag("field", field).tag("rule", name).register(meterRegistry);
+    }
+  }
+}
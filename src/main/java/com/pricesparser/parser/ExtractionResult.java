@@ -0,0 +1,76 @@
+package com.pricesparser.parser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class ExtractionResult {
+
+  private final Map<ExtractionField, String> values = new EnumMap<>(ExtractionField.class);
+  private final Map<ExtractionField, ExtractionRule> rules = new EnumMap<>(ExtractionField.class);
+  private ExtractionRule[] walkedRules = new ExtractionRule[0];
+  private Set<ExtractionField> walkedFields = Set.of();
+  private boolean[] matched = new boolean[0];
+  private long[] ruleNanos;
+
+  void recordWalk(ExtractionRule[] walkedRules, Set<ExtractionField> walkedFields,
+      boolean[] matched, long[] ruleNanos) {
+    this.walkedRules = walkedRules;
+    this.walkedFields = walkedFields;
+    this.matched = matched;
+    this.ruleNanos = ruleNanos;
+  }
+
+  void resolve(ExtractionField field, ExtractionRule rule, String value) {
+    rules.put(field, rule);
+    values.put(field, value);
+  }
+
+  public boolean isComplete() {
+    return values.size() == ExtractionField.values().length;
+  }
+
+  public boolean isResolved(ExtractionField field) {
+    return values.containsKey(field);
+  }
+
+  public String getValue(ExtractionField field) {
+    return values.get(field);
+  }
+
+  public ExtractionRule getRule(ExtractionField field) {
+    return rules.get(field);
+  }
+
+  public List<String> describe() {
+    List<String> trace = new ArrayList<>();
+    for (ExtractionField field : ExtractionField.values()) {
+      trace.add(isResolved(field) ? field + " <- " + getRule(field) : field + ": не найдено");
+    }
+    for (int i = 0; i < walkedRules.length; i++) {
+      if (isWalked(walkedRules[i].getField())) {
+        trace.add(walkedRules[i].getField() + " " + walkedRules[i]
+            + (matched[i] ? " [совпало]" : " [нет совпадений]"));
+      }
+    }
+    return trace;
+  }
+
+  ExtractionRule[] getWalkedRules() {
+    return walkedRules;
+  }
+
+  boolean isWalked(ExtractionField field) {
+    return walkedFields.contains(field);
+  }
+
+  boolean isMatched(int ruleIndex) {
+    return matched[ruleIndex];
+  }
+
+  long getRuleNanos(int ruleIndex) {
+    return ruleNanos != null ? ruleNanos[ruleIndex] : -1;
+  }
+}
@@ -0,0 +1,132 @@
+package com.pricesparser.parser;
+
+import java.util.function.Predicate;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+public final class ExtractionRule {
+
+  public enum Source {
+    TEXT, OWN_TEXT_OR_TEXT, ATTRIBUTE, ATTRIBUTE_OR_TEXT
+  }
+
+  private final ExtractionField field;
+  private final String selector;
+  private final Evaluator evaluator;
+  private final String scopeSelector;
+  private final Evaluator scope;
+  private final Source source;
+  private final String attribute;
+  private final Predicate<String> acceptor;
+
+  private ExtractionRule(ExtractionField field, String selector, String scopeSelector,
+      Source source, String attribute, Predicate<String> acceptor) {
+    this.field = field;
+    this.selector = selector;
+    this.evaluator = QueryParser.parse(selector);
+    this.scopeSelector = scopeSelector;
+    this.scope = scopeSelector != null ? QueryParser.parse(scopeSelector) : null;
+    this.source = source;
+    this.attribute = attribute;
+    this.acceptor = acceptor;
+  }
+
+  public static ExtractionRule text(ExtractionField field, String selector) {
+    return new ExtractionRule(field, selector, null, Source.TEXT, null, value -> !value.isEmpty());
+  }
+
+  public static ExtractionRule ownTextOrText(ExtractionField field, String selector) {
+    return new ExtractionRule(field, selector, null, Source.OWN_TEXT_OR_TEXT, null,
+        value -> !value.isEmpty());
+  }
+
+  public static ExtractionRule attribute(ExtractionField field, String selector,
+      String attribute) {
+    return new ExtractionRule(field, selector, null, Source.ATTRIBUTE, attribute,
+        value -> !value.isEmpty());
+  }
+
+  public static ExtractionRule attributeOrText(ExtractionField field, String selector,
+      String attribute) {
+    return new ExtractionRule(field, selector, null, Source.ATTRIBUTE_OR_TEXT, attribute,
+        value -> !value.isEmpty());
+  }
+
+  // Scope is checked by walking ancestors instead of a "scope selector" descendant query:
+  // jsoup memoizes structural evaluators per thread and only clears them from Collector.
+  public ExtractionRule within(String scopeSelector) {
+    return new ExtractionRule(field, selector, scopeSelector, source, attribute, acceptor);
+  }
+
+  public ExtractionRule accepting(Predicate<String> acceptor) {
+    return new ExtractionRule(field, selector, scopeSelector, source, attribute, acceptor);
+  }
+
+  boolean matches(Element root, Element element) {
+    if (!evaluator.matches(root, element)) {
+      return false;
+    }
+    if (scope == null) {
+      return true;
+    }
+    for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+      if (scope.matches(root, parent)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  String extract(Element element) {
+    String value;
+    switch (source) {
+      case OWN_TEXT_OR_TEXT -> {
+        value = element.ownText().trim();
+        if (value.isEmpty()) {
+          value = element.text().trim();
+        }
+      }
+      case ATTRIBUTE -> value = element.attr(attribute).trim();
+      case ATTRIBUTE_OR_TEXT -> {
+        value = element.attr(attribute).trim();
+        if (value.isEmpty()) {
+          value = element.text().trim();
+        }
+      }
+      default -> value = element.text().trim();
+    }
+    return value;
+  }
+
+  boolean accepts(String value) {
+    return value != null && acceptor.test(value);
+  }
+
+  public ExtractionField getField() {
+    return field;
+  }
+
+  public String getSelector() {
+    return selector;
+  }
+
+  public String getScopeSelector() {
+    return scopeSelector;
+  }
+
+  public Source getSource() {
+    return source;
+  }
+
+  public String getAttribute() {
+    return attribute;
+  }
+
+  @Override
+  public String toString() {
+    String target = scopeSelector != null ? scopeSelector + " " + selector : selector;
+    return attribute != null ? target + "@" + attribute : target;
+  }
+}
@@ -0,0 +1,163 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.util.HostConcurrencyLimiter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ограничивает чтение тела страницы: загрузка обрывается, как только детектор увидел название,
+ * цену и описание товара, или когда исчерпан лимит байт для хоста. Память на один запрос в
+ * работе не превышает этого лимита.
+ */
+@Component
+public class FetchBudget {
+
+  private static final Logger logger = LoggerFactory.getLogger(FetchBudget.class);
+
+  public enum Outcome {
+    FULL, REGION_CAPTURED, BUDGET_EXHAUSTED;
+
+    String tag() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private final MeterRegistry meterRegistry;
+  private final StreamingProductExtractor extractor;
+  private final boolean earlyAbort;
+  private final long defaultBudgetBytes;
+  private final Map<String, Long> hostBudgets;
+
+  public FetchBudget(MeterRegistry meterRegistry,
+      @Value("${parser.fetch.early-abort.enabled:true}") boolean earlyAbort,
+      @Value("${parser.fetch.byte-budget.default-bytes:2097152}") long defaultBudgetBytes,
+      @Value("${parser.fetch.byte-budget.hosts:}") String hostBudgets,
+      @Value("${parser.streaming.max-capture-chars:4000}") int maxCaptureChars) {
+    this.meterRegistry = meterRegistry;
+    this.extractor = new StreamingProductExtractor(maxCaptureChars);
+    this.earlyAbort = earlyAbort;
+    this.defaultBudgetBytes = defaultBudgetBytes;
+    this.hostBudgets = parseHostBudgets(hostBudgets);
+    logger.info("Лимит тела страницы: {} байт, по хостам {}, ранний обрыв: {}",
+        defaultBudgetBytes, this.hostBudgets, earlyAbort);
+  }
+
+  // Тело читается целиком: для тестов и бенчмарков
+  public static FetchBudget disabled() {
+    return new FetchBudget(new SimpleMeterRegistry(), false, 0, "", 0);
+  }
+
+  // 0 — без ограничения
+  public long budgetFor(String host) {
+    return hostBudgets.getOrDefault(host, defaultBudgetBytes);
+  }
+
+  public BodyRead start(String url) {
+    String host = HostConcurrencyLimiter.hostOf(url);
+    return new BodyRead(host, budgetFor(host),
+        earlyAbort ? extractor.newRegionDetector() : null);
+  }
+
+  // Длина тела из заголовков или -1: у сжатого ответа Content-Length считает байты до распаковки
+  public static long declaredLength(String contentLength, String contentEncoding) {
+    if (contentLength == null || (contentEncoding != null
+        && !"identity".equalsIgnoreCase(contentEncoding.trim()))) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static Map<String, Long> parseHostBudgets(String value) {
+    Map<String, Long> budgets = new HashMap<>();
+    for (String entry : value.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int separator = entry.indexOf('=');
+      try {
+        budgets.put(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+            Long.parseLong(entry.substring(separator + 1).trim()));
+      } catch (RuntimeException e) {
+        throw new RuntimeException("Некорректный лимит байт для хоста: " + entry.trim(), e);
+      }
+    }
+    return Map.copyOf(budgets);
+  }
+
+  public final class BodyRead {
+
+    private final String host;
+    private final long budget;
+    private final StreamingProductExtractor.RegionDetector detector;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(16 * 1024);
+    private Outcome outcome;
+
+    private BodyRead(String host, long budget, StreamingProductExtractor.RegionDetector detector) {
+      this.host = host;
+      this.budget = budget;
+      this.detector = detector;
+    }
+
+    // false — дальше читать не нужно, загрузку можно оборвать
+    public boolean accept(byte[] chunk) {
+      if (outcome != null) {
+        return false;
+      }
+      int length = chunk.length;
+      if (budget > 0 && body.size() + length > budget) {
+        length = (int) (budget - body.size());
+        outcome = Outcome.BUDGET_EXHAUSTED;
+      }
+      // Тело обрезается ровно по концу карточки, а не по границе сетевого чанка: иначе хвост,
+      // а с ним и отпечаток страницы, менялся бы от загрузки к загрузке
+      if (detector != null && detector.feed(chunk, 0, length)) {
+        length = (int) (detector.consumed() - body.size());
+        outcome = Outcome.REGION_CAPTURED;
+      }
+      body.write(chunk, 0, length);
+      return outcome == null;
+    }
+
+    public long bytesRead() {
+      return body.size();
+    }
+
+    public Outcome outcome() {
+      return outcome != null ? outcome : Outcome.FULL;
+    }
+
+    // declaredLength < 0, если длина тела неизвестна и сэкономленные байты не посчитать
+    public byte[] finish(long declaredLength) {
+      Outcome result = outcome();
+      meterRegistry.counter("fetch_body_reads_total", "host", host, "outcome", result.tag())
+          .increment();
+      DistributionSummary.builder("fetch_body_bytes_read")
+          .description("Body bytes kept per page fetch").baseUnit("bytes")
+          .tag("outcome", result.tag()).register(meterRegistry).record(body.size());
+      if (result != Outcome.FULL && declaredLength > body.size()) {
+        meterRegistry.counter("fetch_body_bytes_saved_total", "host", host)
+            .increment(declaredLength - body.size());
+      }
+      if (result == Outcome.BUDGET_EXHAUSTED) {
+        logger.warn("Тело страницы {} обрезано по лимиту {} байт", host, budget);
+      }
+      return body.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.pricesparser.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Валидаторы последней полной загрузки страницы: {@code ETag}, {@code Last-Modified} и
+ * {@link ProductFingerprint} карточки товара ({@code 0}, если отпечаток не считался).
+ */
+public record HttpValidators(String etag, String lastModified, long contentHash) {
+
+  public static final HttpValidators NONE = new HttpValidators(null, null, 0);
+
+  public boolean isEmpty() {
+    return etag == null && lastModified == null && contentHash == 0;
+  }
+
+  public Map<String, String> conditionalHeaders() {
+    Map<String, String> headers = new LinkedHashMap<>();
+    if (etag != null) {
+      headers.put("If-None-Match", etag);
+    }
+    if (lastModified != null) {
+      headers.put("If-Modified-Since", lastModified);
+    }
+    return headers;
+  }
+
+  public boolean hasSameContent(long hash) {
+    return contentHash != 0 && contentHash == hash;
+  }
+
+  // 304 может не повторять валидаторы, тогда остаются прежние
+  public HttpValidators revalidated(String newEtag, String newLastModified) {
+    return new HttpValidators(newEtag != null ? newEtag : etag,
+        newLastModified != null ? newLastModified : lastModified, contentHash);
+  }
+
+  public HttpValidators withContentHash(long hash) {
+    return new HttpValidators(etag, lastModified, hash);
+  }
+}
@@ -0,0 +1,270 @@
+package com.pricesparser.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.client.HtmlFetcher;
+import com.pricesparser.config.WebClientConfig;
+import com.pricesparser.util.BandwidthMeter;
+import com.pricesparser.util.ContentDecoder;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpUtil;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Блокирующая загрузка страницы для парсеров поверх общего {@link HttpClient} с пулом соединений.
+ * Тело отдаётся потоком по мере прихода чанков и распаковывается на лету: закрытие ответа до
+ * конца тела отменяет загрузку.
+ */
+@Component
+public class PageFetcher implements HtmlFetcher {
+
+  private static final Duration READ_TIMEOUT = Duration.ofSeconds(15);
+  private static final int PREFETCH_CHUNKS = 8;
+  private static final byte[] EMPTY = new byte[0];
+
+  private static final Map<String, String> BROWSER_HEADERS = Map.of(
+      "User-Agent", WebClientConfig.USER_AGENT,
+      "Accept",
+      "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8",
+      "Accept-Language", "ru-RU,ru;q=0.9,en-US;q=0.8,en;q=0.7",
+      "Accept-Encoding", ContentDecoder.ACCEPT_ENCODING,
+      "Upgrade-Insecure-Requests", "1",
+      "Referer", "https://pitergsm.ru/",
+      "Sec-Fetch-Dest", "document",
+      "Sec-Fetch-Mode", "navigate",
+      "Sec-Fetch-Site", "same-origin",
+      "Cache-Control", "max-age=0");
+
+  private final HttpClient httpClient;
+  private final BandwidthMeter bandwidthMeter;
+  private final FetchBudget fetchBudget;
+
+  // Распаковка своя, а не встроенная в Reactor Netty: так видны байты до и после неё
+  public PageFetcher(HttpClient fetchHttpClient, BandwidthMeter bandwidthMeter,
+      FetchBudget fetchBudget) {
+    this.httpClient = fetchHttpClient.compress(false)
+        .headers(headers -> BROWSER_HEADERS.forEach(headers::set));
+    this.bandwidthMeter = bandwidthMeter;
+    this.fetchBudget = fetchBudget;
+  }
+
+  // Для тестов и бенчмарков без контекста Spring
+  public static PageFetcher standalone() {
+    return new PageFetcher(HttpClient.create().followRedirect(true), BandwidthMeter.disabled(),
+        FetchBudget.disabled());
+  }
+
+  @Override
+  public String name() {
+    return "netty";
+  }
+
+  // Без кодировки в Content-Type тело читается как UTF-8
+  @Override
+  public String fetch(String url) {
+    PageResponse response = fetch(url, Map.of());
+    Charset charset = response.charset();
+    try {
+      return new String(response.bodyAsBytes(),
+          charset != null ? charset : StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new RuntimeException("Ошибка при чтении страницы " + url + ": " + e.getMessage(), e);
+    }
+  }
+
+  public PageResponse fetch(String url, Map<String, String> headers) {
+    Stream<Object> signals = httpClient.headers(request -> headers.forEach(request::set))
+        .get().uri(url)
+        .response((response, content) -> Flux.<Object>just(
+                new Head(response.status().code(), response.responseHeaders().copy()))
+            .concatWith(content.asByteArray()))
+        .timeout(READ_TIMEOUT).toStream(PREFETCH_CHUNKS);
+
+    Iterator<Object> iterator = signals.iterator();
+    Head head = (Head) iterator.next();
+    ContentDecoder decoder;
+    try {
+      decoder = ContentDecoder.forEncoding(head.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+    } catch (RuntimeException e) {
+      signals.close();
+      throw e;
+    }
+    PageResponse response = new PageResponse(url, head, iterator, signals, decoder,
+        bandwidthMeter, fetchBudget);
+    if (head.status() >= 400) {
+      response.close();
+      throw new RuntimeException("HTTP " + head.status() + " при загрузке страницы: " + url);
+    }
+    return response;
+  }
+
+  private record Head(int status, HttpHeaders headers) {
+  }
+
+  public static final class PageResponse extends InputStream {
+
+    private final String url;
+    private final Head head;
+    private final Iterator<Object> chunks;
+    private final Stream<Object> source;
+    private final ContentDecoder decoder;
+    private final BandwidthMeter bandwidthMeter;
+    private final FetchBudget fetchBudget;
+    private byte[] chunk = EMPTY;
+    private int position;
+    private long bytesRead;
+    private long wireBytes;
+    private long decodedBytes;
+    private boolean exhausted;
+    private boolean closed;
+
+    private PageResponse(String url, Head head, Iterator<Object> chunks, Stream<Object> source,
+        ContentDecoder decoder, BandwidthMeter bandwidthMeter, FetchBudget fetchBudget) {
+      this.url = url;
+      this.head = head;
+      this.chunks = chunks;
+      this.source = source;
+      this.decoder = decoder;
+      this.bandwidthMeter = bandwidthMeter;
+      this.fetchBudget = fetchBudget;
+    }
+
+    public int statusCode() {
+      return head.status();
+    }
+
+    public String header(String name) {
+      return head.headers().get(name);
+    }
+
+    // null, если сервер не указал кодировку в Content-Type
+    public Charset charset() {
+      String contentType = head.headers().get(HttpHeaderNames.CONTENT_TYPE);
+      return contentType != null ? HttpUtil.getCharset(contentType, null) : null;
+    }
+
+    // Распакованные байты, отданные читателю
+    public long bytesRead() {
+      return bytesRead;
+    }
+
+    // Байты тела, полученные по сети до распаковки
+    public long wireBytes() {
+      return wireBytes;
+    }
+
+    public byte[] bodyAsBytes() throws IOException {
+      try {
+        return readAllBytes();
+      } finally {
+        close();
+      }
+    }
+
+    // Тело до захвата карточки товара или до лимита хоста: остаток не загружается, соединение
+    // при этом закрывается
+    public byte[] bodyWithinBudget() {
+      FetchBudget.BodyRead read = fetchBudget.start(url);
+      try {
+        while (fill()) {
+          byte[] part = position == 0 ? chunk : Arrays.copyOfRange(chunk, position, chunk.length);
+          position = chunk.length;
+          bytesRead += part.length;
+          if (!read.accept(part)) {
+            break;
+          }
+        }
+      } finally {
+        close();
+      }
+      return read.finish(FetchBudget.declaredLength(header("Content-Length"),
+          header("Content-Encoding")));
+    }
+
+    // Дочитывает пустое или ненужное тело, чтобы соединение вернулось в пул, а не закрылось
+    public void discardBody() throws IOException {
+      try {
+        while (fill()) {
+          position = chunk.length;
+        }
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public int read() {
+      if (!fill()) {
+        return -1;
+      }
+      bytesRead++;
+      return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!fill()) {
+        return -1;
+      }
+      int count = Math.min(length, chunk.length - position);
+      System.arraycopy(chunk, position, buffer, offset, count);
+      position += count;
+      bytesRead += count;
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return chunk.length - position;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      source.close();
+      if (decoder != null) {
+        decoder.close();
+      }
+      bandwidthMeter.record(url, decoder != null ? decoder.encoding() : null, wireBytes,
+          decodedBytes);
+    }
+
+    private boolean fill() {
+      while (position == chunk.length) {
+        if (exhausted) {
+          return false;
+        }
+        if (chunks.hasNext()) {
+          byte[] wire = (byte[]) chunks.next();
+          wireBytes += wire.length;
+          chunk = decoder != null ? decoder.decode(wire) : wire;
+        } else {
+          exhausted = true;
+          chunk = decoder != null ? decoder.finish() : EMPTY;
+        }
+        position = 0;
+        decodedBytes += chunk.length;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.pricesparser.parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ParseFailureCaptureStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParseFailureCaptureStore.class);
+
+  private static final String META_SUFFIX = ".json";
+  private static final String PAGE_SUFFIX = ".html.gz";
+
+  private final Path directory;
+  private final int maxCaptures;
+  private final int maxPageBytes;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Deque<ParseCapture> captures = new ArrayDeque<>();
+  private final AtomicInteger sequence = new AtomicInteger();
+  private final Counter capturedCounter;
+  private final Counter failedCounter;
+
+  public ParseFailureCaptureStore(Path directory, int maxCaptures, int maxPageBytes,
+      MeterRegistry meterRegistry) {
+    this.directory = directory;
+    this.maxCaptures = maxCaptures;
+    this.maxPageBytes = maxPageBytes;
+    this.capturedCounter = Counter.builder("parser_failure_captures_total")
+        .description("Failed parses captured to disk").tag("outcome", "stored")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("parser_failure_captures_total")
+        .description("Failed parses captured to disk").tag("outcome", "error")
+        .register(meterRegistry);
+    if (directory != null) {
+      loadExisting();
+    }
+  }
+
+  public static ParseFailureCaptureStore disabled() {
+    return new ParseFailureCaptureStore(null, 0, 0, new SimpleMeterRegistry());
+  }
+
+  public boolean isEnabled() {
+    return directory != null && maxCaptures > 0;
+  }
+
+  public void capture(String url, String reason, List<String> trace, Supplier<byte[]> page) {
+    if (!isEnabled()) {
+      return;
+    }
+    try {
+      byte[] bytes = page.get();
+      int length = Math.min(bytes.length, maxPageBytes);
+      String id = String.format("%d-%04d", System.currentTimeMillis(),
+          sequence.getAndIncrement() % 10_000);
+
+      Path pageFile = directory.resolve(id + PAGE_SUFFIX);
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(pageFile))) {
+        out.write(bytes, 0, length);
+      }
+      ParseCapture capture = new ParseCapture(id, url, reason, Instant.now().toString(),
+          bytes.length, Files.size(pageFile), length < bytes.length, trace);
+      objectMapper.writeValue(directory.resolve(id + META_SUFFIX).toFile(), capture);
+
+      List<ParseCapture> evicted = new ArrayList<>();
+      synchronized (captures) {
+        captures.addLast(capture);
+        while (captures.size() > maxCaptures) {
+          evicted.add(captures.removeFirst());
+        }
+      }
+      evicted.forEach(this::delete);
+      capturedCounter.increment();
+      logger.info("Сохранён снимок неудачного парсинга {} для {}: {}", id, url, reason);
+    } catch (IOException | RuntimeException e) {
+      failedCounter.increment();
+      logger.warn("Не удалось сохранить снимок неудачного парсинга {}: {}", url, e.getMessage());
+    }
+  }
+
+  public List<ParseCapture> list() {
+    synchronized (captures) {
+      List<ParseCapture> result = new ArrayList<>(captures);
+      result.sort(Comparator.comparing(ParseCapture::id).reversed());
+      return result;
+    }
+  }
+
+  public Optional<Path> pageFile(String id) {
+    synchronized (captures) {
+      return captures.stream().filter(capture -> capture.id().equals(id)).findFirst()
+          .map(capture -> directory.resolve(capture.id() + PAGE_SUFFIX))
+          .filter(Files::exists);
+    }
+  }
+
+  private void loadExisting() {
+    try {
+      Files.createDirectories(directory);
+      List<ParseCapture> existing = new ArrayList<>();
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+        for (Path file : files) {
+          try {
+            existing.add(objectMapper.readValue(file.toFile(), ParseCapture.class));
+          } catch (IOException e) {
+            logger.warn("Пропущен повреждённый снимок {}: {}", file, e.getMessage());
+          }
+        }
+      }
+      existing.sort(Comparator.comparing(ParseCapture::id));
+      synchronized (captures) {
+        captures.addAll(existing);
+        while (captures.size() > maxCaptures) {
+          delete(captures.removeFirst());
+        }
+      }
+      logger.info("Каталог снимков неудачного парсинга {}: {} снимков", directory,
+          captures.size());
+    } catch (IOException e) {
+      logger.error("Не удалось открыть каталог снимков {}: {}", directory, e.getMessage());
+    }
+  }
+
+  private void delete(ParseCapture capture) {
+    try {
+      Files.deleteIfExists(directory.resolve(capture.id() + PAGE_SUFFIX));
+      Files.deleteIfExists(directory.resolve(capture.id() + META_SUFFIX));
+    } catch (IOException e) {
+      logger.warn("Не удалось удалить снимок {}: {}", capture.id(), e.getMessage());
+    }
+  }
+
+  public record ParseCapture(String id, String url, String reason, String capturedAt,
+      long pageBytes, long compressedBytes, boolean truncated, List<String> trace) {
+  }
+}
@@ -0,0 +1,86 @@
+package com.pricesparser.parser;
+
+import java.math.BigDecimal;
+
+public final class PriceScanner {
+
+  public static final long NOT_FOUND = -1;
+
+  private static final long MAX_UNITS = Long.MAX_VALUE / 100;
+
+  private PriceScanner() {}
+
+  public static long scanMinorUnits(CharSequence text) {
+    if (text == null) {
+      return NOT_FOUND;
+    }
+    int length = text.length();
+    int i = 0;
+    while (i < length && !isDigit(text.charAt(i))) {
+      i++;
+    }
+    if (i == length) {
+      return NOT_FOUND;
+    }
+
+    long units = 0;
+    int groupLength = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (isDigit(c)) {
+        if (units > MAX_UNITS / 10) {
+          return NOT_FOUND;
+        }
+        units = units * 10 + (c - '0');
+        groupLength++;
+        i++;
+      } else if (c == '.' || c == ',') {
+        int digits = countDigits(text, i + 1);
+        if (digits == 0) {
+          break;
+        }
+        if (digits == 3 && groupLength <= 3) {
+          groupLength = 0;
+          i++;
+          continue;
+        }
+        return units * 100 + fraction(text, i + 1, digits);
+      } else if (isGroupSeparator(c) && groupLength <= 3 && i + 1 < length
+          && isDigit(text.charAt(i + 1))) {
+        groupLength = 0;
+        i++;
+      } else {
+        break;
+      }
+    }
+    return units * 100;
+  }
+
+  public static BigDecimal toBigDecimal(long minorUnits) {
+    return minorUnits < 0 ? BigDecimal.ZERO : BigDecimal.valueOf(minorUnits, 2);
+  }
+
+  private static long fraction(CharSequence text, int from, int digits) {
+    long kopecks = (text.charAt(from) - '0') * 10L;
+    if (digits > 1) {
+      kopecks += text.charAt(from + 1) - '0';
+    }
+    return kopecks;
+  }
+
+  private static int countDigits(CharSequence text, int from) {
+    int i = from;
+    while (i < text.length() && isDigit(text.charAt(i))) {
+      i++;
+    }
+    return i - from;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isGroupSeparator(char c) {
+    return c == ' ' || c == '\u00A0' || c == '\u2009' || c == '\u202F' || c == '\'';
+  }
+}
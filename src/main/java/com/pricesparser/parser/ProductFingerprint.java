@@ -0,0 +1,233 @@
+package com.pricesparser.parser;
+
+import com.pricesparser.util.ContentHash;
+
+/**
+ * Отпечаток карточки товара без построения DOM. В хэш попадает область от первого {@code <h1}
+ * до {@code </main} или {@code <footer} (вся страница, если {@code <h1} нет) без скриптов,
+ * стилей, комментариев и лишних пробелов. Отдельно учитываются JSON-LD и meta-теги с
+ * {@code property}/{@code itemprop}, description и title: из них парсер тоже берёт поля.
+ * Для байтов UTF-8 и для строки с тем же текстом отпечаток совпадает.
+ */
+public final class ProductFingerprint {
+
+  private ProductFingerprint() {
+  }
+
+  public static long of(byte[] body) {
+    return compute(new Bytes(body));
+  }
+
+  public static long of(CharSequence html) {
+    return compute(new Chars(html));
+  }
+
+  private static long compute(Text text) {
+    int length = text.length();
+    int regionStart = text.indexOf("<h1", 0, length);
+    int regionEnd = length;
+    if (regionStart < 0) {
+      regionStart = 0;
+    } else {
+      regionEnd = firstOf(text.indexOf("</main", regionStart, length),
+          text.indexOf("<footer", regionStart, length), length);
+    }
+
+    Normalizer out = new Normalizer(text);
+    int i = 0;
+    while (i < length) {
+      boolean inRegion = i >= regionStart && i < regionEnd;
+      if (text.at(i) != '<') {
+        if (inRegion) {
+          out.feed(i);
+        }
+        i++;
+        continue;
+      }
+      if (text.startsWith(i, "<!--")) {
+        int end = text.indexOf("-->", i + 4, length);
+        i = end < 0 ? length : end + 3;
+        continue;
+      }
+      boolean style = text.startsWith(i, "<style");
+      if (style || text.startsWith(i, "<script")) {
+        int tagEnd = text.indexOf(">", i, length);
+        int close = tagEnd < 0 ? -1
+            : text.indexOf(style ? "</style" : "</script", tagEnd + 1, length);
+        if (close < 0) {
+          break;
+        }
+        if (!style && text.indexOf("ld+json", i, tagEnd) >= 0) {
+          out.feed(tagEnd + 1, close);
+        }
+        i = close;
+        out.space();
+        continue;
+      }
+      int tagEnd = text.indexOf(">", i, length);
+      if (tagEnd < 0) {
+        break;
+      }
+      if (inRegion || (text.startsWith(i, "<meta") && isProductMeta(text, i, tagEnd))) {
+        out.feed(i, tagEnd + 1);
+      }
+      i = tagEnd + 1;
+    }
+    return out.hash.finish();
+  }
+
+  private static boolean isProductMeta(Text text, int from, int to) {
+    return text.indexOf("property=", from, to) >= 0 || text.indexOf("itemprop=", from, to) >= 0
+        || text.indexOf("description", from, to) >= 0 || text.indexOf("title", from, to) >= 0;
+  }
+
+  private static int firstOf(int a, int b, int fallback) {
+    if (a < 0) {
+      return b < 0 ? fallback : b;
+    }
+    return b < 0 ? a : Math.min(a, b);
+  }
+
+  private static boolean isWhitespace(int c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+  }
+
+  private static final class Normalizer {
+
+    private final Text text;
+    private final ContentHash.Accumulator hash = new ContentHash.Accumulator();
+    private boolean pendingSpace;
+
+    Normalizer(Text text) {
+      this.text = text;
+    }
+
+    void feed(int from, int to) {
+      for (int i = from; i < to; i++) {
+        feed(i);
+      }
+    }
+
+    void feed(int i) {
+      if (isWhitespace(text.at(i))) {
+        pendingSpace = true;
+        return;
+      }
+      if (pendingSpace) {
+        hash.add(' ');
+        pendingSpace = false;
+      }
+      text.feed(i, hash);
+    }
+
+    void space() {
+      pendingSpace = true;
+    }
+  }
+
+  private abstract static class Text {
+
+    abstract int length();
+
+    // Символ в нижнем регистре ASCII: маркеры тегов сравниваются без учёта регистра
+    abstract int at(int i);
+
+    abstract void feed(int i, ContentHash.Accumulator hash);
+
+    boolean startsWith(int from, String needle) {
+      if (from + needle.length() > length()) {
+        return false;
+      }
+      for (int j = 0; j < needle.length(); j++) {
+        if (at(from + j) != needle.charAt(j)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    int indexOf(String needle, int from, int to) {
+      int last = to - needle.length();
+      for (int i = from; i <= last; i++) {
+        if (startsWith(i, needle)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    static int lower(int c) {
+      return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+  }
+
+  private static final class Bytes extends Text {
+
+    private final byte[] bytes;
+
+    Bytes(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    int length() {
+      return bytes.length;
+    }
+
+    @Override
+    int at(int i) {
+      return lower(bytes[i] & 0xFF);
+    }
+
+    @Override
+    void feed(int i, ContentHash.Accumulator hash) {
+      hash.add(bytes[i]);
+    }
+  }
+
+  // Кодирует символы в UTF-8 на лету, чтобы отпечаток совпадал с байтовым вариантом
+  private static final class Chars extends Text {
+
+    private final CharSequence chars;
+
+    Chars(CharSequence chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    int length() {
+      return chars.length();
+    }
+
+    @Override
+    int at(int i) {
+      return lower(chars.charAt(i));
+    }
+
+    @Override
+    void feed(int i, ContentHash.Accumulator hash) {
+      char c = chars.charAt(i);
+      if (c < 0x80) {
+        hash.add(c);
+      } else if (c < 0x800) {
+        hash.add(0xC0 | c >> 6);
+        hash.add(0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c) && i + 1 < chars.length()
+          && Character.isLowSurrogate(chars.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, chars.charAt(i + 1));
+        hash.add(0xF0 | codePoint >> 18);
+        hash.add(0x80 | codePoint >> 12 & 0x3F);
+        hash.add(0x80 | codePoint >> 6 & 0x3F);
+        hash.add(0x80 | codePoint & 0x3F);
+      } else if (Character.isLowSurrogate(c) && i > 0
+          && Character.isHighSurrogate(chars.charAt(i - 1))) {
+        // вторая половина пары уже учтена вместе с первой
+        return;
+      } else {
+        hash.add(0xE0 | c >> 12);
+        hash.add(0x80 | c >> 6 & 0x3F);
+        hash.add(0x80 | c & 0x3F);
+      }
+    }
+  }
+}
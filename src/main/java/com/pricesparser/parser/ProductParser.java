@@ -1,10 +1,19 @@
 package com.pricesparser.parser;
 
+import org.jsoup.nodes.Document;
+
 import com.pricesparser.model.Product;
 
 public interface ProductParser {
     
     Product parse(String url);
+
+    // Загрузка с If-None-Match/If-Modified-Since; без поддержки - обычный parse
+    default ConditionalParse parseIfModified(String url, HttpValidators previous) {
+        return ConditionalParse.modified(parse(url), HttpValidators.NONE);
+    }
     
     Product parseFromHtml(String url, String html);
-}
\ No newline at end of file
+
+    Product parseFromDocument(String url, Document doc);
+}
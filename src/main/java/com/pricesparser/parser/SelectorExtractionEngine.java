@@ -0,0 +1,127 @@
+package com.pricesparser.parser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeFilter;
+
+public class SelectorExtractionEngine {
+
+  private final ExtractionRule[] rules;
+  private final Map<ExtractionField, int[]> rulesByField = new EnumMap<>(ExtractionField.class);
+
+  public SelectorExtractionEngine(List<ExtractionRule> rules) {
+    this.rules = rules.toArray(new ExtractionRule[0]);
+    for (ExtractionField field : ExtractionField.values()) {
+      List<Integer> indexes = new ArrayList<>();
+      for (int i = 0; i < this.rules.length; i++) {
+        if (this.rules[i].getField() == field) {
+          indexes.add(i);
+        }
+      }
+      rulesByField.put(field, indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+  }
+
+  public ExtractionResult extract(Element root) {
+    return extract(root, EnumSet.allOf(ExtractionField.class), false);
+  }
+
+  public ExtractionResult extract(Element root, Set<ExtractionField> fields, boolean timed) {
+    Walk walk = new Walk(root, fields, timed);
+    root.filter(walk);
+
+    ExtractionResult result = new ExtractionResult();
+    result.recordWalk(rules, fields, walk.matched, walk.nanos);
+    for (Map.Entry<ExtractionField, int[]> entry : rulesByField.entrySet()) {
+      if (!fields.contains(entry.getKey())) {
+        continue;
+      }
+      for (int index : entry.getValue()) {
+        if (walk.matched[index] && rules[index].accepts(walk.values[index])) {
+          result.resolve(entry.getKey(), rules[index], walk.values[index]);
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  public List<ExtractionRule> getRules() {
+    return List.of(rules);
+  }
+
+  private final class Walk implements NodeFilter {
+
+    private final Element root;
+    private final boolean[] matched = new boolean[rules.length];
+    private final String[] values = new String[rules.length];
+    private final long[] nanos;
+    private final boolean[] fieldDone = new boolean[ExtractionField.values().length];
+    private int fieldsRemaining;
+
+    Walk(Element root, Set<ExtractionField> fields, boolean timed) {
+      this.root = root;
+      this.nanos = timed ? new long[rules.length] : null;
+      for (ExtractionField field : ExtractionField.values()) {
+        if (rulesByField.get(field).length == 0 || !fields.contains(field)) {
+          fieldDone[field.ordinal()] = true;
+        } else {
+          fieldsRemaining++;
+        }
+      }
+    }
+
+    @Override
+    public FilterResult head(Node node, int depth) {
+      if (!(node instanceof Element element)) {
+        return FilterResult.CONTINUE;
+      }
+      for (int i = 0; i < rules.length; i++) {
+        ExtractionRule rule = rules[i];
+        if (matched[i] || fieldDone[rule.getField().ordinal()] || !matches(i, element)) {
+          continue;
+        }
+        matched[i] = true;
+        values[i] = rule.extract(element);
+        if (isSettled(rule.getField())) {
+          fieldDone[rule.getField().ordinal()] = true;
+          if (--fieldsRemaining == 0) {
+            return FilterResult.STOP;
+          }
+        }
+      }
+      return FilterResult.CONTINUE;
+    }
+
+    private boolean matches(int index, Element element) {
+      if (nanos == null) {
+        return rules[index].matches(root, element);
+      }
+      long start = System.nanoTime();
+      boolean result = rules[index].matches(root, element);
+      nanos[index] += System.nanoTime() - start;
+      return result;
+    }
+
+    // A field is settled once some rule has an accepted value and every rule ahead of it
+    // in priority order has already seen its first match (and rejected it).
+    private boolean isSettled(ExtractionField field) {
+      for (int index : rulesByField.get(field)) {
+        if (!matched[index]) {
+          return false;
+        }
+        if (rules[index].accepts(values[index])) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
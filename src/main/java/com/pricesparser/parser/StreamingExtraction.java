@@ -0,0 +1,47 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+public final class StreamingExtraction {
+
+  private final ExtractionResult result;
+  private final ByteArrayOutputStream consumed;
+  private final long bytesRead;
+  private final boolean complete;
+
+  StreamingExtraction(ExtractionResult result, ByteArrayOutputStream consumed, long bytesRead,
+      boolean complete) {
+    this.result = result;
+    this.consumed = consumed;
+    this.bytesRead = bytesRead;
+    this.complete = complete;
+  }
+
+  public String getValue(ExtractionField field) {
+    return result.getValue(field);
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  // false, если прочитанное не уместилось в буфер и для полного разбора нужен новый запрос
+  public boolean isReplayable() {
+    return consumed != null;
+  }
+
+  public InputStream remainingDocument(InputStream rest) {
+    if (consumed == null) {
+      throw new RuntimeException(
+          "Прочитанные " + bytesRead + " байт не сохранены для повторного разбора");
+    }
+    return new SequenceInputStream(new ByteArrayInputStream(consumed.toByteArray()), rest);
+  }
+}
@@ -0,0 +1,359 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+
+import org.jsoup.internal.StringUtil;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+public class StreamingProductExtractor {
+
+  private static final int MAX_TAG_LENGTH = 8192;
+  private static final int DEFAULT_MAX_BUFFERED_BYTES = 256 * 1024;
+
+  private final List<Target> targets;
+  private final int maxCaptureChars;
+  private final int maxBufferedBytes;
+
+  public StreamingProductExtractor(int maxCaptureChars) {
+    this(maxCaptureChars, DEFAULT_MAX_BUFFERED_BYTES);
+  }
+
+  public StreamingProductExtractor(int maxCaptureChars, int maxBufferedBytes) {
+    this.maxCaptureChars = maxCaptureChars;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.targets = List.of(
+        new Target(ExtractionField.TITLE, "h1", "h1[itemprop=name]", null),
+        new Target(ExtractionField.PRICE, "span", "span[itemprop=price]", "content"),
+        new Target(ExtractionField.DESCRIPTION, "div", "div.product__descr", null));
+  }
+
+  // Читает не дальше maxBufferedBytes: за этой границей прочитанное уже не сохранить для
+  // повторного разбора, и страницу дешевле запросить заново
+  public StreamingExtraction extract(InputStream in, Charset charset) throws IOException {
+    TeeInputStream tee = new TeeInputStream(in, maxBufferedBytes);
+    Scan scan = new Scan();
+    Reader reader = new InputStreamReader(tee, charset);
+    char[] buffer = new char[4096];
+    int read;
+    while (!scan.isComplete() && tee.consumed != null && (read = reader.read(buffer)) != -1) {
+      for (int i = 0; i < read && !scan.isComplete(); i++) {
+        scan.accept(buffer[i]);
+      }
+    }
+    return new StreamingExtraction(scan.result, tee.consumed, tee.count, scan.isComplete());
+  }
+
+  public RegionDetector newRegionDetector() {
+    return new RegionDetector();
+  }
+
+  /**
+   * Инкрементальная проверка, что карточка товара уже пришла целиком. Разметка ищется в ASCII,
+   * поэтому байты подаются как символы Latin-1 без декодирования: значения полей здесь не нужны.
+   */
+  public final class RegionDetector {
+
+    private final Scan scan = new Scan();
+    private long consumed;
+
+    private RegionDetector() {
+    }
+
+    // true, когда название, цена и описание найдены и их элементы закрыты
+    public boolean feed(byte[] chunk, int offset, int length) {
+      for (int i = offset; i < offset + length && !scan.isComplete(); i++) {
+        scan.accept((char) (chunk[i] & 0xFF));
+        consumed++;
+      }
+      return scan.isComplete();
+    }
+
+    public boolean isComplete() {
+      return scan.isComplete();
+    }
+
+    // Байт от начала тела до конца карточки включительно; до её завершения — всё поданное
+    public long consumed() {
+      return consumed;
+    }
+  }
+
+  private static final class Target {
+
+    private final ExtractionField field;
+    private final String tagName;
+    private final Evaluator evaluator;
+    private final String valueAttribute;
+
+    Target(ExtractionField field, String tagName, String selector, String valueAttribute) {
+      this.field = field;
+      this.tagName = tagName;
+      this.evaluator = QueryParser.parse(selector);
+      this.valueAttribute = valueAttribute;
+    }
+  }
+
+  private enum State {
+    TEXT, TAG, COMMENT, RAW_TEXT
+  }
+
+  private final class Scan {
+
+    private final ExtractionResult result = new ExtractionResult();
+    private final StringBuilder tag = new StringBuilder(256);
+    private final StringBuilder capture = new StringBuilder(256);
+    private State state = State.TEXT;
+    private char quote;
+    private String rawTextEnd;
+    private int rawTextMatched;
+    private int commentDashes;
+    private Target capturing;
+    private int captureDepth;
+    private int resolved;
+
+    boolean isComplete() {
+      return resolved == targets.size();
+    }
+
+    void accept(char c) {
+      switch (state) {
+        case TEXT -> {
+          if (c == '<') {
+            state = State.TAG;
+            tag.setLength(0);
+            quote = 0;
+          } else if (capturing != null && capture.length() < maxCaptureChars) {
+            capture.append(c);
+          }
+        }
+        case TAG -> acceptTagChar(c);
+        case COMMENT -> {
+          if (c == '>' && commentDashes >= 2) {
+            state = State.TEXT;
+          }
+          commentDashes = c == '-' ? commentDashes + 1 : 0;
+        }
+        case RAW_TEXT -> {
+          char expected = rawTextEnd.charAt(rawTextMatched);
+          if (Character.toLowerCase(c) == expected) {
+            if (++rawTextMatched == rawTextEnd.length()) {
+              state = State.TAG;
+              tag.setLength(0);
+              tag.append(rawTextEnd, 1, rawTextEnd.length());
+              quote = 0;
+            }
+          } else {
+            rawTextMatched = c == '<' ? 1 : 0;
+          }
+        }
+        default -> throw new IllegalStateException(state.name());
+      }
+    }
+
+    private void acceptTagChar(char c) {
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+      } else if (c == '>') {
+        state = State.TEXT;
+        handleTag();
+        return;
+      }
+      if (tag.length() < MAX_TAG_LENGTH) {
+        tag.append(c);
+      }
+      if (tag.length() == 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-'
+          && tag.charAt(2) == '-') {
+        state = State.COMMENT;
+        commentDashes = 0;
+      }
+    }
+
+    private void handleTag() {
+      if (tag.length() == 0 || tag.charAt(0) == '!' || tag.charAt(0) == '?') {
+        return;
+      }
+      if (capturing != null) {
+        capture.append(' ');
+      }
+      boolean closing = tag.charAt(0) == '/';
+      String name = tagName(closing ? 1 : 0);
+      if (closing) {
+        if (capturing != null && name.equals(capturing.tagName) && --captureDepth == 0) {
+          finishCapture();
+        }
+        return;
+      }
+      boolean selfClosing = tag.charAt(tag.length() - 1) == '/';
+      if (name.equals("script") || name.equals("style")) {
+        if (!selfClosing) {
+          state = State.RAW_TEXT;
+          rawTextEnd = "</" + name;
+          rawTextMatched = 0;
+        }
+        return;
+      }
+      if (capturing != null) {
+        if (name.equals(capturing.tagName) && !selfClosing) {
+          captureDepth++;
+        }
+        return;
+      }
+      for (Target target : targets) {
+        if (!name.equals(target.tagName) || result.isResolved(target.field)) {
+          continue;
+        }
+        Element element = toElement(name);
+        if (!target.evaluator.matches(element, element)) {
+          continue;
+        }
+        if (target.valueAttribute != null && !element.attr(target.valueAttribute).isBlank()) {
+          resolve(target, element.attr(target.valueAttribute).trim());
+        } else if (!selfClosing) {
+          capturing = target;
+          captureDepth = 1;
+          capture.setLength(0);
+        }
+        return;
+      }
+    }
+
+    private void finishCapture() {
+      String value = unescape(StringUtil.normaliseWhitespace(capture.toString()), false).trim();
+      Target target = capturing;
+      capturing = null;
+      capture.setLength(0);
+      if (!value.isEmpty()) {
+        resolve(target, value);
+      }
+    }
+
+    // unescapeEntities поднимает полноценный парсер jsoup, поэтому вызывается только при '&'
+    private String unescape(String value, boolean inAttribute) {
+      return value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, inAttribute) : value;
+    }
+
+    private void resolve(Target target, String value) {
+      result.resolve(target.field, null, value);
+      resolved++;
+    }
+
+    private String tagName(int from) {
+      int end = from;
+      while (end < tag.length()) {
+        char ch = tag.charAt(end);
+        if (Character.isWhitespace(ch) || ch == '/') {
+          break;
+        }
+        end++;
+      }
+      return tag.substring(from, end).toLowerCase(Locale.ROOT);
+    }
+
+    private Element toElement(String name) {
+      Element element = new Element(name);
+      int i = name.length();
+      int length = tag.length();
+      while (i < length) {
+        while (i < length && (Character.isWhitespace(tag.charAt(i)) || tag.charAt(i) == '/')) {
+          i++;
+        }
+        int keyStart = i;
+        while (i < length && tag.charAt(i) != '=' && !Character.isWhitespace(tag.charAt(i))
+            && tag.charAt(i) != '/') {
+          i++;
+        }
+        if (i == keyStart) {
+          break;
+        }
+        String key = tag.substring(keyStart, i).toLowerCase(Locale.ROOT);
+        String value = "";
+        while (i < length && Character.isWhitespace(tag.charAt(i))) {
+          i++;
+        }
+        if (i < length && tag.charAt(i) == '=') {
+          i++;
+          while (i < length && Character.isWhitespace(tag.charAt(i))) {
+            i++;
+          }
+          if (i < length && (tag.charAt(i) == '"' || tag.charAt(i) == '\'')) {
+            char q = tag.charAt(i++);
+            int valueStart = i;
+            while (i < length && tag.charAt(i) != q) {
+              i++;
+            }
+            value = tag.substring(valueStart, i);
+            i++;
+          } else {
+            int valueStart = i;
+            while (i < length && !Character.isWhitespace(tag.charAt(i))) {
+              i++;
+            }
+            value = tag.substring(valueStart, i);
+          }
+        }
+        element.attr(key, unescape(value, true));
+      }
+      return element;
+    }
+  }
+
+  private static final class TeeInputStream extends FilterInputStream {
+
+    private final int limit;
+    // null после переполнения: копия отбрасывается, а не растёт вместе со страницей
+    private ByteArrayOutputStream consumed;
+    private long count;
+
+    TeeInputStream(InputStream in, int limit) {
+      super(in);
+      this.limit = limit;
+      this.consumed = new ByteArrayOutputStream(Math.min(limit, 64 * 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
+        if (fits(1)) {
+          consumed.write(b);
+        }
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+        if (fits(n)) {
+          consumed.write(b, off, n);
+        }
+      }
+      return n;
+    }
+
+    private boolean fits(int n) {
+      if (consumed != null && consumed.size() + n > limit) {
+        consumed = null;
+      }
+      return consumed != null;
+    }
+  }
+}
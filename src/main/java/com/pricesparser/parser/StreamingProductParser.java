@@ -0,0 +1,181 @@
+package com.pricesparser.parser;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.util.AdaptiveTracer;
+import com.pricesparser.util.AdaptiveTracer.TracedSpan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class StreamingProductParser implements ProductParser {
+
+  private static final Logger logger = LoggerFactory.getLogger(StreamingProductParser.class);
+
+  private static final int HTTP_NOT_MODIFIED = 304;
+
+  private final UniversalProductParser delegate;
+  private final PageFetcher pageFetcher;
+  private final StreamingProductExtractor extractor;
+  private final AdaptiveTracer tracer;
+  private final Counter earlyStopCounter;
+  private final Counter fallbackCounter;
+  private final Counter refetchCounter;
+  private final DistributionSummary bytesReadSummary;
+  private final DistributionSummary bytesSkippedSummary;
+  private final Timer timeSavedTimer;
+
+  public StreamingProductParser(UniversalProductParser delegate, PageFetcher pageFetcher,
+      MeterRegistry registry,
+      AdaptiveTracer tracer,
+      @Value("${parser.streaming.max-capture-chars:4000}") int maxCaptureChars,
+      @Value("${parser.streaming.max-buffered-bytes:262144}") int maxBufferedBytes) {
+    this.delegate = delegate;
+    this.pageFetcher = pageFetcher;
+    this.extractor = new StreamingProductExtractor(maxCaptureChars, maxBufferedBytes);
+    this.tracer = tracer;
+    this.earlyStopCounter = Counter.builder("parser_streaming_pages_total")
+        .description("Pages handled by the streaming parser").tag("outcome", "early_stop")
+        .register(registry);
+    this.fallbackCounter = Counter.builder("parser_streaming_pages_total")
+        .description("Pages handled by the streaming parser").tag("outcome", "fallback")
+        .register(registry);
+    this.refetchCounter = Counter.builder("parser_streaming_pages_total")
+        .description("Pages handled by the streaming parser").tag("outcome", "refetch")
+        .register(registry);
+    this.bytesReadSummary = DistributionSummary.builder("parser_streaming_bytes_read")
+        .description("Bytes read from the response before extraction finished")
+        .baseUnit("bytes").register(registry);
+    this.bytesSkippedSummary = DistributionSummary.builder("parser_streaming_bytes_skipped")
+        .description("Bytes of the response left unread after an early stop")
+        .baseUnit("bytes").register(registry);
+    this.timeSavedTimer = Timer.builder("parser_streaming_time_saved_seconds")
+        .description("Estimated read time saved by stopping early").register(registry);
+  }
+
+  @Override
+  public Product parse(String url) {
+    return fetchAndParse(url, HttpValidators.NONE).product();
+  }
+
+  // Тело читается не целиком, поэтому хэш не считается: только ETag и Last-Modified
+  @Override
+  public ConditionalParse parseIfModified(String url, HttpValidators previous) {
+    return fetchAndParse(url, previous);
+  }
+
+  private ConditionalParse fetchAndParse(String url, HttpValidators previous) {
+    TracedSpan span = tracer.start("fetchHtmlStreaming");
+
+    try {
+      span.setAttribute("url", url);
+      long startNanos = System.nanoTime();
+      PageFetcher.PageResponse response =
+          pageFetcher.fetch(url, previous.conditionalHeaders());
+      if (response.statusCode() == HTTP_NOT_MODIFIED) {
+        response.discardBody();
+        span.setAttribute("http.not_modified", "true");
+        return ConditionalParse.notModified(
+            previous.revalidated(response.header("ETag"), response.header("Last-Modified")));
+      }
+      HttpValidators validators =
+          new HttpValidators(response.header("ETag"), response.header("Last-Modified"), 0);
+      Charset charset = response.charset() != null ? response.charset() : StandardCharsets.UTF_8;
+
+      try (InputStream body = response) {
+        StreamingExtraction extraction = extractor.extract(body, charset);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        bytesReadSummary.record(extraction.getBytesRead());
+        span.setAttribute("bytes.read", extraction.getBytesRead());
+
+        Product product = toProduct(url, extraction);
+        if (product != null) {
+          earlyStopCounter.increment();
+          recordSavings(response, extraction.getBytesRead(), elapsedNanos);
+          span.setAttribute("streaming.outcome", "early_stop");
+          logger.debug("Потоковый парсинг остановлен после {} байт: {}",
+              extraction.getBytesRead(), url);
+          return ConditionalParse.modified(product, validators);
+        }
+
+        if (extraction.isReplayable()) {
+          fallbackCounter.increment();
+          span.setAttribute("streaming.outcome", "fallback");
+          logger.debug("Потоковый парсинг не нашёл все поля, полный разбор: {}", url);
+          Document doc = Jsoup.parse(extraction.remainingDocument(body), charset.name(), url);
+          return ConditionalParse.modified(delegate.parseFromDocument(url, doc), validators);
+        }
+      }
+
+      // Прочитанное не уместилось в буфер: ответ уже закрыт, страница запрашивается заново
+      refetchCounter.increment();
+      span.setAttribute("streaming.outcome", "refetch");
+      logger.debug("Потоковый парсинг превысил буфер, повторный запрос: {}", url);
+      return delegate.parseIfModified(url, HttpValidators.NONE);
+
+    } catch (Exception e) {
+      logger.error("Ошибка при потоковом парсинге URL {}: {}", url, e.getMessage(), e);
+      span.recordFailure(e);
+      throw new RuntimeException("Не удалось распарсить товар: " + e.getMessage(), e);
+    } finally {
+      span.close();
+    }
+  }
+
+  @Override
+  public Product parseFromHtml(String url, String html) {
+    return delegate.parseFromHtml(url, html);
+  }
+
+  @Override
+  public Product parseFromDocument(String url, Document doc) {
+    return delegate.parseFromDocument(url, doc);
+  }
+
+  private Product toProduct(String url, StreamingExtraction extraction) {
+    if (!extraction.isComplete()) {
+      return null;
+    }
+    long minorUnits = PriceScanner.scanMinorUnits(extraction.getValue(ExtractionField.PRICE));
+    if (minorUnits <= 0) {
+      return null;
+    }
+    Product product = new Product(url, extraction.getValue(ExtractionField.TITLE),
+        PriceScanner.toBigDecimal(minorUnits),
+        extraction.getValue(ExtractionField.DESCRIPTION));
+    product.setParsedAt(LocalDateTime.now());
+    return product;
+  }
+
+  private void recordSavings(PageFetcher.PageResponse response, long bytesRead,
+      long elapsedNanos) {
+    String contentLength = response.header("Content-Length");
+    if (contentLength == null || response.header("Content-Encoding") != null || bytesRead == 0) {
+      return;
+    }
+    try {
+      long skipped = Long.parseLong(contentLength.trim()) - bytesRead;
+      if (skipped > 0) {
+        bytesSkippedSummary.record(skipped);
+        timeSavedTimer.record(Duration.ofNanos(elapsedNanos * skipped / bytesRead));
+      }
+    } catch (NumberFormatException e) {
+      logger.debug("Некорректный Content-Length: {}", contentLength);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package com.pricesparser.parser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.jsoup.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.pricesparser.model.Product;
+
+public final class StructuredDataExtractor {
+
+  private static final Logger logger = LoggerFactory.getLogger(StructuredDataExtractor.class);
+
+  private static final String SCRIPT_OPEN = "<script";
+  private static final String SCRIPT_CLOSE = "</script";
+  private static final String LD_JSON_TYPE = "application/ld+json";
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  public Product extract(String url, byte[] body) {
+    return body != null ? extract(url, new ByteSource(body)) : null;
+  }
+
+  public Product extract(String url, CharSequence html) {
+    return html != null ? extract(url, new CharSource(html)) : null;
+  }
+
+  private Product extract(String url, Source source) {
+    int from = 0;
+    int length = source.length();
+    while (from < length) {
+      int scriptStart = source.indexOf(SCRIPT_OPEN, from);
+      if (scriptStart < 0) {
+        return null;
+      }
+      int tagEnd = source.indexOf(">", scriptStart + SCRIPT_OPEN.length());
+      if (tagEnd < 0) {
+        return null;
+      }
+      int scriptEnd = source.indexOf(SCRIPT_CLOSE, tagEnd + 1);
+      if (scriptEnd < 0) {
+        return null;
+      }
+      from = scriptEnd + SCRIPT_CLOSE.length();
+      if (source.indexOf(LD_JSON_TYPE, scriptStart, tagEnd) < 0) {
+        continue;
+      }
+
+      Candidate product = readBlock(url, source, tagEnd + 1, scriptEnd);
+      if (product != null) {
+        return product.toProduct(url);
+      }
+    }
+    return null;
+  }
+
+  private Candidate readBlock(String url, Source source, int from, int to) {
+    try (JsonParser parser = source.createParser(jsonFactory, from, to)) {
+      JsonToken token = parser.nextToken();
+      return token != null ? readValue(parser, token) : null;
+    } catch (IOException e) {
+      logger.debug("Некорректный JSON-LD блок на {}: {}", url, e.getMessage());
+      return null;
+    }
+  }
+
+  private Candidate readValue(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.START_OBJECT) {
+      return readObject(parser);
+    }
+    if (token == JsonToken.START_ARRAY) {
+      JsonToken next;
+      while ((next = parser.nextToken()) != JsonToken.END_ARRAY && next != null) {
+        Candidate found = readValue(parser, next);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+
+  private Candidate readObject(JsonParser parser) throws IOException {
+    Candidate candidate = new Candidate();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "@type" -> candidate.product = isProductType(parser, value);
+        case "name" -> candidate.name = scalar(parser, value);
+        case "description" -> candidate.description = scalar(parser, value);
+        case "offers" -> candidate.price = readOfferPrice(parser, value);
+        default -> {
+          Candidate nested = readValue(parser, value);
+          if (nested != null) {
+            return nested;
+          }
+        }
+      }
+    }
+    return candidate.isComplete() ? candidate : null;
+  }
+
+  private String readOfferPrice(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.START_ARRAY) {
+      String price = null;
+      JsonToken next;
+      while ((next = parser.nextToken()) != JsonToken.END_ARRAY && next != null) {
+        String offerPrice = readOfferPrice(parser, next);
+        if (price == null && offerPrice != null) {
+          price = offerPrice;
+        }
+      }
+      return price;
+    }
+    if (token != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+
+    String price = null;
+    String lowPrice = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("price".equals(field)) {
+        price = scalar(parser, value);
+      } else if ("lowPrice".equals(field)) {
+        lowPrice = scalar(parser, value);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return price != null ? price : lowPrice;
+  }
+
+  private boolean isProductType(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.START_ARRAY) {
+      boolean product = false;
+      JsonToken next;
+      while ((next = parser.nextToken()) != JsonToken.END_ARRAY && next != null) {
+        product |= isProductType(parser, next);
+      }
+      return product;
+    }
+    if (token != JsonToken.VALUE_STRING) {
+      parser.skipChildren();
+      return false;
+    }
+    String type = parser.getText();
+    return "Product".equals(type) || type.endsWith("/Product");
+  }
+
+  private String scalar(JsonParser parser, JsonToken token) throws IOException {
+    if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+      return parser.getText();
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  private static final class Candidate {
+
+    private boolean product;
+    private String name;
+    private String price;
+    private String description;
+
+    boolean isComplete() {
+      return product && !isBlank(name) && !isBlank(description)
+          && PriceScanner.scanMinorUnits(price) > 0;
+    }
+
+    Product toProduct(String url) {
+      Product result = new Product(url, clean(name),
+          PriceScanner.toBigDecimal(PriceScanner.scanMinorUnits(price)), clean(description));
+      result.setParsedAt(LocalDateTime.now());
+      return result;
+    }
+
+    private static String clean(String value) {
+      String trimmed = value.trim();
+      return trimmed.indexOf('&') >= 0 ? Parser.unescapeEntities(trimmed, false) : trimmed;
+    }
+
+    private static boolean isBlank(String value) {
+      return value == null || value.isBlank();
+    }
+  }
+
+  private interface Source {
+
+    int length();
+
+    int indexOf(String needle, int from);
+
+    int indexOf(String needle, int from, int to);
+
+    JsonParser createParser(JsonFactory factory, int from, int to) throws IOException;
+  }
+
+  // Маркеры тегов ASCII, поэтому байты сравниваются без декодирования
+  private static final class ByteSource implements Source {
+
+    private final byte[] bytes;
+
+    ByteSource(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+      return bytes.length;
+    }
+
+    @Override
+    public int indexOf(String needle, int from) {
+      return indexOf(needle, from, bytes.length);
+    }
+
+    @Override
+    public int indexOf(String needle, int from, int to) {
+      int last = to - needle.length();
+      for (int i = from; i <= last; i++) {
+        int j = 0;
+        while (j < needle.length() && toLower(bytes[i + j]) == needle.charAt(j)) {
+          j++;
+        }
+        if (j == needle.length()) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public JsonParser createParser(JsonFactory factory, int from, int to) throws IOException {
+      return factory.createParser(bytes, from, to - from);
+    }
+
+    private static int toLower(byte b) {
+      return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+  }
+
+  private static final class CharSource implements Source {
+
+    private final CharSequence text;
+
+    CharSource(CharSequence text) {
+      this.text = text;
+    }
+
+    @Override
+    public int length() {
+      return text.length();
+    }
+
+    @Override
+    public int indexOf(String needle, int from) {
+      return indexOf(needle, from, text.length());
+    }
+
+    @Override
+    public int indexOf(String needle, int from, int to) {
+      int last = to - needle.length();
+      for (int i = from; i <= last; i++) {
+        int j = 0;
+        while (j < needle.length()
+            && Character.toLowerCase(text.charAt(i + j)) == needle.charAt(j)) {
+          j++;
+        }
+        if (j == needle.length()) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public JsonParser createParser(JsonFactory factory, int from, int to) throws IOException {
+      return factory.createParser(text.subSequence(from, to).toString());
+    }
+  }
+}
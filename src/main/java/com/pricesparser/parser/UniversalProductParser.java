@@ -1,125 +1,258 @@
 package com.pricesparser.parser;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.Predicate;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.pricesparser.model.Product;
-import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.context.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.pricesparser.util.AdaptiveTracer;
+import com.pricesparser.util.AdaptiveTracer.TracedSpan;
 
 @Component
 public class UniversalProductParser implements ProductParser {
 
   private static final Logger logger = LoggerFactory.getLogger(UniversalProductParser.class);
 
-  private static final Pattern PRICE_PATTERN =
-      Pattern.compile("([0-9\\s]+[\\.,]?[0-9]*)\\s*([рруб₽])?", Pattern.CASE_INSENSITIVE);
-
-  private static final Pattern PRICE_IN_TEXT_PATTERN = Pattern.compile(
-      "([0-9]{1,3}(?:\\s[0-9]{3})*(?:[\\.,][0-9]{2})?)\\s*[рруб₽]", Pattern.CASE_INSENSITIVE);
-
-  private final Tracer tracer;
+  private static final String PATH_STRUCTURED_DATA = "structured_data";
+  private static final String PATH_DOM = "dom";
+  private static final int HTTP_NOT_MODIFIED = 304;
+
+  private final AdaptiveTracer tracer;
+  private final SelectorExtractionEngine extractionEngine;
+  private final ExtractionProfileRegistry extractionProfiles;
+  private final ParseFailureCaptureStore failureCaptures;
+  private final PageFetcher pageFetcher;
+  private final StructuredDataExtractor structuredDataExtractor = new StructuredDataExtractor();
+  private final boolean structuredDataEnabled;
+  private final int priceTextScanMaxChars;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Counter> pathCounters = new ConcurrentHashMap<>();
+
+  public UniversalProductParser(AdaptiveTracer tracer,
+      ExtractionProfileRegistry extractionProfiles, ParseFailureCaptureStore failureCaptures,
+      PageFetcher pageFetcher, MeterRegistry meterRegistry,
+      @Value("${parser.structured-data.enabled:true}") boolean structuredDataEnabled,
+      @Value("${parser.price-text-scan.max-chars:65536}") int priceTextScanMaxChars) {
+    this.tracer = tracer;
+    this.extractionEngine = new SelectorExtractionEngine(defaultRules());
+    this.extractionProfiles = extractionProfiles;
+    this.failureCaptures = failureCaptures;
+    this.pageFetcher = pageFetcher;
+    this.meterRegistry = meterRegistry;
+    this.structuredDataEnabled = structuredDataEnabled;
+    this.priceTextScanMaxChars = priceTextScanMaxChars;
+  }
 
-  public UniversalProductParser(OpenTelemetry openTelemetry) {
-    this.tracer = openTelemetry.getTracer("com.pricesparser.parser", "1.0.0");
+  public static List<ExtractionRule> defaultRules() {
+    Predicate<String> positivePrice = value -> PriceScanner.scanMinorUnits(value) > 0;
+    return List.of(
+        ExtractionRule.text(ExtractionField.TITLE, "h1[itemprop=name]"),
+        ExtractionRule.text(ExtractionField.TITLE, "h1.section__title"),
+        ExtractionRule.attribute(ExtractionField.TITLE, "meta[property=og:title][content]",
+            "content"),
+        ExtractionRule.attribute(ExtractionField.TITLE, "meta[name=title][content]", "content"),
+        ExtractionRule.text(ExtractionField.TITLE, "h1"),
+        ExtractionRule.text(ExtractionField.TITLE, "title"),
+
+        ExtractionRule.text(ExtractionField.PRICE, "span[itemprop=price]")
+            .within("[itemprop=offers]").accepting(positivePrice),
+        ExtractionRule.attribute(ExtractionField.PRICE, "[itemprop=price][content]", "content")
+            .within("[itemprop=offers]").accepting(positivePrice),
+        ExtractionRule.text(ExtractionField.PRICE, "[itemprop=price]")
+            .within("[itemprop=offers]").accepting(positivePrice),
+        ExtractionRule.ownTextOrText(ExtractionField.PRICE, "[itemprop=offers]")
+            .accepting(positivePrice),
+        ExtractionRule.attribute(ExtractionField.PRICE,
+            "meta[property=product:price:amount][content]", "content"),
+        ExtractionRule.attribute(ExtractionField.PRICE, "[itemprop=price][content]", "content"),
+        ExtractionRule.text(ExtractionField.PRICE, "span[itemprop=price]")
+            .accepting(positivePrice),
+        ExtractionRule.attribute(ExtractionField.PRICE, "[data-price]", "data-price"),
+        ExtractionRule.attributeOrText(ExtractionField.PRICE,
+            ".price, .product-price, [class*=price]", "data-price"),
+
+        ExtractionRule.text(ExtractionField.DESCRIPTION,
+            "div.product__descr[itemprop=description]"),
+        ExtractionRule.attribute(ExtractionField.DESCRIPTION,
+            "meta[property=og:description][content]", "content"),
+        ExtractionRule.attribute(ExtractionField.DESCRIPTION,
+            "meta[name=description][content]", "content"),
+        ExtractionRule.text(ExtractionField.DESCRIPTION,
+            ".description, .product-description, [class*=description], [itemprop=description], "
+                + ".product-info, .product__description")
+            .accepting(value -> true));
   }
 
   @Override
   public Product parse(String url) {
-    Span span = tracer.spanBuilder("fetchHtml")
-        .setAttribute("url", url)
-        .startSpan();
+    return fetchAndParse(url, HttpValidators.NONE).product();
+  }
+
+  @Override
+  public ConditionalParse parseIfModified(String url, HttpValidators previous) {
+    return fetchAndParse(url, previous);
+  }
+
+  private ConditionalParse fetchAndParse(String url, HttpValidators previous) {
+    TracedSpan span = tracer.start("fetchHtml");
 
-    try (Scope scope = span.makeCurrent()) {
+    try {
+      span.setAttribute("url", url);
       logger.info("Парсинг URL: {}", url);
 
-      Document doc = Jsoup.connect(url).userAgent(
-          "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-          .header("Accept",
-              "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-          .header("Accept-Language", "ru-RU,ru;q=0.9,en-US;q=0.8,en;q=0.7")
-          .header("Connection", "keep-alive").header("Upgrade-Insecure-Requests", "1")
-          .header("Referer", "https://pitergsm.ru/").header("Sec-Fetch-Dest", "document")
-          .header("Sec-Fetch-Mode", "navigate").header("Sec-Fetch-Site", "same-origin")
-          .header("Cache-Control", "max-age=0").timeout(15000).followRedirects(true).get();
-
-      String html = doc.html();
-      logger.info("HTML загружен, размер: {} байт", html.length());
-      logger.info("Title страницы: {}", doc.title());
+      PageFetcher.PageResponse response =
+          pageFetcher.fetch(url, previous.conditionalHeaders());
+      if (response.statusCode() == HTTP_NOT_MODIFIED) {
+        response.discardBody();
+        logger.debug("Страница не изменилась (304): {}", url);
+        span.setAttribute("http.not_modified", "true");
+        return ConditionalParse.notModified(
+            previous.revalidated(response.header("ETag"), response.header("Last-Modified")));
+      }
+
+      byte[] body = response.bodyWithinBudget();
+      String contentLength = response.header("Content-Length");
+      logger.info("HTML загружен, Content-Length: {}",
+          contentLength != null ? contentLength : body.length);
+
+      HttpValidators validators = new HttpValidators(response.header("ETag"),
+          response.header("Last-Modified"), ProductFingerprint.of(body));
+      if (previous.hasSameContent(validators.contentHash())) {
+        logger.debug("Карточка товара совпала с прошлой загрузкой: {}", url);
+        span.setAttribute("http.not_modified", "fingerprint");
+        return ConditionalParse.notModified(validators);
+      }
 
-      span.setAttribute("html.size", html.length());
-      span.setAttribute("page.title", doc.title());
+      // Jackson читает JSON-LD прямо из байтов только в UTF-8, иначе идём через DOM
+      Charset charset = response.charset();
+      if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+        Product structured = parseStructuredData(url, body);
+        if (structured != null) {
+          span.setAttribute("parse.path", PATH_STRUCTURED_DATA);
+          return ConditionalParse.modified(structured, validators);
+        }
+      }
 
-      logger.info("Найдено h1 элементов: {}", doc.select("h1").size());
-      logger.info("Найдено .product__price элементов: {}", doc.select(".product__price").size());
-      logger.info("Найдено div.product__descr элементов: {}",
-          doc.select("div.product__descr").size());
+      // Без кодировки в заголовках jsoup определит её по BOM или meta charset
+      Document doc = Jsoup.parse(new ByteArrayInputStream(body),
+          charset != null ? charset.name() : null, url);
+      logger.info("Title страницы: {}", doc.title());
 
-      if (doc.select("h1").isEmpty()) {
-        logger.warn("h1 не найден! Первые 500 символов HTML:\n{}",
-            html.substring(0, Math.min(500, html.length())));
+      if (contentLength != null) {
+        span.setAttribute("html.size", contentLength);
       }
+      span.setDetailAttribute("page.title", doc.title());
 
-      return parseFromHtml(url, html);
+      return ConditionalParse.modified(parseDocument(url, doc, () -> body), validators);
 
     } catch (Exception e) {
       logger.error("Ошибка при парсинге URL {}: {}", url, e.getMessage(), e);
-      span.recordException(e);
-      span.setStatus(io.opentelemetry.api.trace.StatusCode.ERROR, e.getMessage());
+      span.recordFailure(e);
       throw new RuntimeException("Не удалось распарсить товар: " + e.getMessage(), e);
     } finally {
-      span.end();
+      span.close();
     }
   }
 
   @Override
   public Product parseFromHtml(String url, String html) {
-    Span span = tracer.spanBuilder("parseFromHtml")
-        .setAttribute("url", url)
-        .setAttribute("html.size", html.length())
-        .startSpan();
+    Product structured = parseStructuredData(url, html);
+    if (structured != null) {
+      return structured;
+    }
+    return parseDocument(url, Jsoup.parse(html, url),
+        () -> html.getBytes(StandardCharsets.UTF_8));
+  }
 
-    try (Scope scope = span.makeCurrent()) {
-      Document doc = Jsoup.parse(html);
+  private Product parseStructuredData(String url, byte[] body) {
+    return structuredDataEnabled ? countStructured(url, structuredDataExtractor.extract(url, body))
+        : null;
+  }
 
-      Span titleSpan = tracer.spanBuilder("extractTitle").startSpan();
-      String title = null;
-      try (Scope titleScope = titleSpan.makeCurrent()) {
-        title = extractTitle(doc);
-      } finally {
-        titleSpan.setAttribute("title", title != null ? title : "");
-        titleSpan.end();
-      }
+  private Product parseStructuredData(String url, String html) {
+    return structuredDataEnabled ? countStructured(url, structuredDataExtractor.extract(url, html))
+        : null;
+  }
+
+  private Product countStructured(String url, Product product) {
+    if (product != null) {
+      countPath(url, PATH_STRUCTURED_DATA);
+      logger.debug("Товар извлечён из JSON-LD без построения DOM: {}", url);
+    }
+    return product;
+  }
+
+  private void countPath(String url, String path) {
+    String host = hostOf(url);
+    pathCounters.computeIfAbsent(host + ":" + path,
+        key -> Counter.builder("parser_pages_total")
+            .description("Parsed pages by host and extraction path").tag("host", host)
+            .tag("path", path).register(meterRegistry))
+        .increment();
+  }
+
+  private static String hostOf(String url) {
+    try {
+      String host = url != null ? URI.create(url).getHost() : null;
+      return host != null ? ExtractionProfile.normalizeHost(host) : "unknown";
+    } catch (IllegalArgumentException e) {
+      return "unknown";
+    }
+  }
+
+  @Override
+  public Product parseFromDocument(String url, Document doc) {
+    return parseDocument(url, doc, () -> doc.outerHtml().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Product parseDocument(String url, Document doc, Supplier<byte[]> rawPage) {
+    TracedSpan span = tracer.start("parseFromDocument");
 
-      Span priceSpan = tracer.spanBuilder("extractPrice")
-          .setAttribute("url", url)
-          .startSpan();
+    try {
+      span.setDetailAttribute("url", url);
+      countPath(url, PATH_DOM);
+      TracedSpan extractSpan = tracer.start("extractFields");
+      String title = null;
       BigDecimal price = null;
-      try (Scope priceScope = priceSpan.makeCurrent()) {
-        price = extractPrice(doc, url);
+      String description = null;
+      ExtractionResult extraction = null;
+      try {
+        extraction = extractionProfiles.extract(url, doc, extractionEngine);
+        title = extractTitle(extraction);
+        price = extractPrice(extraction, doc, url);
+        description = extractDescription(extraction);
+      } catch (RuntimeException e) {
+        extractSpan.recordFailure(e);
+        captureFailure(url, "error: " + e.getMessage(), extraction, rawPage);
+        throw e;
       } finally {
-        priceSpan.setAttribute("price", price != null ? price.toString() : "0");
-        priceSpan.end();
+        extractSpan.setDetailAttribute("title", title != null ? title : "");
+        extractSpan.setAttribute("price", price != null ? price.toString() : "0");
+        extractSpan.setAttribute("description.length",
+            description != null ? description.length() : 0);
+        extractSpan.close();
       }
 
-      Span descSpan = tracer.spanBuilder("extractDescription").startSpan();
-      String description = null;
-      try (Scope descScope = descSpan.makeCurrent()) {
-        description = extractDescription(doc);
-      } finally {
-        descSpan.setAttribute("description.length", description != null ? description.length() : 0);
-        descSpan.end();
+      if (price.signum() == 0 || !extraction.isResolved(ExtractionField.TITLE)) {
+        captureFailure(url, price.signum() == 0 ? "price_zero" : "title_missing", extraction,
+            rawPage);
       }
 
       Product product = new Product(url, title, price, description);
@@ -127,218 +260,75 @@ public class UniversalProductParser implements ProductParser {
 
       logger.debug("Извлечено - Title: {}, Price: {}, Description: {}", title, price, description);
 
-      span.setAttribute("product.title", title != null ? title : "");
+      span.setDetailAttribute("product.title", title != null ? title : "");
       span.setAttribute("product.price", price != null ? price.toString() : "0");
-      span.setAttribute("product.description.length", description != null ? description.length() : 0);
 
       return product;
 
     } catch (Exception e) {
       logger.error("Ошибка при парсинге HTML для URL {}: {}", url, e.getMessage());
-      span.recordException(e);
-      span.setStatus(io.opentelemetry.api.trace.StatusCode.ERROR, e.getMessage());
+      span.recordFailure(e);
       throw new RuntimeException("Не удалось распарсить HTML: " + e.getMessage(), e);
     } finally {
-      span.end();
+      span.close();
     }
   }
 
-  private String extractTitle(Document doc) {
-    String title = null;
-
-    Element h1Name = doc.selectFirst("h1[itemprop=name]");
-    if (h1Name != null) {
-      title = h1Name.text().trim();
-      if (!title.isEmpty()) {
-        logger.debug("Title найден в h1[itemprop=name]: {}", title);
-        return title;
-      }
-    }
-
-    Element h1Section = doc.selectFirst("h1.section__title");
-    if (h1Section != null) {
-      title = h1Section.text().trim();
-      if (!title.isEmpty()) {
-        logger.debug("Title найден в h1.section__title: {}", title);
-        return title;
-      }
-    }
-
-    title = doc.select("meta[property=og:title]").attr("content");
-    if (title != null && !title.isEmpty()) {
-      return title.trim();
-    }
-
-    title = doc.select("meta[name=title]").attr("content");
-    if (title != null && !title.isEmpty()) {
-      return title.trim();
-    }
-
-    Element h1 = doc.selectFirst("h1");
-    if (h1 != null) {
-      String h1Text = h1.text().trim();
-      if (!h1Text.isEmpty()) {
-        return h1Text;
-      }
+  private void captureFailure(String url, String reason, ExtractionResult extraction,
+      Supplier<byte[]> rawPage) {
+    if (failureCaptures.isEnabled()) {
+      failureCaptures.capture(url, reason,
+          extraction != null ? extraction.describe() : List.of(), rawPage);
     }
+  }
 
-    title = doc.title();
-    if (title != null && !title.isEmpty()) {
-      return title.trim();
+  private String extractTitle(ExtractionResult extraction) {
+    String title = extraction.getValue(ExtractionField.TITLE);
+    if (title != null) {
+      logger.debug("Title найден в {}: {}", extraction.getRule(ExtractionField.TITLE), title);
+      return title;
     }
-
     return "Без названия";
   }
 
-  private BigDecimal extractPrice(Document doc, String url) {
-    String priceText = null;
-
-    var priceContainers = doc.select(".product__price[itemprop=offers], [itemprop=offers]");
-    for (Element priceContainer : priceContainers) {
-      Element priceSpan = priceContainer.selectFirst("span[itemprop=price]");
-      if (priceSpan != null) {
-        priceText = priceSpan.text().trim();
-        if (priceText != null && !priceText.isEmpty()) {
-          BigDecimal price = parsePrice(priceText);
-          if (price.compareTo(BigDecimal.ZERO) > 0) {
-            logger.debug("Цена найдена в span[itemprop=price]: {}", priceText);
-            return price;
-          }
-        }
-      }
-
-      priceText = priceContainer.select("[itemprop=price]").attr("content");
-      if (priceText != null && !priceText.isEmpty()) {
-        BigDecimal price = parsePrice(priceText);
-        if (price.compareTo(BigDecimal.ZERO) > 0) {
-          logger.debug("Цена найдена в [itemprop=price] content: {}", priceText);
-          return price;
-        }
-      }
-
-      priceText = priceContainer.select("[itemprop=price]").text();
-      if (priceText != null && !priceText.isEmpty()) {
-        BigDecimal price = parsePrice(priceText);
-        if (price.compareTo(BigDecimal.ZERO) > 0) {
-          logger.debug("Цена найдена в [itemprop=price] text: {}", priceText);
-          return price;
-        }
-      }
-
-      priceText = priceContainer.ownText().trim();
-      if (priceText == null || priceText.isEmpty()) {
-        priceText = priceContainer.text().trim();
-      }
-      if (priceText != null && !priceText.isEmpty()) {
-        BigDecimal price = parsePrice(priceText);
-        if (price.compareTo(BigDecimal.ZERO) > 0) {
-          logger.debug("Цена найдена в .product__price тексте: {}", priceText);
-          return price;
-        }
-      }
-    }
-
-    priceText = doc.select("meta[property=product:price:amount]").attr("content");
-    if (priceText != null && !priceText.isEmpty()) {
-      logger.debug("Цена найдена в meta[property=product:price:amount]: {}", priceText);
-      return parsePrice(priceText);
-    }
-
-    priceText = doc.select("[itemprop=price]").attr("content");
-    if (priceText != null && !priceText.isEmpty()) {
-      logger.debug("Цена найдена в [itemprop=price]: {}", priceText);
+  private BigDecimal extractPrice(ExtractionResult extraction, Document doc, String url) {
+    String priceText = extraction.getValue(ExtractionField.PRICE);
+    if (priceText != null) {
+      logger.debug("Цена найдена в {}: {}", extraction.getRule(ExtractionField.PRICE), priceText);
       return parsePrice(priceText);
     }
 
-    Element priceSpan = doc.selectFirst("span[itemprop=price]");
-    if (priceSpan != null) {
-      priceText = priceSpan.text().trim();
-      if (priceText != null && !priceText.isEmpty()) {
-        BigDecimal price = parsePrice(priceText);
-        if (price.compareTo(BigDecimal.ZERO) > 0) {
-          logger.debug("Цена найдена в span[itemprop=price] напрямую: {}", priceText);
-          return price;
-        }
-      }
-    }
-
-    priceText = doc.select("[data-price]").attr("data-price");
-    if (priceText != null && !priceText.isEmpty()) {
-      logger.debug("Цена найдена в [data-price]: {}", priceText);
-      return parsePrice(priceText);
-    }
-
-    Element priceElement = doc.selectFirst(".price, .product-price, [class*=price]");
-    if (priceElement != null) {
-      priceText = priceElement.attr("data-price");
-      if (priceText == null || priceText.isEmpty()) {
-        priceText = priceElement.text();
+    if (doc.body() != null) {
+      BodyTextPriceScanner.Result scan =
+          BodyTextPriceScanner.scan(doc.body(), priceTextScanMaxChars);
+      if (scan.minorUnits() > 0) {
+        logger.debug("Цена найдена в тексте страницы после {} символов", scan.charsScanned());
+        return PriceScanner.toBigDecimal(scan.minorUnits());
       }
-      if (priceText != null && !priceText.isEmpty()) {
-        logger.debug("Цена найдена в элементе с классом price: {}", priceText);
-        return parsePrice(priceText);
+      if (scan.budgetExhausted()) {
+        logger.debug("Лимит {} символов текста исчерпан при поиске цены: {}",
+            priceTextScanMaxChars, url);
       }
     }
 
-    String bodyText = doc.body() != null ? doc.body().text() : "";
-    Matcher matcher = PRICE_IN_TEXT_PATTERN.matcher(bodyText);
-    if (matcher.find()) {
-      String foundPrice = matcher.group(1);
-      logger.debug("Цена найдена в тексте страницы: {}", foundPrice);
-      return parsePrice(foundPrice);
-    }
-
     logger.warn("Цена не найдена для URL: {}", url);
     return BigDecimal.ZERO;
   }
 
-  private BigDecimal parsePrice(String priceText) {
-    if (priceText == null || priceText.isEmpty()) {
-      return BigDecimal.ZERO;
-    }
-
-    try {
-      String cleanPrice = priceText.replaceAll("[^0-9.,]", "").replace(",", ".");
-
-      if (cleanPrice.isEmpty()) {
-        return BigDecimal.ZERO;
-      }
-
-      return new BigDecimal(cleanPrice);
-    } catch (NumberFormatException e) {
-      logger.warn("Не удалось распарсить цену: {}", priceText);
-      return BigDecimal.ZERO;
+  public BigDecimal parsePrice(String priceText) {
+    long minorUnits = PriceScanner.scanMinorUnits(priceText);
+    if (minorUnits == PriceScanner.NOT_FOUND && priceText != null && !priceText.isEmpty()) {
+      logger.debug("Не удалось распарсить цену: {}", priceText);
     }
+    return PriceScanner.toBigDecimal(minorUnits);
   }
 
-  private String extractDescription(Document doc) {
-    String description = null;
-
-    Element descElement = doc.selectFirst("div.product__descr[itemprop=description]");
-    if (descElement != null) {
-      description = descElement.text().trim();
-      if (description != null && !description.isEmpty()) {
-        logger.debug("Description найден в div.product__descr[itemprop=description]");
-        return description;
-      }
-    }
-
-    description = doc.select("meta[property=og:description]").attr("content");
-    if (description != null && !description.isEmpty()) {
-      return description.trim();
-    }
-
-    description = doc.select("meta[name=description]").attr("content");
-    if (description != null && !description.isEmpty()) {
-      return description.trim();
+  private String extractDescription(ExtractionResult extraction) {
+    String description = extraction.getValue(ExtractionField.DESCRIPTION);
+    if (description != null) {
+      logger.debug("Description найден в {}", extraction.getRule(ExtractionField.DESCRIPTION));
+      return description;
     }
-
-    descElement = doc.selectFirst(
-        ".description, .product-description, [class*=description], [itemprop=description], .product-info, .product__description");
-    if (descElement != null) {
-      return descElement.text().trim();
-    }
-
     return "";
   }
 }
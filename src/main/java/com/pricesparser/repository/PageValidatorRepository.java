@@ -0,0 +1,18 @@
+package com.pricesparser.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pricesparser.model.PageValidator;
+
+@Repository
+public interface PageValidatorRepository extends JpaRepository<PageValidator, Long> {
+
+    Optional<PageValidator> findByUrl(String url);
+
+    @Transactional
+    void deleteByUrl(String url);
+}
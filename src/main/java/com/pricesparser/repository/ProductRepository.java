@@ -1,15 +1,18 @@
 package com.pricesparser.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.pricesparser.model.Product;
 
@@ -20,6 +23,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     boolean existsByUrl(String url);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.parsedAt = :parsedAt WHERE p.url = :url")
+    int touchParsedAt(@Param("url") String url, @Param("parsedAt") LocalDateTime parsedAt);
+
+    @Query("SELECT p.url, p.contentFingerprint FROM Product p WHERE p.contentFingerprint <> 0")
+    List<Object[]> findContentFingerprints();
+
     @Query("SELECT p FROM Product p WHERE " + "(:minPrice IS NULL OR p.price >= :minPrice) AND "
             + "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
             + "(:titleFilter IS NULL OR :titleFilter = '' OR LOWER(p.title) LIKE LOWER(CONCAT('%', :titleFilter, '%')))")
@@ -0,0 +1,90 @@
+package com.pricesparser.service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.parser.ProductFingerprint;
+import com.pricesparser.repository.ProductRepository;
+import com.pricesparser.util.ContentHash;
+import com.pricesparser.util.LongLongHashMap;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * {@link ProductFingerprint} сохранённых товаров по URL. Позволяет до разбора понять, что карточка
+ * не изменилась, не читая товар из БД; сам отпечаток хранится в {@code products}. Ключ —
+ * 64-битный хэш URL: запись занимает 16 байт вместо строки, узла и упакованного {@code Long}.
+ */
+@Service
+public class ContentFingerprintIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(ContentFingerprintIndex.class);
+
+  private final ProductRepository productRepository;
+  private final LongLongHashMap fingerprints = new LongLongHashMap(1024);
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public ContentFingerprintIndex(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  @PostConstruct
+  public void load() {
+    List<Object[]> rows = productRepository.findContentFingerprints();
+    lock.writeLock().lock();
+    try {
+      for (Object[] row : rows) {
+        fingerprints.put(key((String) row[0]), (Long) row[1]);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    logger.info("Загружено {} отпечатков карточек товаров", size());
+  }
+
+  public long get(String url) {
+    lock.readLock().lock();
+    try {
+      return fingerprints.get(key(url));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // 0 — отпечаток неизвестен, запись удаляется
+  public void put(String url, long fingerprint) {
+    lock.writeLock().lock();
+    try {
+      fingerprints.put(key(url), fingerprint);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(String url) {
+    lock.writeLock().lock();
+    try {
+      fingerprints.remove(key(url));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return fingerprints.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static long key(String url) {
+    return ContentHash.hash64(url);
+  }
+}
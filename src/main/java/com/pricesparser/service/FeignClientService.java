@@ -1,35 +1,45 @@
 package com.pricesparser.service;
 
+import java.net.URI;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.pricesparser.client.ExternalApiClient;
+import com.pricesparser.client.HtmlFetcher;
+import com.pricesparser.client.ProductHtmlClient;
 
 @Service
-public class FeignClientService {
+public class FeignClientService implements HtmlFetcher {
 
   private static final Logger logger = LoggerFactory.getLogger(FeignClientService.class);
 
-  private final ExternalApiClient externalApiClient;
+  private final ProductHtmlClient productHtmlClient;
+
+  public FeignClientService(ProductHtmlClient productHtmlClient) {
+    this.productHtmlClient = productHtmlClient;
+  }
+
+  @Override
+  public String name() {
+    return "feign";
+  }
 
-  public FeignClientService(ExternalApiClient externalApiClient) {
-    this.externalApiClient = externalApiClient;
+  @Override
+  public String fetch(String url) {
+    return fetchHtml(url);
   }
 
   public String fetchHtml(String url) {
     logger.debug("Загрузка HTML через FeignClient с URL: {}", url);
 
     try {
-      if (url.contains("example.com")) {
-        String html = externalApiClient.getHtml();
-        logger.debug("Успешно загружен HTML через FeignClient с URL: {} (размер: {} байт)", url,
-            html.length());
-        return html;
-      } else {
-        throw new UnsupportedOperationException(
-            "FeignClient настроен только для example.com. Для других URL используйте RestTemplate или WebClient");
-      }
+      URI uri = URI.create(url);
+      String html = uri.getRawQuery() == null && uri.getRawPath().endsWith("/")
+          ? productHtmlClient.getPageWithTrailingSlash(uri) : productHtmlClient.getPage(uri);
+      logger.debug("Успешно загружен HTML через FeignClient с URL: {} (размер: {} байт)", url,
+          html.length());
+      return html;
     } catch (Exception e) {
       logger.error("Ошибка при загрузке HTML через FeignClient с URL {}: {}", url, e.getMessage());
       throw new RuntimeException("Ошибка при загрузке через FeignClient: " + e.getMessage(), e);
@@ -1,6 +1,7 @@
 package com.pricesparser.service;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,21 +9,19 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.pricesparser.client.HtmlFetcher;
+
 @Component
 @Order(12)
 public class InterServiceDemoService implements CommandLineRunner {
 
   private static final Logger logger = LoggerFactory.getLogger(InterServiceDemoService.class);
 
-  private final RestTemplateService restTemplateService;
-  private final WebClientService webClientService;
-  private final FeignClientService feignClientService;
+  private final List<HtmlFetcher> htmlFetchers;
 
-  public InterServiceDemoService(RestTemplateService restTemplateService,
-      WebClientService webClientService, FeignClientService feignClientService) {
-    this.restTemplateService = restTemplateService;
-    this.webClientService = webClientService;
-    this.feignClientService = feignClientService;
+  // В списке есть и выбранный parser.fetch.client бин, он же одна из реализаций
+  public InterServiceDemoService(List<HtmlFetcher> htmlFetchers) {
+    this.htmlFetchers = htmlFetchers.stream().distinct().toList();
   }
 
   @Override
@@ -31,44 +30,27 @@ public class InterServiceDemoService implements CommandLineRunner {
 
     List<String> testUrls = List.of("https://example.com", "https://example.org");
 
-    logger.info("--- Демонстрация RestTemplate (синхронный, блокирующий) ---");
-    for (String url : testUrls) {
-      try {
-        long startTime = System.currentTimeMillis();
-        String html = restTemplateService.fetchHtml(url);
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("✅ RestTemplate: загружено {} байт за {} мс", html.length(), duration);
-      } catch (Exception e) {
-        logger.error("❌ RestTemplate: ошибка - {}", e.getMessage());
-      }
-    }
-
-    logger.info("--- Демонстрация WebClient (асинхронный, неблокирующий) ---");
-    for (String url : testUrls) {
-      try {
-        long startTime = System.currentTimeMillis();
-        String html = webClientService.fetchHtmlBlocking(url);
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("✅ WebClient: загружено {} байт за {} мс", html.length(), duration);
-      } catch (Exception e) {
-        logger.error("❌ WebClient: ошибка - {}", e.getMessage());
+    // Однократная загрузка показывает только работоспособность клиента, для сравнения скорости
+    // есть HtmlFetcherBenchmark
+    for (HtmlFetcher fetcher : htmlFetchers) {
+      for (String url : testUrls) {
+        try {
+          long startTime = System.nanoTime();
+          String html = fetcher.fetch(url);
+          long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+          logger.info("✅ {}: загружено {} байт за {} мс", fetcher.name(), html.length(),
+              duration);
+        } catch (Exception e) {
+          logger.error("❌ {}: ошибка - {}", fetcher.name(), e.getMessage());
+        }
       }
     }
 
-    logger.info("--- Демонстрация FeignClient (декларативный, простой) ---");
-    try {
-      long startTime = System.currentTimeMillis();
-      String html = feignClientService.fetchHtml("https://example.com");
-      long duration = System.currentTimeMillis() - startTime;
-      logger.info("✅ FeignClient: загружено {} байт за {} мс", html.length(), duration);
-    } catch (Exception e) {
-      logger.error("❌ FeignClient: ошибка - {}", e.getMessage());
-    }
-
     logger.info("--- Сравнение подходов ---");
     logger.info("RestTemplate: синхронный, блокирующий, простой в использовании");
     logger.info("WebClient: асинхронный, неблокирующий, реактивный, лучше для высокой нагрузки");
     logger.info("FeignClient: декларативный, простой интерфейс, автоматическая генерация клиента");
+    logger.info("Jsoup: HttpURLConnection мимо общего пула соединений и лимитов хостов");
     logger.info("=== Конец демонстрации межсервисного взаимодействия ===\n");
   }
 }
@@ -0,0 +1,84 @@
+package com.pricesparser.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.model.PageValidator;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.repository.PageValidatorRepository;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * HTTP-валидаторы последней успешной загрузки каждого URL. Читаются из памяти, поэтому их можно
+ * запрашивать с event loop; запись идёт в БД вместе с сохранением товара. Отпечаток карточки
+ * здесь не хранится: он лежит в самом товаре, см. {@link ContentFingerprintIndex}.
+ */
+@Service
+public class PageValidatorStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(PageValidatorStore.class);
+
+  private final PageValidatorRepository repository;
+  private final Counter conditionalFetchHitCounter;
+  private final Counter conditionalFetchMissCounter;
+  private final Map<String, HttpValidators> validators = new ConcurrentHashMap<>();
+
+  public PageValidatorStore(PageValidatorRepository repository,
+      Counter conditionalFetchHitCounter, Counter conditionalFetchMissCounter) {
+    this.repository = repository;
+    this.conditionalFetchHitCounter = conditionalFetchHitCounter;
+    this.conditionalFetchMissCounter = conditionalFetchMissCounter;
+  }
+
+  @PostConstruct
+  public void load() {
+    for (PageValidator stored : repository.findAll()) {
+      validators.put(stored.getUrl(),
+          new HttpValidators(stored.getEtag(), stored.getLastModified(), 0));
+    }
+    logger.info("Загружено {} валидаторов страниц", validators.size());
+  }
+
+  public HttpValidators get(String url) {
+    return validators.getOrDefault(url, HttpValidators.NONE);
+  }
+
+  public void recordNotModified(String url, HttpValidators current) {
+    conditionalFetchHitCounter.increment();
+    HttpValidators http = current.withContentHash(0);
+    if (!http.equals(validators.get(url))) {
+      save(url, http);
+    }
+  }
+
+  public void recordModified(String url, HttpValidators current) {
+    conditionalFetchMissCounter.increment();
+    HttpValidators http = current.withContentHash(0);
+    if (http.isEmpty()) {
+      return;
+    }
+    save(url, http);
+  }
+
+  public void forget(String url) {
+    if (validators.remove(url) != null) {
+      repository.deleteByUrl(url);
+    }
+  }
+
+  private void save(String url, HttpValidators current) {
+    PageValidator stored = repository.findByUrl(url).orElseGet(() -> new PageValidator(url));
+    stored.setEtag(current.etag());
+    stored.setLastModified(current.lastModified());
+    stored.setValidatedAt(LocalDateTime.now());
+    repository.save(stored);
+    validators.put(url, current);
+  }
+}
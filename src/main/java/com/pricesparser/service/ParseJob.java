@@ -0,0 +1,210 @@
+package com.pricesparser.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.pricesparser.dto.ProductResponse;
+import com.pricesparser.model.Product;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Один запуск парсинга по запросу API. В работе одновременно не больше {@code maxInFlight} URL:
+ * следующий отдаётся исполнителю, когда освобождается место. Сохранённые товары копятся в
+ * {@link #results()} и достаются и тем, кто подписался позже.
+ */
+public class ParseJob {
+
+  public enum State {
+    RUNNING, COMPLETED, CANCELLED
+  }
+
+  private final String id = UUID.randomUUID().toString();
+  private final Instant createdAt = Instant.now();
+  private final List<String> urls;
+  private final int maxInFlight;
+  private final Function<String, CompletableFuture<Product>> task;
+  private final Function<Product, ProductResponse> toResponse;
+  private final Sinks.Many<ProductResponse> results = Sinks.many().replay().all();
+  private final Set<CompletableFuture<Product>> inFlight = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger succeeded = new AtomicInteger();
+  private final AtomicInteger unchanged = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private final AtomicInteger cancelled = new AtomicInteger();
+  private final AtomicInteger finished = new AtomicInteger();
+  private final AtomicInteger pendingLaunches = new AtomicInteger();
+  private int next;
+  private volatile State state = State.RUNNING;
+  private volatile Instant finishedAt;
+
+  ParseJob(List<String> urls, int maxInFlight, Function<String, CompletableFuture<Product>> task,
+      Function<Product, ProductResponse> toResponse) {
+    this.urls = List.copyOf(urls);
+    this.maxInFlight = maxInFlight;
+    this.task = task;
+    this.toResponse = toResponse;
+  }
+
+  void start() {
+    if (urls.isEmpty()) {
+      finish();
+      return;
+    }
+    for (int i = 0; i < maxInFlight; i++) {
+      launchNext();
+    }
+  }
+
+  // Ещё не начатые URL не запускаются, у выполняемых прерывается поток, и их товары не сохраняются
+  boolean cancel() {
+    int skipped;
+    synchronized (this) {
+      if (state != State.RUNNING) {
+        return false;
+      }
+      state = State.CANCELLED;
+      skipped = urls.size() - next;
+      next = urls.size();
+    }
+    inFlight.forEach(future -> future.cancel(true));
+    if (skipped > 0) {
+      record(cancelled, skipped);
+    }
+    return true;
+  }
+
+  public String id() {
+    return id;
+  }
+
+  public State state() {
+    return state;
+  }
+
+  public Instant createdAt() {
+    return createdAt;
+  }
+
+  // null, пока задание не закончено
+  public Instant finishedAt() {
+    return finishedAt;
+  }
+
+  public int total() {
+    return urls.size();
+  }
+
+  public int inFlight() {
+    return inFlight.size();
+  }
+
+  public int succeeded() {
+    return succeeded.get();
+  }
+
+  // Карточка не изменилась с прошлой загрузки: обработано успешно, но товара в потоке нет
+  public int unchanged() {
+    return unchanged.get();
+  }
+
+  public int failed() {
+    return failed.get();
+  }
+
+  public int cancelled() {
+    return cancelled.get();
+  }
+
+  public int finished() {
+    return finished.get();
+  }
+
+  public boolean isDone() {
+    return finishedAt != null;
+  }
+
+  // Сначала уже сохранённые товары, затем новые по мере сохранения; завершается вместе с заданием
+  public Flux<ProductResponse> results() {
+    return results.asFlux();
+  }
+
+  // Задача может завершиться прямо в вызывающем потоке (CallerRunsPolicy, мгновенная ошибка):
+  // запуск следующей тогда не уходит в рекурсию, а выполняется циклом у первого вызвавшего
+  private void launchNext() {
+    if (pendingLaunches.getAndIncrement() > 0) {
+      return;
+    }
+    do {
+      submitNext();
+    } while (pendingLaunches.decrementAndGet() > 0);
+  }
+
+  private void submitNext() {
+    String url;
+    synchronized (this) {
+      if (state != State.RUNNING || next >= urls.size()) {
+        return;
+      }
+      url = urls.get(next++);
+    }
+    CompletableFuture<Product> future;
+    try {
+      future = task.apply(url);
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    inFlight.add(future);
+    // Отмена могла пройти между выдачей URL и добавлением в inFlight
+    if (state == State.CANCELLED) {
+      future.cancel(true);
+    }
+    CompletableFuture<Product> submitted = future;
+    submitted.whenComplete((product, error) -> {
+      inFlight.remove(submitted);
+      onComplete(product, error);
+      launchNext();
+    });
+  }
+
+  private void onComplete(Product product, Throwable error) {
+    if (error instanceof CancellationException) {
+      record(cancelled, 1);
+    } else if (error != null) {
+      record(failed, 1);
+    } else if (product == null) {
+      record(unchanged, 1);
+    } else {
+      synchronized (results) {
+        results.tryEmitNext(toResponse.apply(product));
+      }
+      record(succeeded, 1);
+    }
+  }
+
+  private void record(AtomicInteger outcome, int count) {
+    outcome.addAndGet(count);
+    if (finished.addAndGet(count) == urls.size()) {
+      finish();
+    }
+  }
+
+  private void finish() {
+    synchronized (this) {
+      if (state == State.RUNNING) {
+        state = State.COMPLETED;
+      }
+    }
+    finishedAt = Instant.now();
+    synchronized (results) {
+      results.tryEmitComplete();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.pricesparser.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Задания на парсинг из API. URL уходят на {@code productParseExecutor} через
+ * {@link ProductParseService#parseProductInterruptibly}, не больше
+ * {@code parser.jobs.max-in-flight} от одного задания сразу, поэтому большой запрос не забивает
+ * очередь пула. Отмена задания прерывает выполняемые URL. Законченные задания хранятся
+ * {@code parser.jobs.retention-minutes}, чтобы успеть забрать итог.
+ */
+@Service
+public class ParseJobService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParseJobService.class);
+
+  private final ProductParseService productParseService;
+  private final ProductService productService;
+  private final int maxInFlight;
+  private final Duration retention;
+  private final Map<String, ParseJob> jobs = new ConcurrentHashMap<>();
+
+  public ParseJobService(ProductParseService productParseService, ProductService productService,
+      MeterRegistry meterRegistry, @Value("${parser.jobs.max-in-flight:8}") int maxInFlight,
+      @Value("${parser.jobs.retention-minutes:60}") long retentionMinutes) {
+    this.productParseService = productParseService;
+    this.productService = productService;
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.retention = Duration.ofMinutes(retentionMinutes);
+    Gauge.builder("parse_jobs_running", jobs,
+        value -> value.values().stream().filter(job -> !job.isDone()).count())
+        .description("Parse jobs submitted through the API that are still running")
+        .register(meterRegistry);
+  }
+
+  public ParseJob submit(List<String> urls) {
+    evictExpired();
+    ParseJob job = new ParseJob(urls, maxInFlight, productParseService::parseProductInterruptibly,
+        productService::toResponse);
+    jobs.put(job.id(), job);
+    logger.info("Задание {}: {} URL, одновременно до {}", job.id(), urls.size(), maxInFlight);
+    job.results().subscribe(null, null, () -> logger.info(
+        "Задание {} завершено ({}): сохранено {}, без изменений {}, ошибок {}, отменено {}",
+        job.id(), job.state(), job.succeeded(), job.unchanged(), job.failed(), job.cancelled()));
+    job.start();
+    return job;
+  }
+
+  public Optional<ParseJob> find(String id) {
+    return Optional.ofNullable(jobs.get(id));
+  }
+
+  public Optional<ParseJob> cancel(String id) {
+    ParseJob job = jobs.get(id);
+    if (job != null && job.cancel()) {
+      logger.info("Задание {} отменено: выполнено {}/{}", id, job.finished(), job.total());
+    }
+    return Optional.ofNullable(job);
+  }
+
+  private void evictExpired() {
+    Instant threshold = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.isDone() && job.finishedAt().isBefore(threshold));
+  }
+}
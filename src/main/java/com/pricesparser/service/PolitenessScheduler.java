@@ -0,0 +1,91 @@
+package com.pricesparser.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.util.HostConcurrencyLimiter;
+import com.pricesparser.util.HostRateLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Очереди URL по хостам. Хосты обходятся по кругу, и URL выдаётся, только если
+ * {@link HostRateLimiter} разрешает запрос к его хосту, поэтому медленный хост не задерживает
+ * остальные.
+ */
+@Service
+public class PolitenessScheduler {
+
+  private final HostRateLimiter rateLimiter;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Deque<String>> queues = new HashMap<>();
+  private final List<String> hosts = new ArrayList<>();
+  private int cursor;
+  private int queued;
+
+  public PolitenessScheduler(HostRateLimiter hostRateLimiter, MeterRegistry meterRegistry) {
+    this.rateLimiter = hostRateLimiter;
+    this.meterRegistry = meterRegistry;
+  }
+
+  // Не в конструкторе: gauge держит ссылку на планировщик и может опросить его из другого потока
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("politeness_queued_urls", this, PolitenessScheduler::queuedCount)
+        .description("URLs waiting for their host's rate limit").register(meterRegistry);
+  }
+
+  public synchronized void submit(Collection<String> urls) {
+    for (String url : urls) {
+      queues.computeIfAbsent(HostConcurrencyLimiter.hostOf(url), this::newQueue).addLast(url);
+      queued++;
+    }
+  }
+
+  // Не больше одного URL с хоста за круг, пока есть свободные места и токены
+  public synchronized List<String> pollReady(int max) {
+    List<String> ready = new ArrayList<>();
+    boolean progress = true;
+    while (ready.size() < max && progress) {
+      progress = false;
+      for (int i = 0; i < hosts.size() && ready.size() < max; i++) {
+        // Следующий вызов начнёт с хоста после последнего обслуженного
+        String host = hosts.get(cursor);
+        cursor = (cursor + 1) % hosts.size();
+        Deque<String> queue = queues.get(host);
+        if (!queue.isEmpty() && rateLimiter.tryAcquire(host)) {
+          ready.add(queue.pollFirst());
+          queued--;
+          progress = true;
+        }
+      }
+    }
+    return ready;
+  }
+
+  public synchronized int queuedCount() {
+    return queued;
+  }
+
+  private Deque<String> newQueue(String host) {
+    Deque<String> queue = new ArrayDeque<>();
+    hosts.add(host);
+    Gauge.builder("politeness_queue_depth", this, scheduler -> scheduler.depth(queue))
+        .description("URLs waiting for a host's rate limit").tag("host", host)
+        .register(meterRegistry);
+    return queue;
+  }
+
+  private synchronized int depth(Deque<String> queue) {
+    return queue.size();
+  }
+}
@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
@@ -18,13 +19,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class ProductLinksLoaderService {
 
   private static final Logger logger = LoggerFactory.getLogger(ProductLinksLoaderService.class);
-  private static final String BASE_URL = "https://pitergsm.ru";
   private static final String LINKS_FILE = "product_links.json";
 
   private final ObjectMapper objectMapper;
+  private final String baseUrl;
 
-  public ProductLinksLoaderService() {
+  // base-url подменяется на локальный сервер при воспроизведении записанных ответов
+  public ProductLinksLoaderService(
+      @Value("${parser.links.base-url:https://pitergsm.ru}") String baseUrl) {
     this.objectMapper = new ObjectMapper();
+    this.baseUrl = baseUrl;
   }
 
   public List<String> loadProductLinks() {
@@ -57,6 +61,6 @@ public class ProductLinksLoaderService {
   }
 
   private List<String> convertToFullUrls(List<String> relativePaths) {
-    return relativePaths.stream().map(path -> BASE_URL + path).collect(Collectors.toList());
+    return relativePaths.stream().map(path -> baseUrl + path).collect(Collectors.toList());
   }
 }
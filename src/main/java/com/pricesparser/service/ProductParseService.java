@@ -1,43 +1,72 @@
 package com.pricesparser.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.pricesparser.client.HtmlFetcher;
 import com.pricesparser.model.Product;
-import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.parser.ConditionalParse;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ProductFingerprint;
+import com.pricesparser.parser.ProductParser;
 import com.pricesparser.repository.ProductRepository;
+import com.pricesparser.service.WebClientService.ConditionalHtml;
+import com.pricesparser.util.AdaptiveTracer;
+import com.pricesparser.util.AdaptiveTracer.TracedSpan;
+import com.pricesparser.util.HostConcurrencyLimiter;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
-import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.trace.Span;
-import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.context.Scope;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class ProductParseService {
 
   private static final Logger logger = LoggerFactory.getLogger(ProductParseService.class);
 
+  private static final BooleanSupplier NOT_CANCELLED = () -> false;
+
   private final ExecutorService executorService;
-  private final UniversalProductParser parser;
+  private final ProductParser parser;
   private final ProductRepository productRepository;
   private final AsyncLoggingService asyncLoggingService;
   private final Timer parseDurationTimer;
   private final Counter parseSuccessCounter;
   private final Counter parseErrorsCounter;
   private final Counter productsSavedCounter;
-  private final Tracer tracer;
+  private final AdaptiveTracer tracer;
+  private final HostConcurrencyLimiter concurrencyLimiter;
+  private final PageValidatorStore validatorStore;
+  private final ContentFingerprintIndex fingerprintIndex;
+  // null: страницу загружает сам парсер через PageFetcher
+  private final HtmlFetcher htmlFetcher;
+  private final int streamMaxInFlight;
+  private final Duration urlTimeout;
 
-  public ProductParseService(ExecutorService productParseExecutor, UniversalProductParser parser,
+  public ProductParseService(ExecutorService productParseExecutor, ProductParser parser,
       ProductRepository productRepository, AsyncLoggingService asyncLoggingService,
       Timer parseDurationTimer, Counter parseSuccessCounter, Counter parseErrorsCounter,
-      Counter productsSavedCounter, OpenTelemetry openTelemetry) {
+      Counter productsSavedCounter, AdaptiveTracer tracer,
+      HostConcurrencyLimiter parseConcurrencyLimiter, PageValidatorStore validatorStore,
+      ContentFingerprintIndex fingerprintIndex, HtmlFetcher htmlFetcher,
+      @Value("${parser.stream.max-in-flight:32}") int streamMaxInFlight,
+      @Value("${parser.stream.url-timeout-seconds:60}") long urlTimeoutSeconds) {
     this.executorService = productParseExecutor;
     this.parser = parser;
     this.productRepository = productRepository;
@@ -46,126 +75,347 @@ public class ProductParseService {
     this.parseSuccessCounter = parseSuccessCounter;
     this.parseErrorsCounter = parseErrorsCounter;
     this.productsSavedCounter = productsSavedCounter;
-    this.tracer = openTelemetry.getTracer("com.pricesparser.service", "1.0.0");
+    this.tracer = tracer;
+    this.concurrencyLimiter = parseConcurrencyLimiter;
+    this.validatorStore = validatorStore;
+    this.fingerprintIndex = fingerprintIndex;
+    this.htmlFetcher = htmlFetcher instanceof PageFetcher ? null : htmlFetcher;
+    this.streamMaxInFlight = streamMaxInFlight;
+    this.urlTimeout = Duration.ofSeconds(urlTimeoutSeconds);
   }
 
   public CompletableFuture<Product> parseProductAsync(String url) {
     return CompletableFuture.supplyAsync(() -> parseProduct(url), executorService);
   }
 
+  // Отмена будущего действительно останавливает парсинг: ещё не начатая задача снимается,
+  // у начатой прерывается поток, а её товар в БД уже не попадает
+  public CompletableFuture<Product> parseProductInterruptibly(String url) {
+    ParseTask task = new ParseTask();
+    task.submit(executorService, () -> parseProduct(url, task::isCancelRequested));
+    return task;
+  }
+
+  // null: карточка не изменилась с прошлой загрузки, в БД обновлено только время парсинга
   public Product parseProduct(String url) {
+    return parseProduct(url, NOT_CANCELLED);
+  }
+
+  private Product parseProduct(String url, BooleanSupplier cancelled) {
+    return concurrencyLimiter.call(url, () -> parseAndSave(url, "parseProduct", previous(url),
+        previous -> fetchAndParse(url, previous), cancelled));
+  }
+
+  // Другие клиенты не шлют условных запросов: неизменную карточку узнаём по отпечатку
+  private ConditionalParse fetchAndParse(String url, HttpValidators previous) {
+    if (htmlFetcher == null) {
+      return parser.parseIfModified(url, previous);
+    }
+    String html = htmlFetcher.fetch(url);
+    HttpValidators fetched = HttpValidators.NONE.withContentHash(ProductFingerprint.of(html));
+    return previous.hasSameContent(fetched.contentHash()) ? ConditionalParse.notModified(fetched)
+        : ConditionalParse.modified(parser.parseFromHtml(url, html), fetched);
+  }
+
+  // HTML уже загружен неблокирующим этапом, здесь только разбор и сохранение
+  public Product parseFetchedProduct(String url, ConditionalHtml page) {
+    return parseAndSave(url, "parseFetchedProduct", previous(url),
+        previous -> parsePage(url, page, previous), NOT_CANCELLED);
+  }
+
+  // Этап разбора конвейера StagedParsePipeline: в БД не обращается, результат сохраняет
+  // saveParsed на своём пуле
+  public ConditionalParse parseFetched(String url, ConditionalHtml page) {
+    HttpValidators previous = previous(url);
+    try {
+      return parseDurationTimer.recordCallable(() -> parsePage(url, page, previous));
+    } catch (Exception e) {
+      logger.error("Ошибка при разборе страницы {}: {}", url, e.getMessage());
+      asyncLoggingService.logErrorAsync(url, e.getMessage());
+      parseErrorsCounter.increment();
+      throw new RuntimeException("Не удалось распарсить товар по URL: " + url, e);
+    }
+  }
+
+  // null: карточка не изменилась, обновлено только время парсинга
+  public Product saveParsed(String url, ConditionalParse parsed) {
+    TracedSpan span = tracer.start("saveParsed");
+    try {
+      span.setAttribute("url", url);
+      return save(url, parsed, previous -> fetchAndParse(url, previous), span, NOT_CANCELLED);
+    } catch (RuntimeException e) {
+      logger.error("Ошибка при сохранении товара {}: {}", url, e.getMessage());
+      asyncLoggingService.logErrorAsync(url, e.getMessage());
+      parseErrorsCounter.increment();
+      span.recordFailure(e);
+      throw new RuntimeException("Не удалось сохранить товар по URL: " + url, e);
+    } finally {
+      span.close();
+    }
+  }
+
+  private ConditionalParse parsePage(String url, ConditionalHtml page, HttpValidators previous) {
+    HttpValidators fetched = page.isNotModified() ? page.validators()
+        : page.validators().withContentHash(ProductFingerprint.of(page.html()));
+    return page.isNotModified() || previous.hasSameContent(fetched.contentHash())
+        ? ConditionalParse.notModified(fetched)
+        : ConditionalParse.modified(parser.parseFromHtml(url, page.html()), fetched);
+  }
+
+  private HttpValidators previous(String url) {
+    return validatorStore.get(url).withContentHash(fingerprintIndex.get(url));
+  }
+
+  private Product parseAndSave(String url, String operation, HttpValidators previous,
+      Function<HttpValidators, ConditionalParse> parse, BooleanSupplier cancelled) {
     String threadName = Thread.currentThread().getName();
     logger.info("[{}] Начало парсинга URL: {}", threadName, url);
 
-    Span span = tracer.spanBuilder("parseProduct").setAttribute("url", url).startSpan();
+    TracedSpan span = tracer.start(operation);
 
-    try (Scope scope = span.makeCurrent()) {
+    try {
+      span.setAttribute("url", url);
       return parseDurationTimer.recordCallable(() -> {
         try {
-          Product product = parser.parse(url);
-          logger.debug("[{}] Товар распарсен: title={}, price={}", threadName, product.getTitle(),
-              product.getPrice());
-
-          Span dbSpan = tracer.spanBuilder("db.findByUrl").setAttribute("url", url).startSpan();
-          Product existing;
-          try (Scope dbScope = dbSpan.makeCurrent()) {
-            existing = productRepository.findByUrl(url).orElse(null);
-          } finally {
-            dbSpan.end();
-          }
-
-          Span saveSpan = tracer.spanBuilder("db.save")
-              .setAttribute("product.title", product.getTitle() != null ? product.getTitle() : "")
-              .startSpan();
-          try (Scope saveScope = saveSpan.makeCurrent()) {
-            if (existing != null) {
-              product.setId(existing.getId());
-              product.setCreatedAt(existing.getCreatedAt());
-              product = productRepository.save(product);
-              logger.info("[{}] Товар обновлён: {}", threadName, product.getTitle());
-              asyncLoggingService.logProductAsync(url, product.getTitle(), product.getPrice());
-            } else {
-              product = productRepository.save(product);
-              logger.info("[{}] Товар сохранён: {}", threadName, product.getTitle());
-              asyncLoggingService.logProductAsync(url, product.getTitle(), product.getPrice());
-            }
-          } finally {
-            saveSpan.end();
-          }
-
-          parseSuccessCounter.increment();
-          productsSavedCounter.increment();
-          span.setAttribute("product.title", product.getTitle());
-          span.setAttribute("product.price",
-              product.getPrice() != null ? product.getPrice().toString() : "0");
-          return product;
-
+          return save(url, parse.apply(previous), parse, span, cancelled);
+        } catch (CancellationException e) {
+          throw e;
         } catch (Exception e) {
           logger.error("[{}] Ошибка при парсинге URL {}: {}", threadName, url, e.getMessage(), e);
           asyncLoggingService.logErrorAsync(url, e.getMessage());
           parseErrorsCounter.increment();
-          span.recordException(e);
-          span.setStatus(io.opentelemetry.api.trace.StatusCode.ERROR, e.getMessage());
+          span.recordFailure(e);
           throw new RuntimeException("Не удалось распарсить товар по URL: " + url, e);
         }
       });
+    } catch (CancellationException e) {
+      logger.info("[{}] Парсинг отменён, товар не сохранён: {}", threadName, url);
+      throw e;
     } catch (Exception e) {
       logger.error("[{}] Ошибка при измерении времени парсинга URL {}: {}", threadName, url,
           e.getMessage(), e);
       parseErrorsCounter.increment();
-      span.recordException(e);
-      span.setStatus(io.opentelemetry.api.trace.StatusCode.ERROR, e.getMessage());
+      span.recordFailure(e);
       throw new RuntimeException("Не удалось распарсить товар по URL: " + url, e);
     } finally {
-      span.end();
+      span.close();
     }
   }
 
+  // refetch загружает страницу заново, если по неизменной карточке товара в БД не оказалось
+  private Product save(String url, ConditionalParse parsed,
+      Function<HttpValidators, ConditionalParse> refetch, TracedSpan span,
+      BooleanSupplier cancelled) {
+    String threadName = Thread.currentThread().getName();
+    ConditionalParse result = parsed;
+    checkNotCancelled(url, cancelled);
+    if (result.isNotModified()) {
+      if (touchUnchanged(url, result.validators())) {
+        parseSuccessCounter.increment();
+        span.setAttribute("parse.skipped", "not_modified");
+        return null;
+      }
+      // Валидаторы есть, а товара в БД нет: забываем их и загружаем страницу целиком
+      validatorStore.forget(url);
+      fingerprintIndex.remove(url);
+      result = refetch.apply(HttpValidators.NONE);
+      if (result.isNotModified()) {
+        throw new RuntimeException("Страница не изменилась, но товара нет в БД");
+      }
+    }
+
+    Product product = result.product();
+    product.setContentFingerprint(result.validators().contentHash());
+    logger.debug("[{}] Товар распарсен: title={}, price={}", threadName, product.getTitle(),
+        product.getPrice());
+
+    checkNotCancelled(url, cancelled);
+    Product existing;
+    TracedSpan findSpan = tracer.start("db.findByUrl");
+    try {
+      existing = productRepository.findByUrl(url).orElse(null);
+    } finally {
+      findSpan.close();
+    }
+
+    TracedSpan saveSpan = tracer.start("db.save")
+        .setDetailAttribute("product.title",
+            product.getTitle() != null ? product.getTitle() : "");
+    try {
+      if (existing != null) {
+        product.setId(existing.getId());
+        product.setCreatedAt(existing.getCreatedAt());
+        product = productRepository.save(product);
+        logger.info("[{}] Товар обновлён: {}", threadName, product.getTitle());
+        asyncLoggingService.logProductAsync(url, product.getTitle(), product.getPrice());
+      } else {
+        product = productRepository.save(product);
+        logger.info("[{}] Товар сохранён: {}", threadName, product.getTitle());
+        asyncLoggingService.logProductAsync(url, product.getTitle(), product.getPrice());
+      }
+    } finally {
+      saveSpan.close();
+    }
+
+    validatorStore.recordModified(url, result.validators());
+    fingerprintIndex.put(url, product.getContentFingerprint());
+    parseSuccessCounter.increment();
+    productsSavedCounter.increment();
+    span.setDetailAttribute("product.title", product.getTitle());
+    span.setAttribute("product.price",
+        product.getPrice() != null ? product.getPrice().toString() : "0");
+    return product;
+  }
+
+  private static void checkNotCancelled(String url, BooleanSupplier cancelled) {
+    if (cancelled.getAsBoolean()) {
+      throw new CancellationException("Парсинг отменён до сохранения: " + url);
+    }
+  }
+
+  private boolean touchUnchanged(String url, HttpValidators validators) {
+    TracedSpan touchSpan = tracer.start("db.touchParsedAt");
+    try {
+      if (productRepository.touchParsedAt(url, LocalDateTime.now()) == 0) {
+        return false;
+      }
+    } finally {
+      touchSpan.close();
+    }
+    validatorStore.recordNotModified(url, validators);
+    logger.info("[{}] Страница не изменилась, обновлено только время парсинга: {}",
+        Thread.currentThread().getName(), url);
+    return true;
+  }
+
   public List<CompletableFuture<Product>> parseProductsAsync(List<String> urls) {
     logger.info("Запуск параллельного парсинга {} URL", urls.size());
     return urls.stream().map(this::parseProductAsync).toList();
   }
 
-  public List<Product> parseProducts(List<String> urls) {
-    logger.info("Запуск параллельного парсинга {} URL", urls.size());
-    List<CompletableFuture<Product>> futures = parseProductsAsync(urls);
+  // Результаты в порядке готовности, а не в порядке URL: медленная страница не задерживает
+  // остальные, и список целиком в памяти не копится
+  public Flux<ParseOutcome> parseProductsStream(List<String> urls) {
+    return parseProductsStream(urls, streamMaxInFlight, urlTimeout);
+  }
 
-    CompletableFuture<Void> allFutures =
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  // В работе не больше maxInFlight URL, следующий берётся, как только освободилось место.
+  // URL дольше timeout прерывается и считается ошибкой
+  public Flux<ParseOutcome> parseProductsStream(List<String> urls, int maxInFlight,
+      Duration timeout) {
+    logger.info("Потоковый парсинг {} URL: одновременно до {}, таймаут {} с", urls.size(),
+        maxInFlight, timeout.toSeconds());
+    return Flux.fromIterable(urls).flatMap(url -> parseWithTimeout(url, timeout)
+        .map(product -> new ParseOutcome(url, product, null))
+        .defaultIfEmpty(new ParseOutcome(url, null, null))
+        .onErrorResume(error -> {
+          logger.error("Ошибка при получении результата парсинга: {}", error.getMessage());
+          return Mono.just(new ParseOutcome(url, null, error));
+        }), maxInFlight);
+  }
 
-    return allFutures.thenApply(v -> futures.stream().map(future -> {
-      try {
-        return future.join();
-      } catch (Exception e) {
-        logger.error("Ошибка при получении результата парсинга: {}", e.getMessage());
-        return null;
-      }
-    }).filter(product -> product != null).toList()).join();
+  // По таймауту поток задачи прерывается, а место в потоке освобождается, только когда она
+  // действительно закончилась: иначе следующий URL начался бы, пока прерванный ещё держит поток
+  // пула и разрешения хоста
+  private Mono<Product> parseWithTimeout(String url, Duration timeout) {
+    return Mono.defer(() -> {
+      ParseTask task = new ParseTask();
+      task.submit(executorService, () -> parseProduct(url));
+      return Mono.fromFuture(task, true).timeout(timeout, Mono.defer(() -> {
+        if (task.interrupt()) {
+          // Задача ещё ждала в очереди пула и уже не запустится
+          parseErrorsCounter.increment();
+        }
+        // Успевший сохраниться товар отдаётся, иначе ошибка таймаута
+        return Mono.fromFuture(task, true).onErrorMap(error -> new RuntimeException(
+            "Превышено время парсинга " + timeout.toMillis() + " мс по URL: " + url, error));
+      }));
+    });
+  }
+
+  public List<Product> parseProducts(List<String> urls) {
+    logger.info("Запуск параллельного парсинга {} URL", urls.size());
+    return parseProductsStream(urls).mapNotNull(ParseOutcome::product).collectList().block();
   }
 
   public int parseProductsBatch(List<String> urls) {
     logger.info("Обработка батча из {} URL", urls.size());
-    List<CompletableFuture<Product>> futures = parseProductsAsync(urls);
+    // null означает, что карточка не изменилась: это тоже успешная обработка
+    Long successCount = parseProductsStream(urls).filter(ParseOutcome::isSuccess).count().block();
+    int result = successCount != null ? successCount.intValue() : 0;
+
+    logger.info("Батч обработан: успешно {}/{}", result, urls.size());
+    return result;
+  }
 
-    CompletableFuture<Void> allFutures =
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  // Задача на пуле, которую можно остановить: cancel у CompletableFuture из supplyAsync поток не
+  // трогает. Будущее завершается, только когда задача действительно закончилась
+  private static final class ParseTask extends CompletableFuture<Product> {
 
-    int successCount = allFutures.thenApply(v -> {
-      int count = 0;
-      for (CompletableFuture<Product> future : futures) {
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile Future<?> future;
+    private volatile boolean cancelRequested;
+
+    void submit(ExecutorService executor, Supplier<Product> parse) {
+      future = executor.submit(() -> {
+        if (!claimed.compareAndSet(false, true)) {
+          return;
+        }
         try {
-          Product product = future.join();
-          if (product != null) {
-            count++;
+          Product product = parse.get();
+          if (cancelRequested) {
+            super.cancel(false);
+          } else {
+            complete(product);
+          }
+        } catch (RuntimeException e) {
+          if (cancelRequested) {
+            super.cancel(false);
+          } else {
+            completeExceptionally(e);
           }
-        } catch (Exception e) {
-          logger.error("Ошибка при получении результата парсинга: {}", e.getMessage());
         }
+      });
+    }
+
+    boolean isCancelRequested() {
+      return cancelRequested;
+    }
+
+    // true, если задача ещё не начиналась и уже не начнётся; начатой прерывается поток
+    boolean interrupt() {
+      if (claimed.compareAndSet(false, true)) {
+        completeExceptionally(new CancellationException());
+        return true;
+      }
+      future.cancel(true);
+      return false;
+    }
+
+    // Начатая задача дорабатывает без сохранения товара и тогда завершается отменой
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      cancelRequested = true;
+      if (claimed.compareAndSet(false, true)) {
+        return super.cancel(mayInterruptIfRunning);
+      }
+      if (mayInterruptIfRunning) {
+        future.cancel(true);
       }
-      return count;
-    }).join();
+      return false;
+    }
 
-    logger.info("Батч обработан: успешно {}/{}", successCount, urls.size());
-    return successCount;
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+      return new CompletableFuture<>();
+    }
+  }
+
+  // Итог по одному URL: без товара и без ошибки — карточка не изменилась с прошлой загрузки
+  public record ParseOutcome(String url, Product product, Throwable error) {
+
+    public boolean isSuccess() {
+      return error == null;
+    }
   }
 }
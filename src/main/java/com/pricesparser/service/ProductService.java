@@ -61,7 +61,7 @@ public class ProductService {
     return products.stream().map(this::toResponse).collect(Collectors.toList());
   }
 
-  private ProductResponse toResponse(Product product) {
+  public ProductResponse toResponse(Product product) {
     return new ProductResponse(product.getId(), product.getUrl(), product.getTitle(),
         product.getPrice(), product.getDescription(), product.getParsedAt(),
         product.getCreatedAt());
@@ -0,0 +1,193 @@
+package com.pricesparser.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.service.WebClientService.ConditionalHtml;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Загрузка страниц идёт на event loop через {@link WebClientService#fetchHtml}, разбор и
+ * сохранение на CPU-пуле. Между этапами ограниченный буфер: когда разбор не успевает, буфер
+ * заполняется и новые загрузки не начинаются.
+ */
+@Service
+public class ReactiveFetchPipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveFetchPipeline.class);
+
+  private final WebClientService webClientService;
+  private final ProductParseService productParseService;
+  private final PageValidatorStore validatorStore;
+  private final Scheduler parseScheduler;
+  private final int fetchConcurrency;
+  private final int bufferSize;
+  private final int parseConcurrency;
+
+  private final Stage fetchStage;
+  private final Stage bufferStage;
+  private final Stage parseStage;
+
+  public ReactiveFetchPipeline(WebClientService webClientService,
+      ProductParseService productParseService, PageValidatorStore validatorStore,
+      ExecutorService productCpuParseExecutor,
+      MeterRegistry meterRegistry,
+      @Value("${parser.pipeline.fetch-concurrency:32}") int fetchConcurrency,
+      @Value("${parser.pipeline.buffer-size:64}") int bufferSize,
+      @Value("${parser.pipeline.parse-threads:0}") int parseThreads) {
+    this.webClientService = webClientService;
+    this.productParseService = productParseService;
+    this.validatorStore = validatorStore;
+    this.parseScheduler = Schedulers.fromExecutorService(productCpuParseExecutor, "cpu-parse");
+    this.fetchConcurrency = fetchConcurrency;
+    this.bufferSize = bufferSize;
+    this.parseConcurrency =
+        parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+
+    this.fetchStage = new Stage("fetch", this.fetchConcurrency, meterRegistry);
+    this.bufferStage = new Stage("buffer", this.bufferSize, meterRegistry);
+    this.parseStage = new Stage("parse", this.parseConcurrency, meterRegistry);
+  }
+
+  public Flux<Product> parseProducts(List<String> urls) {
+    return run(urls).flatMap(Mono::justOrEmpty);
+  }
+
+  public int parseProductsBatch(List<String> urls) {
+    Integer successCount = parseProductsBatchAsync(urls).block();
+    return successCount != null ? successCount : 0;
+  }
+
+  // Неизменившиеся карточки тоже успешно обработаны, хотя товар по ним не возвращается
+  public Mono<Integer> parseProductsBatchAsync(List<String> urls) {
+    logger.info("Обработка батча из {} URL через конвейер", urls.size());
+    return run(urls).count().map(Long::intValue).doOnNext(result -> logger
+        .info("Батч обработан конвейером: успешно {}/{}", result, urls.size()));
+  }
+
+  // По элементу на каждый успешно обработанный URL сразу по готовности; пустой Optional —
+  // карточка не изменилась, URL с ошибкой элемента не дают
+  public Flux<Optional<Product>> parseProductsStream(List<String> urls) {
+    return run(urls);
+  }
+
+  private Flux<Optional<Product>> run(List<String> urls) {
+    logger.info("Запуск конвейера для {} URL: загрузка {}, буфер {}, разбор {}", urls.size(),
+        fetchConcurrency, bufferSize, parseConcurrency);
+
+    return Flux.fromIterable(urls).flatMap(this::fetch, fetchConcurrency)
+        .doOnNext(page -> bufferStage.inFlight.incrementAndGet())
+        // limitRate держит не больше bufferSize загруженных страниц в ожидании разбора
+        .limitRate(bufferSize).flatMap(this::parse, parseConcurrency);
+  }
+
+  private Mono<FetchedPage> fetch(String url) {
+    return Mono.defer(() -> {
+      fetchStage.inFlight.incrementAndGet();
+      long start = System.nanoTime();
+      return webClientService.fetchHtmlIfModified(url, validatorStore.get(url))
+          .switchIfEmpty(Mono.error(() -> new RuntimeException("HTML пустой или null")))
+          .map(page -> new FetchedPage(url, page, System.nanoTime()))
+          // doFinally сработал бы уже после того, как flatMap запросил следующий URL
+          .doOnSuccess(page -> {
+            fetchStage.inFlight.decrementAndGet();
+            fetchStage.success(start);
+          }).doOnError(error -> {
+            fetchStage.inFlight.decrementAndGet();
+            fetchStage.error(start);
+          }).doOnCancel(fetchStage.inFlight::decrementAndGet)
+          .onErrorResume(error -> {
+            logger.error("Не удалось загрузить URL {}: {}", url, error.getMessage());
+            return Mono.empty();
+          });
+    });
+  }
+
+  private Mono<Optional<Product>> parse(FetchedPage page) {
+    bufferStage.inFlight.decrementAndGet();
+    bufferStage.success(page.fetchedAtNanos());
+    return Mono.fromCallable(() -> {
+      parseStage.inFlight.incrementAndGet();
+      long start = System.nanoTime();
+      try {
+        Product product = productParseService.parseFetchedProduct(page.url(), page.page());
+        if (product == null) {
+          parseStage.unchanged(start);
+        } else {
+          parseStage.success(start);
+        }
+        return Optional.ofNullable(product);
+      } catch (RuntimeException e) {
+        parseStage.error(start);
+        throw e;
+      } finally {
+        parseStage.inFlight.decrementAndGet();
+      }
+    }).subscribeOn(parseScheduler).onErrorResume(error -> Mono.empty());
+  }
+
+  private record FetchedPage(String url, ConditionalHtml page, long fetchedAtNanos) {
+  }
+
+  private static final class Stage {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer duration;
+    private final Counter successes;
+    private final Counter unchanged;
+    private final Counter errors;
+
+    Stage(String name, int capacity, MeterRegistry meterRegistry) {
+      Gauge.builder("parse_pipeline_stage_in_flight", inFlight, AtomicInteger::get)
+          .description("Items currently held by a parse pipeline stage").tag("stage", name)
+          .register(meterRegistry);
+      Gauge.builder("parse_pipeline_stage_capacity", () -> capacity)
+          .description("Configured concurrency or buffer size of a parse pipeline stage")
+          .tag("stage", name).register(meterRegistry);
+      this.duration = Timer.builder("parse_pipeline_stage_duration_seconds")
+          .description("Service time of a parse pipeline stage").tag("stage", name)
+          .register(meterRegistry);
+      this.successes = Counter.builder("parse_pipeline_stage_items_total")
+          .description("Items completed by a parse pipeline stage").tag("stage", name)
+          .tag("outcome", "success").register(meterRegistry);
+      this.unchanged = Counter.builder("parse_pipeline_stage_items_total")
+          .description("Items completed by a parse pipeline stage").tag("stage", name)
+          .tag("outcome", "unchanged").register(meterRegistry);
+      this.errors = Counter.builder("parse_pipeline_stage_items_total")
+          .description("Items completed by a parse pipeline stage").tag("stage", name)
+          .tag("outcome", "error").register(meterRegistry);
+    }
+
+    void success(long startNanos) {
+      duration.record(Duration.ofNanos(System.nanoTime() - startNanos));
+      successes.increment();
+    }
+
+    void unchanged(long startNanos) {
+      duration.record(Duration.ofNanos(System.nanoTime() - startNanos));
+      unchanged.increment();
+    }
+
+    void error(long startNanos) {
+      duration.record(Duration.ofNanos(System.nanoTime() - startNanos));
+      errors.increment();
+    }
+  }
+}
@@ -9,8 +9,10 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.pricesparser.client.HtmlFetcher;
+
 @Service
-public class RestTemplateService {
+public class RestTemplateService implements HtmlFetcher {
 
   private static final Logger logger = LoggerFactory.getLogger(RestTemplateService.class);
 
@@ -20,6 +22,16 @@ public class RestTemplateService {
     this.restTemplate = restTemplate;
   }
 
+  @Override
+  public String name() {
+    return "resttemplate";
+  }
+
+  @Override
+  public String fetch(String url) {
+    return fetchHtml(url);
+  }
+
   public String fetchHtml(String url) {
     logger.debug("Загрузка HTML через RestTemplate с URL: {}", url);
 
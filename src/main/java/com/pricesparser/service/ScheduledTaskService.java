@@ -1,17 +1,31 @@
 package com.pricesparser.service;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.pricesparser.model.Product;
+
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
 
+/**
+ * Раздаёт URL на парсинг с той скоростью, которую {@link PolitenessScheduler} разрешает для
+ * каждого хоста. Общее число URL в работе ограничено {@code parser.politeness.max-in-flight}.
+ * Раздача начинается после {@link StartupWarmup}, чтобы первые запросы не платили за DNS, TLS и
+ * холодный JIT.
+ */
 @Service
 public class ScheduledTaskService implements CommandLineRunner {
 
@@ -19,21 +33,41 @@ public class ScheduledTaskService implements CommandLineRunner {
 
   private final ProductParseService productParseService;
   private final ProductLinksLoaderService linksLoaderService;
+  private final ReactiveFetchPipeline fetchPipeline;
+  private final StagedParsePipeline stagedPipeline;
+  private final PolitenessScheduler politenessScheduler;
+  private final StartupWarmup startupWarmup;
+  private final String fetchMode;
+  private final int maxInFlight;
 
   private List<String> allUrls = new ArrayList<>();
-  private final AtomicInteger currentIndex = new AtomicInteger(0);
-  private static final int BATCH_SIZE = 2;
-  private static final long DELAY_BETWEEN_BATCHES_MS = 10000;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger processed = new AtomicInteger();
+  private final AtomicInteger succeeded = new AtomicInteger();
+  private final AtomicBoolean completionLogged = new AtomicBoolean();
+  private final AtomicBoolean firstSuccessLogged = new AtomicBoolean();
 
   public ScheduledTaskService(ProductParseService productParseService,
-      ProductLinksLoaderService linksLoaderService) {
+      ProductLinksLoaderService linksLoaderService, ReactiveFetchPipeline fetchPipeline,
+      StagedParsePipeline stagedPipeline,
+      PolitenessScheduler politenessScheduler, StartupWarmup startupWarmup,
+      @Value("${parser.fetch.mode:reactive}") String fetchMode,
+      @Value("${parser.politeness.max-in-flight:32}") int maxInFlight) {
     this.productParseService = productParseService;
     this.linksLoaderService = linksLoaderService;
+    this.fetchPipeline = fetchPipeline;
+    this.stagedPipeline = stagedPipeline;
+    this.politenessScheduler = politenessScheduler;
+    this.startupWarmup = startupWarmup;
+    this.fetchMode = fetchMode.toLowerCase(Locale.ROOT);
+    this.maxInFlight = maxInFlight;
   }
 
   @PostConstruct
   public void init() {
     allUrls = linksLoaderService.loadProductLinks();
+    politenessScheduler.submit(allUrls);
+    startupWarmup.start(allUrls);
     logger.info("Инициализировано {} URL для обработки", allUrls.size());
   }
 
@@ -41,31 +75,78 @@ public class ScheduledTaskService implements CommandLineRunner {
   public void run(String... args) throws Exception {
     logger.info("=== Автоматический парсинг товаров запущен ===");
     logger.info("Всего URL для обработки: {}", allUrls.size());
-    logger.info("Размер батча: {}, задержка между батчами: {} мс", BATCH_SIZE,
-        DELAY_BETWEEN_BATCHES_MS);
+    logger.info("Одновременно в работе до {} URL, скорость по хостам адаптивная, загрузка: {}",
+        maxInFlight, fetchMode);
   }
 
-  @Scheduled(fixedDelay = DELAY_BETWEEN_BATCHES_MS, initialDelay = 5000)
+  @Scheduled(fixedDelayString = "${parser.politeness.tick-ms:200}", initialDelay = 5000)
   public void scheduledParseTask() {
-    int startIndex = currentIndex.get();
-    if (startIndex >= allUrls.size()) {
-      logger.info("Все URL обработаны. Обработано: {}/{}", allUrls.size(), allUrls.size());
+    if (!startupWarmup.isComplete()) {
+      return;
+    }
+    int free = maxInFlight - inFlight.get();
+    List<String> ready = free > 0 ? politenessScheduler.pollReady(free) : List.of();
+    if (ready.isEmpty()) {
+      if (inFlight.get() == 0 && politenessScheduler.queuedCount() == 0
+          && completionLogged.compareAndSet(false, true)) {
+        logger.info("Все URL обработаны. Успешно: {}/{}", succeeded.get(), allUrls.size());
+      }
       return;
     }
 
-    int endIndex = Math.min(startIndex + BATCH_SIZE, allUrls.size());
-    List<String> batch = allUrls.subList(startIndex, endIndex);
-
-    logger.info("Обработка батча {}-{} из {}", startIndex + 1, endIndex, allUrls.size());
+    inFlight.addAndGet(ready.size());
+    logger.debug("В работу отдано {} URL, в очереди {}", ready.size(),
+        politenessScheduler.queuedCount());
 
     try {
-      int successCount = productParseService.parseProductsBatch(batch);
-      currentIndex.set(endIndex);
-      logger.info("Батч завершён. Успешно: {}/{}. Прогресс: {}/{}", successCount, batch.size(),
-          endIndex, allUrls.size());
+      switch (fetchMode) {
+        case "reactive" -> completeStreamed(ready.size(), fetchPipeline.parseProductsStream(ready));
+        case "staged" -> completeEach(stagedPipeline.parseProductsAsync(ready));
+        default -> productParseService.parseProductsStream(ready)
+            .subscribe(outcome -> complete(1, outcome.isSuccess() ? 1 : 0));
+      }
     } catch (Exception e) {
       logger.error("Ошибка при обработке батча: {}", e.getMessage());
-      currentIndex.set(endIndex);
+      complete(ready.size(), 0);
+    }
+  }
+
+  // Все URL розданы и обработаны: для сквозных прогонов без сети
+  public boolean isFinished() {
+    return completionLogged.get();
+  }
+
+  public int succeededCount() {
+    return succeeded.get();
+  }
+
+  private void completeEach(List<CompletableFuture<Product>> futures) {
+    for (CompletableFuture<Product> future : futures) {
+      future.whenComplete((product, error) -> complete(1, error == null ? 1 : 0));
+    }
+  }
+
+  // Конвейер выдаёт только успешные URL: место каждого освобождается сразу, а упавшие
+  // засчитываются одним разом по завершении потока
+  private void completeStreamed(int count, Flux<?> successes) {
+    AtomicInteger remaining = new AtomicInteger(count);
+    successes.subscribe(item -> {
+      remaining.decrementAndGet();
+      complete(1, 1);
+    }, error -> {
+      logger.error("Ошибка при обработке батча: {}", error.getMessage());
+      complete(remaining.getAndSet(0), 0);
+    }, () -> complete(remaining.getAndSet(0), 0));
+  }
+
+  private void complete(int count, int successCount) {
+    inFlight.addAndGet(-count);
+    succeeded.addAndGet(successCount);
+    if (successCount > 0 && firstSuccessLogged.compareAndSet(false, true)) {
+      logger.info("Первый товар получен через {} мс после запуска JVM",
+          ManagementFactory.getRuntimeMXBean().getUptime());
     }
+    int done = processed.addAndGet(count);
+    logger.debug("Прогресс: {}/{}, успешно {}", done, allUrls.size(), succeeded.get());
   }
 }
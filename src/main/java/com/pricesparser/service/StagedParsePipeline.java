@@ -0,0 +1,268 @@
+package com.pricesparser.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.ConditionalParse;
+import com.pricesparser.service.WebClientService.ConditionalHtml;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Загрузка, разбор и сохранение на трёх отдельных пулах потоков с ограниченными очередями между
+ * ними. Поток этапа, которому некуда положить результат, ждёт места в очереди следующего этапа:
+ * медленная БД сначала заполняет очередь сохранения, затем останавливает разбор, а он — загрузку,
+ * и страницы не копятся в памяти.
+ */
+@Service
+public class StagedParsePipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(StagedParsePipeline.class);
+
+  private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(30);
+
+  private final WebClientService webClientService;
+  private final ProductParseService productParseService;
+  private final PageValidatorStore validatorStore;
+  private final Stage fetchStage;
+  private final Stage parseStage;
+  private final Stage persistStage;
+  private volatile boolean started;
+
+  public StagedParsePipeline(WebClientService webClientService,
+      ProductParseService productParseService, PageValidatorStore validatorStore,
+      MeterRegistry meterRegistry,
+      @Value("${parser.staged.fetch-workers:16}") int fetchWorkers,
+      @Value("${parser.staged.parse-workers:0}") int parseWorkers,
+      @Value("${parser.staged.persist-workers:2}") int persistWorkers,
+      @Value("${parser.staged.queue-capacity:32}") int queueCapacity) {
+    this.webClientService = webClientService;
+    this.productParseService = productParseService;
+    this.validatorStore = validatorStore;
+    this.persistStage = new Stage("persist", persistWorkers, queueCapacity, null, this::persist,
+        meterRegistry);
+    this.parseStage = new Stage("parse",
+        parseWorkers > 0 ? parseWorkers : Runtime.getRuntime().availableProcessors(),
+        queueCapacity, persistStage, this::parse, meterRegistry);
+    this.fetchStage = new Stage("fetch", fetchWorkers, queueCapacity, parseStage, this::fetch,
+        meterRegistry);
+  }
+
+  // Блокирует вызывающий поток, пока в очереди загрузки нет места; null в результате — карточка
+  // не изменилась
+  public List<CompletableFuture<Product>> parseProductsAsync(List<String> urls) {
+    startIfNeeded();
+    List<CompletableFuture<Product>> results = new ArrayList<>(urls.size());
+    for (String url : urls) {
+      Job job = new Job(url);
+      results.add(job.result);
+      try {
+        fetchStage.put(job);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        job.result.completeExceptionally(e);
+      }
+    }
+    return results;
+  }
+
+  @PreDestroy
+  public void stop() {
+    fetchStage.stop();
+    parseStage.stop();
+    persistStage.stop();
+  }
+
+  private synchronized void startIfNeeded() {
+    if (started) {
+      return;
+    }
+    persistStage.start();
+    parseStage.start();
+    fetchStage.start();
+    started = true;
+    logger.info("Поэтапный конвейер запущен: загрузка {}, разбор {}, сохранение {} потоков, "
+        + "очереди по {}", fetchStage.workers, parseStage.workers, persistStage.workers,
+        fetchStage.capacity);
+  }
+
+  private void fetch(Job job) {
+    ConditionalHtml page = webClientService
+        .fetchHtmlIfModified(job.url, validatorStore.get(job.url)).block(FETCH_TIMEOUT);
+    if (page == null) {
+      throw new RuntimeException("HTML пустой или null");
+    }
+    job.page = page;
+  }
+
+  private void parse(Job job) {
+    job.parsed = productParseService.parseFetched(job.url, job.page);
+    job.page = null;
+  }
+
+  private void persist(Job job) {
+    job.product = productParseService.saveParsed(job.url, job.parsed);
+  }
+
+  private static final class Job {
+
+    private final String url;
+    private final CompletableFuture<Product> result = new CompletableFuture<>();
+    private ConditionalHtml page;
+    private ConditionalParse parsed;
+    private Product product;
+    private long enqueuedAt;
+
+    Job(String url) {
+      this.url = url;
+    }
+  }
+
+  private static final class Stage {
+
+    private final String name;
+    private final int workers;
+    private final int capacity;
+    private final BlockingQueue<Job> queue;
+    private final Stage next;
+    private final Consumer<Job> handler;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private final Timer serviceTime;
+    private final Timer queueWait;
+    private final Counter successes;
+    private final Counter errors;
+
+    Stage(String name, int workers, int capacity, Stage next, Consumer<Job> handler,
+        MeterRegistry meterRegistry) {
+      this.name = name;
+      this.workers = workers;
+      this.capacity = capacity;
+      this.queue = new ArrayBlockingQueue<>(capacity);
+      this.next = next;
+      this.handler = handler;
+      Gauge.builder("staged_pipeline_queue_depth", queue, BlockingQueue::size)
+          .description("Items waiting in front of a staged pipeline stage").tag("stage", name)
+          .register(meterRegistry);
+      Gauge.builder("staged_pipeline_queue_capacity", () -> capacity)
+          .description("Capacity of the queue in front of a staged pipeline stage")
+          .tag("stage", name).register(meterRegistry);
+      Gauge.builder("staged_pipeline_workers", () -> workers)
+          .description("Worker threads of a staged pipeline stage").tag("stage", name)
+          .register(meterRegistry);
+      // Мгновенная загрузка; средняя за интервал — rate(busy_seconds_total) / workers
+      Gauge.builder("staged_pipeline_utilization", busy, value -> value.get() / (double) workers)
+          .description("Share of stage workers currently processing an item").tag("stage", name)
+          .register(meterRegistry);
+      FunctionCounter.builder("staged_pipeline_busy_seconds_total", busyNanos,
+          value -> value.get() / 1e9)
+          .description("Time stage workers spent processing items").tag("stage", name)
+          .register(meterRegistry);
+      FunctionCounter.builder("staged_pipeline_blocked_seconds_total", blockedNanos,
+          value -> value.get() / 1e9)
+          .description("Time stage workers waited for room in the next stage queue")
+          .tag("stage", name).register(meterRegistry);
+      this.serviceTime = Timer.builder("staged_pipeline_service_seconds")
+          .description("Time a staged pipeline stage spends on one item").tag("stage", name)
+          .register(meterRegistry);
+      this.queueWait = Timer.builder("staged_pipeline_queue_wait_seconds")
+          .description("Time an item waits in the queue of a staged pipeline stage")
+          .tag("stage", name).register(meterRegistry);
+      this.successes = Counter.builder("staged_pipeline_items_total")
+          .description("Items completed by a staged pipeline stage").tag("stage", name)
+          .tag("outcome", "success").register(meterRegistry);
+      this.errors = Counter.builder("staged_pipeline_items_total")
+          .description("Items completed by a staged pipeline stage").tag("stage", name)
+          .tag("outcome", "error").register(meterRegistry);
+    }
+
+    void put(Job job) throws InterruptedException {
+      job.enqueuedAt = System.nanoTime();
+      queue.put(job);
+    }
+
+    void start() {
+      for (int i = 1; i <= workers; i++) {
+        threads.add(Thread.ofPlatform().name("staged-" + name + "-" + i).daemon()
+            .start(this::work));
+      }
+    }
+
+    void stop() {
+      threads.forEach(Thread::interrupt);
+    }
+
+    private void work() {
+      while (!Thread.currentThread().isInterrupted()) {
+        Job job;
+        try {
+          job = queue.take();
+        } catch (InterruptedException e) {
+          return;
+        }
+        long start = System.nanoTime();
+        queueWait.record(start - job.enqueuedAt, TimeUnit.NANOSECONDS);
+        busy.incrementAndGet();
+        RuntimeException failure = null;
+        try {
+          handler.accept(job);
+        } catch (RuntimeException e) {
+          logger.error("Этап {} не обработал URL {}: {}", name, job.url, e.getMessage());
+          failure = e;
+        } finally {
+          long elapsed = System.nanoTime() - start;
+          busy.decrementAndGet();
+          busyNanos.addAndGet(elapsed);
+          serviceTime.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        // Результат отдаётся после метрик, чтобы дождавшийся его видел их уже обновлёнными
+        if (failure != null) {
+          errors.increment();
+          job.result.completeExceptionally(failure);
+        } else {
+          successes.increment();
+          if (next == null) {
+            job.result.complete(job.product);
+          } else if (!forward(job)) {
+            return;
+          }
+        }
+      }
+    }
+
+    // Ожидание места в следующей очереди и есть обратное давление, в загрузку этапа оно не входит
+    private boolean forward(Job job) {
+      long start = System.nanoTime();
+      try {
+        next.put(job);
+        return true;
+      } catch (InterruptedException e) {
+        job.result.completeExceptionally(e);
+        return false;
+      } finally {
+        blockedNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+  }
+}
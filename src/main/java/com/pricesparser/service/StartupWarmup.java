@@ -0,0 +1,248 @@
+package com.pricesparser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.parser.ParseFailureCaptureStore;
+import com.pricesparser.parser.ProductFingerprint;
+import com.pricesparser.parser.StreamingProductExtractor;
+import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.util.AdaptiveTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Прогрев перед первой раздачей URL: DNS и соединения в пуле для каждого хоста из списка,
+ * затем разбор встроенных образцов страниц, чтобы C2 успел скомпилировать горячие пути
+ * извлечения. Для разбора используется отдельный экземпляр парсера без метрик и сохранения
+ * неудачных разборов, чтобы прогрев не попадал в статистику.
+ */
+@Service
+public class StartupWarmup {
+
+  private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+  private static final String CORPUS_PATTERN = "classpath*:benchmark/corpus/*.html";
+  private static final String URL_MARKER = "<!-- url: ";
+  private static final String DEFAULT_SAMPLE_URL = "https://pitergsm.ru/warmup";
+
+  public enum Phase {
+    PENDING, RUNNING, DONE
+  }
+
+  private record Sample(String url, String html) {
+  }
+
+  private final HttpClient httpClient;
+  private final UniversalProductParser parser;
+  private final StreamingProductExtractor streamingExtractor;
+  private final boolean enabled;
+  private final int connectionsPerHost;
+  private final int parseIterations;
+  private final Duration maxParseTime;
+  private final Duration networkTimeout;
+  private final Map<String, Object> details = new LinkedHashMap<>();
+  private volatile Phase phase = Phase.PENDING;
+
+  public StartupWarmup(HttpClient fetchHttpClient,
+      ExtractionProfileRegistry extractionProfileRegistry,
+      @Value("${parser.warmup.enabled:true}") boolean enabled,
+      @Value("${parser.warmup.connections-per-host:2}") int connectionsPerHost,
+      @Value("${parser.warmup.parse-iterations:300}") int parseIterations,
+      @Value("${parser.warmup.max-parse-seconds:20}") long maxParseSeconds,
+      @Value("${parser.warmup.network-timeout-seconds:10}") long networkTimeoutSeconds,
+      @Value("${parser.structured-data.enabled:true}") boolean structuredDataEnabled,
+      @Value("${parser.price-text-scan.max-chars:65536}") int priceTextScanMaxChars,
+      @Value("${parser.streaming.max-capture-chars:4000}") int maxCaptureChars) {
+    this.httpClient = fetchHttpClient;
+    this.parser = new UniversalProductParser(AdaptiveTracer.noop(), extractionProfileRegistry,
+        ParseFailureCaptureStore.disabled(), PageFetcher.standalone(), new SimpleMeterRegistry(),
+        structuredDataEnabled, priceTextScanMaxChars);
+    this.streamingExtractor = new StreamingProductExtractor(maxCaptureChars);
+    this.enabled = enabled;
+    this.connectionsPerHost = connectionsPerHost;
+    this.parseIterations = parseIterations;
+    this.maxParseTime = Duration.ofSeconds(maxParseSeconds);
+    this.networkTimeout = Duration.ofSeconds(networkTimeoutSeconds);
+  }
+
+  // Прогрев идёт в отдельном потоке, раздача URL ждёт его окончания через isComplete
+  public void start(List<String> urls) {
+    if (!enabled) {
+      detail("enabled", false);
+      phase = Phase.DONE;
+      return;
+    }
+    phase = Phase.RUNNING;
+    Thread.ofPlatform().name("startup-warmup").daemon().start(() -> run(urls));
+  }
+
+  public Phase phase() {
+    return phase;
+  }
+
+  public boolean isComplete() {
+    return phase == Phase.DONE;
+  }
+
+  public synchronized Map<String, Object> details() {
+    return new LinkedHashMap<>(details);
+  }
+
+  void run(List<String> urls) {
+    long start = System.nanoTime();
+    logger.info("Прогрев перед парсингом: {} URL", urls.size());
+    try {
+      httpClient.warmup().block(networkTimeout);
+      List<String> origins = resolveHosts(urls);
+      openConnections(origins);
+      warmParser();
+    } catch (RuntimeException e) {
+      logger.warn("Прогрев прерван: {}", e.getMessage());
+      detail("error", e.getMessage());
+    } finally {
+      long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+      detail("durationMs", elapsedMs);
+      phase = Phase.DONE;
+      logger.info("Прогрев завершён за {} мс: {}", elapsedMs, details());
+    }
+  }
+
+  // Возвращает адреса вида https://host/ для хостов, имя которых удалось разрешить
+  private List<String> resolveHosts(List<String> urls) {
+    Set<String> origins = new LinkedHashSet<>();
+    for (String url : urls) {
+      try {
+        URI uri = URI.create(url);
+        if (uri.getHost() != null) {
+          origins.add(uri.getScheme() + "://" + uri.getRawAuthority() + "/");
+        }
+      } catch (IllegalArgumentException e) {
+        logger.debug("Некорректный URL пропущен при прогреве: {}", url);
+      }
+    }
+    List<String> resolved = new ArrayList<>();
+    List<String> failed = new ArrayList<>();
+    for (String origin : origins) {
+      String host = URI.create(origin).getHost();
+      try {
+        InetAddress.getAllByName(host);
+        resolved.add(origin);
+      } catch (UnknownHostException e) {
+        failed.add(host);
+        logger.warn("Прогрев: не удалось разрешить хост {}", host);
+      }
+    }
+    detail("hosts", origins.size());
+    detail("hostsResolved", resolved.size());
+    if (!failed.isEmpty()) {
+      detail("hostsUnresolved", failed);
+    }
+    return resolved;
+  }
+
+  // Одновременные HEAD открывают несколько соединений; после ответа они остаются в пуле
+  private void openConnections(List<String> origins) {
+    if (connectionsPerHost <= 0 || origins.isEmpty()) {
+      return;
+    }
+    Long opened = Flux.fromIterable(origins)
+        .flatMap(origin -> Flux.range(0, connectionsPerHost)
+            .flatMap(i -> httpClient.head().uri(origin).response().timeout(networkTimeout)
+                .map(response -> 1).onErrorResume(error -> {
+                  logger.debug("Прогрев соединения с {} не удался: {}", origin,
+                      error.getMessage());
+                  return Mono.empty();
+                })))
+        .count().block(networkTimeout.multipliedBy(2));
+    detail("connectionsOpened", opened != null ? opened : 0);
+  }
+
+  private void warmParser() {
+    List<Sample> samples = usableSamples(loadSamples());
+    if (samples.isEmpty()) {
+      detail("parseIterations", 0);
+      return;
+    }
+    long deadline = System.nanoTime() + maxParseTime.toNanos();
+    int iterations = 0;
+    while (iterations < parseIterations && System.nanoTime() < deadline) {
+      for (Sample sample : samples) {
+        parseSample(sample);
+      }
+      iterations++;
+    }
+    detail("parseSamples", samples.size());
+    detail("parseIterations", iterations);
+  }
+
+  // Страницы, которые не разбираются, в цикле только засоряли бы лог предупреждениями
+  private List<Sample> usableSamples(List<Sample> samples) {
+    List<Sample> usable = new ArrayList<>();
+    for (Sample sample : samples) {
+      try {
+        Product product = parseSample(sample);
+        if (product != null && product.getPrice() != null && product.getPrice().signum() > 0) {
+          usable.add(sample);
+        }
+      } catch (RuntimeException e) {
+        logger.debug("Образец {} не используется для прогрева: {}", sample.url(),
+            e.getMessage());
+      }
+    }
+    return usable;
+  }
+
+  private Product parseSample(Sample sample) {
+    byte[] bytes = sample.html().getBytes(StandardCharsets.UTF_8);
+    ProductFingerprint.of(bytes);
+    streamingExtractor.newRegionDetector().feed(bytes, 0, bytes.length);
+    return parser.parseFromHtml(sample.url(), sample.html());
+  }
+
+  private List<Sample> loadSamples() {
+    List<Sample> samples = new ArrayList<>();
+    try {
+      for (Resource resource : new PathMatchingResourcePatternResolver()
+          .getResources(CORPUS_PATTERN)) {
+        try (InputStream in = resource.getInputStream()) {
+          String html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+          String url = html.startsWith(URL_MARKER)
+              ? html.substring(URL_MARKER.length(), html.indexOf(" -->")) : DEFAULT_SAMPLE_URL;
+          samples.add(new Sample(url, html));
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Не удалось загрузить образцы страниц для прогрева: {}", e.getMessage());
+    }
+    return samples;
+  }
+
+  private synchronized void detail(String key, Object value) {
+    details.put(key, value);
+  }
+}
@@ -1,51 +1,135 @@
 package com.pricesparser.service;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.pricesparser.client.HtmlFetcher;
+import com.pricesparser.parser.FetchBudget;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.util.HedgePolicy;
+import com.pricesparser.util.HostCircuitBreaker;
+import com.pricesparser.util.HostConcurrencyLimiter;
+import com.pricesparser.util.HostRateLimiter;
+
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 @Service
-public class WebClientService {
+public class WebClientService implements HtmlFetcher {
 
   private static final Logger logger = LoggerFactory.getLogger(WebClientService.class);
 
   private final WebClient webClient;
+  private final FetchBudget fetchBudget;
+  private final HostCircuitBreaker circuitBreaker;
+  private final HostRateLimiter hostRateLimiter;
+  private final HedgePolicy hedgePolicy;
 
-  private static final String USER_AGENT =
-      "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
   private static final Duration TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+  private static final int MAX_RETRIES = 2;
 
-  public WebClientService() {
-    this.webClient = WebClient.builder().defaultHeader("User-Agent", USER_AGENT)
-        .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)).build();
+  public WebClientService(WebClient webClient, FetchBudget fetchBudget,
+      HostCircuitBreaker hostCircuitBreaker, HostRateLimiter hostRateLimiter,
+      HedgePolicy hedgePolicy) {
+    this.webClient = webClient;
+    this.fetchBudget = fetchBudget;
+    this.circuitBreaker = hostCircuitBreaker;
+    this.hostRateLimiter = hostRateLimiter;
+    this.hedgePolicy = hedgePolicy;
   }
 
   public Mono<String> fetchHtml(String url) {
     logger.debug("Загрузка HTML с URL: {}", url);
 
-    return webClient.get().uri(url).retrieve().bodyToMono(String.class).timeout(TIMEOUT)
-        .retryWhen(Retry.fixedDelay(2, Duration.ofSeconds(1)).filter(throwable -> {
-          if (throwable instanceof WebClientResponseException e) {
-            return e.getStatusCode().is5xxServerError();
-          }
-          return throwable instanceof java.util.concurrent.TimeoutException;
-        }).doBeforeRetry(
-            retrySignal -> logger.warn("Повторная попытка загрузки URL: {} (попытка {})", url,
-                retrySignal.totalRetries() + 1)))
+    return withRetry(url, webClient.get().uri(url).retrieve().bodyToMono(String.class))
         .doOnSuccess(html -> {
           if (html != null && !html.isEmpty()) {
             logger.debug("Успешно загружен HTML с URL: {} (размер: {} байт)", url, html.length());
           } else {
             logger.warn("HTML пустой или null для URL: {}", url);
           }
-        }).doOnError(error -> {
+        });
+  }
+
+  // Условный запрос: при 304 тело не читается, html в ответе null
+  public Mono<ConditionalHtml> fetchHtmlIfModified(String url, HttpValidators previous) {
+    logger.debug("Условная загрузка HTML с URL: {}", url);
+
+    Mono<ConditionalHtml> request = webClient.get().uri(url)
+        .headers(headers -> previous.conditionalHeaders().forEach(headers::set))
+        .exchangeToMono(response -> {
+          HttpHeaders headers = response.headers().asHttpHeaders();
+          String etag = headers.getFirst(HttpHeaders.ETAG);
+          String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+          if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            return response.releaseBody().thenReturn(
+                new ConditionalHtml(null, previous.revalidated(etag, lastModified)));
+          }
+          if (response.statusCode().isError()) {
+            return response.createException().flatMap(Mono::error);
+          }
+          return readWithinBudget(url, response)
+              .map(html -> new ConditionalHtml(html, new HttpValidators(etag, lastModified, 0)));
+        });
+    return withRetry(url, request);
+  }
+
+  // Чанки тела идут в FetchBudget, пока он не скажет остановиться; отмена остатка тела
+  // закрывает соединение, и недочитанная часть страницы не загружается
+  private Mono<String> readWithinBudget(String url, ClientResponse response) {
+    HttpHeaders headers = response.headers().asHttpHeaders();
+    Charset charset = response.headers().contentType().map(MediaType::getCharset)
+        .orElse(StandardCharsets.UTF_8);
+    long declaredLength = FetchBudget.declaredLength(headers.getFirst(HttpHeaders.CONTENT_LENGTH),
+        headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    return Mono.defer(() -> {
+      FetchBudget.BodyRead read = fetchBudget.start(url);
+      return response.bodyToFlux(DataBuffer.class).map(WebClientService::toBytes)
+          .takeUntil(chunk -> !read.accept(chunk))
+          .then(Mono.fromSupplier(() -> new String(read.finish(declaredLength), charset)));
+    });
+  }
+
+  private static byte[] toBytes(DataBuffer buffer) {
+    try {
+      byte[] bytes = new byte[buffer.readableByteCount()];
+      buffer.read(bytes);
+      return bytes;
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+
+  private <T> Mono<T> withRetry(String url, Mono<T> request) {
+    String host = HostConcurrencyLimiter.hostOf(url);
+    return guarded(host, hedged(host, request).timeout(TIMEOUT))
+        .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+          Duration delay = retryDelay(host, signal);
+          if (delay == null) {
+            return Mono.error(signal.failure());
+          }
+          logger.warn("Повторная попытка загрузки URL: {} через {} мс (попытка {})", url,
+              delay.toMillis(), signal.totalRetries() + 1);
+          return Mono.delay(delay);
+        })))
+        .doOnError(error -> {
           if (error instanceof WebClientResponseException e) {
             logger.error("Ошибка HTTP при загрузке URL {}: статус {}, сообщение: {}", url,
                 e.getStatusCode(), e.getMessage());
@@ -55,6 +139,109 @@ public class WebClientService {
         });
   }
 
+  // Повтор не раньше конца паузы, которую хост попросил в Retry-After на 429 или 503; если пауза
+  // длиннее таймаута запроса, повтора нет и запрос завершается исходной ошибкой
+  private Duration retryDelay(String host, Retry.RetrySignal signal) {
+    if (signal.totalRetries() >= MAX_RETRIES || !isRetryable(signal.failure())) {
+      return null;
+    }
+    Duration pause = hostRateLimiter.pauseRemaining(host);
+    if (pause.compareTo(TIMEOUT) > 0) {
+      return null;
+    }
+    return pause.compareTo(RETRY_DELAY) > 0 ? pause : RETRY_DELAY;
+  }
+
+  private static boolean isRetryable(Throwable error) {
+    if (error instanceof WebClientResponseException e) {
+      return e.getStatusCode().is5xxServerError();
+    }
+    return error instanceof TimeoutException;
+  }
+
+  // Разомкнутый предохранитель отклоняет запрос сразу, такая ошибка не повторяется
+  private <T> Mono<T> guarded(String host, Mono<T> request) {
+    return Mono.defer(() -> {
+      if (!circuitBreaker.tryAcquire(host)) {
+        return Mono.error(new RuntimeException(
+            "Хост " + host + " временно отключён из-за частых ошибок"));
+      }
+      return request.doOnSuccess(value -> circuitBreaker.onSuccess(host))
+          .doOnError(error -> {
+            if (isHostFailure(error)) {
+              circuitBreaker.onFailure(host);
+            } else {
+              circuitBreaker.onSuccess(host);
+            }
+          }).doOnCancel(() -> circuitBreaker.release(host));
+    });
+  }
+
+  // 4xx кроме 429 говорит об адресе, а не о состоянии хоста
+  private static boolean isHostFailure(Throwable error) {
+    if (error instanceof WebClientResponseException e) {
+      return e.getStatusCode().is5xxServerError()
+          || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+    return error instanceof WebClientRequestException || error instanceof TimeoutException;
+  }
+
+  // Если ответа нет дольше обычного для хоста p95, уходит второй такой же запрос; берётся
+  // ответ, пришедший первым, проигравший отменяется. Дубль — лишний запрос к и так медленному
+  // хосту, поэтому он берёт токен у лимитера скорости и не уходит, если хост приторможен
+  private <T> Mono<T> hedged(String host, Mono<T> request) {
+    return Mono.defer(() -> {
+      Duration delay = hedgePolicy.hedgeDelay(host);
+      if (delay == null || circuitBreaker.state(host) != HostCircuitBreaker.State.CLOSED) {
+        return timed(host, request);
+      }
+      long start = System.nanoTime();
+      AtomicBoolean hedgeSent = new AtomicBoolean();
+      Mono<Attempt<T>> primary = request.map(value -> new Attempt<>(value, false));
+      // Ошибка дубля не должна обрывать ещё живой основной запрос
+      Mono<Attempt<T>> hedge = Mono.delay(delay).flatMap(tick -> {
+        if (!hostRateLimiter.tryAcquire(host)) {
+          logger.debug("Хост {} не ответил за {} мс, но лимит скорости не пускает дубль", host,
+              delay.toMillis());
+          return Mono.<Attempt<T>>never();
+        }
+        hedgeSent.set(true);
+        logger.debug("Хост {} не ответил за {} мс, отправлен дублирующий запрос", host,
+            delay.toMillis());
+        return request.map(value -> new Attempt<>(value, true));
+      }).onErrorResume(error -> Mono.never());
+      // Время победителя считается от старта основного запроса, иначе выигравший дубль
+      // занижал бы p95 хоста
+      return Mono.firstWithSignal(primary, hedge).doOnNext(attempt -> {
+        hedgePolicy.recordLatency(host, System.nanoTime() - start);
+        if (hedgeSent.get()) {
+          hedgePolicy.recordHedged(host, attempt.hedge());
+        }
+      }).map(Attempt::value);
+    });
+  }
+
+  private <T> Mono<T> timed(String host, Mono<T> request) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return request.doOnSuccess(
+          value -> hedgePolicy.recordLatency(host, System.nanoTime() - start));
+    });
+  }
+
+  private record Attempt<T>(T value, boolean hedge) {
+  }
+
+  @Override
+  public String name() {
+    return "webclient";
+  }
+
+  @Override
+  public String fetch(String url) {
+    return fetchHtmlBlocking(url);
+  }
+
   public String fetchHtmlBlocking(String url) {
     try {
       String html = fetchHtml(url).block(Duration.ofSeconds(15));
@@ -68,4 +255,11 @@ public class WebClientService {
       throw new RuntimeException("Не удалось загрузить страницу: " + e.getMessage(), e);
     }
   }
+
+  public record ConditionalHtml(String html, HttpValidators validators) {
+
+    public boolean isNotModified() {
+      return html == null;
+    }
+  }
 }
@@ -0,0 +1,314 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Внешний {@link #start} открывает грубый корневой спан и решает, станут ли вложенные этапы
+ * настоящими спанами. Иначе этапы только запоминают время и при ошибке или медленном парсинге
+ * восстанавливаются задним числом с атрибутом {@code trace.escalated}. Детальными бывают только
+ * трассы, корень которых попал в выборку: под отброшенным корнем спаны этапов некуда выгрузить.
+ */
+public class AdaptiveTracer {
+
+  public enum Level {
+    COARSE, SAMPLED, FULL;
+
+    public static Level from(String value) {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  public static final AttributeKey<Boolean> ESCALATED = AttributeKey.booleanKey("trace.escalated");
+  public static final AttributeKey<String> ESCALATION_REASON =
+      AttributeKey.stringKey("trace.escalation.reason");
+
+  private static final ContextKey<Operation> OPERATION = ContextKey.named("parse-operation");
+  private static final ContextKey<StageRecord> STAGE = ContextKey.named("parse-stage");
+
+  private final Tracer tracer;
+  private final Level level;
+  private final double detailRatio;
+  private final long slowThresholdNanos;
+
+  public AdaptiveTracer(OpenTelemetry openTelemetry, Level level, double detailRatio,
+      Duration slowThreshold) {
+    this.tracer = openTelemetry.getTracer("com.pricesparser", "1.0.0");
+    this.level = level;
+    this.detailRatio = detailRatio;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+  }
+
+  public static AdaptiveTracer noop() {
+    return new AdaptiveTracer(OpenTelemetry.noop(), Level.COARSE, 0, Duration.ofMinutes(1));
+  }
+
+  public TracedSpan start(String name) {
+    Operation operation = Context.current().get(OPERATION);
+    if (operation == null) {
+      return new Operation(name);
+    }
+    if (operation.detailed) {
+      return new DetailSpan(tracer.spanBuilder(name).startSpan());
+    }
+    return operation.record(name);
+  }
+
+  private boolean isDetailed(Span root) {
+    if (!root.getSpanContext().isSampled()) {
+      return false;
+    }
+    return switch (level) {
+      case FULL -> true;
+      case SAMPLED -> ThreadLocalRandom.current().nextDouble() < detailRatio;
+      case COARSE -> false;
+    };
+  }
+
+  public interface TracedSpan extends AutoCloseable {
+
+    TracedSpan setAttribute(String key, String value);
+
+    TracedSpan setAttribute(String key, long value);
+
+    // Попадает только в детальные и эскалированные трассы (полные названия и т.п.)
+    TracedSpan setDetailAttribute(String key, String value);
+
+    void recordFailure(Throwable e);
+
+    @Override
+    void close();
+  }
+
+  private final class Operation implements TracedSpan {
+
+    private final String name;
+    private final boolean detailed;
+    private final Span span;
+    private final Scope scope;
+    private final long startNanoTime = System.nanoTime();
+    private final long startEpochNanos;
+    private final List<StageRecord> stages;
+    private AttributesBuilder detailAttributes;
+    private Throwable failure;
+
+    Operation(String name) {
+      Instant now = Instant.now();
+      this.name = name;
+      this.startEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+      this.span = tracer.spanBuilder(name).setStartTimestamp(now).startSpan();
+      this.detailed = isDetailed(span);
+      this.stages = detailed ? List.of() : new ArrayList<>();
+      this.scope = Context.current().with(span).with(OPERATION, this).makeCurrent();
+    }
+
+    synchronized StageRecord record(String stageName) {
+      StageRecord stage = new StageRecord(this, stageName, Context.current().get(STAGE));
+      stages.add(stage);
+      return stage;
+    }
+
+    long epochNanos() {
+      return startEpochNanos + (System.nanoTime() - startNanoTime);
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, String value) {
+      span.setAttribute(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, long value) {
+      span.setAttribute(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setDetailAttribute(String key, String value) {
+      if (detailed) {
+        span.setAttribute(key, value);
+      } else {
+        if (detailAttributes == null) {
+          detailAttributes = Attributes.builder();
+        }
+        detailAttributes.put(key, value);
+      }
+      return this;
+    }
+
+    @Override
+    public void recordFailure(Throwable e) {
+      failure = e;
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR, String.valueOf(e.getMessage()));
+    }
+
+    @Override
+    public void close() {
+      scope.close();
+      long endEpochNanos = epochNanos();
+      if (!detailed) {
+        String reason = failure != null ? "error"
+            : endEpochNanos - startEpochNanos >= slowThresholdNanos ? "slow" : null;
+        if (reason != null) {
+          escalate(reason, endEpochNanos);
+        }
+      }
+      span.end(endEpochNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void escalate(String reason, long endEpochNanos) {
+      Span root = span;
+      if (!span.isRecording()) {
+        // Корень не попал в выборку: восстанавливаем трассу отдельным корнем, его пропустит
+        // EscalationSampler
+        root = tracer.spanBuilder(name).setNoParent()
+            .setStartTimestamp(startEpochNanos, TimeUnit.NANOSECONDS).setAttribute(ESCALATED, true)
+            .startSpan();
+        if (failure != null) {
+          root.recordException(failure);
+          root.setStatus(StatusCode.ERROR, String.valueOf(failure.getMessage()));
+        }
+      }
+      root.setAttribute(ESCALATED, true);
+      root.setAttribute(ESCALATION_REASON, reason);
+      if (detailAttributes != null) {
+        root.setAllAttributes(detailAttributes.build());
+      }
+
+      for (StageRecord stage : stages) {
+        Span parent = stage.parent != null && stage.parent.replayed != null ? stage.parent.replayed
+            : root;
+        Span replayed = tracer.spanBuilder(stage.name).setParent(Context.root().with(parent))
+            .setStartTimestamp(stage.startEpochNanos, TimeUnit.NANOSECONDS)
+            .setAttribute(ESCALATED, true).startSpan();
+        if (stage.attributes != null) {
+          replayed.setAllAttributes(stage.attributes.build());
+        }
+        if (stage.failure != null) {
+          replayed.recordException(stage.failure);
+          replayed.setStatus(StatusCode.ERROR, String.valueOf(stage.failure.getMessage()));
+        }
+        stage.replayed = replayed;
+        replayed.end(stage.endEpochNanos > 0 ? stage.endEpochNanos : endEpochNanos,
+            TimeUnit.NANOSECONDS);
+      }
+      if (root != span) {
+        root.end(endEpochNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private static final class StageRecord implements TracedSpan {
+
+    private final Operation operation;
+    private final String name;
+    private final StageRecord parent;
+    private final long startEpochNanos;
+    private final Scope scope;
+    private long endEpochNanos;
+    private AttributesBuilder attributes;
+    private Throwable failure;
+    private Span replayed;
+
+    StageRecord(Operation operation, String name, StageRecord parent) {
+      this.operation = operation;
+      this.name = name;
+      this.parent = parent;
+      this.startEpochNanos = operation.epochNanos();
+      this.scope = Context.current().with(STAGE, this).makeCurrent();
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, String value) {
+      attributes().put(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, long value) {
+      attributes().put(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setDetailAttribute(String key, String value) {
+      return setAttribute(key, value);
+    }
+
+    private AttributesBuilder attributes() {
+      if (attributes == null) {
+        attributes = Attributes.builder();
+      }
+      return attributes;
+    }
+
+    @Override
+    public void recordFailure(Throwable e) {
+      failure = e;
+    }
+
+    @Override
+    public void close() {
+      scope.close();
+      endEpochNanos = operation.epochNanos();
+    }
+  }
+
+  private static final class DetailSpan implements TracedSpan {
+
+    private final Span span;
+    private final Scope scope;
+
+    DetailSpan(Span span) {
+      this.span = span;
+      this.scope = span.makeCurrent();
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, String value) {
+      span.setAttribute(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setAttribute(String key, long value) {
+      span.setAttribute(key, value);
+      return this;
+    }
+
+    @Override
+    public TracedSpan setDetailAttribute(String key, String value) {
+      return setAttribute(key, value);
+    }
+
+    @Override
+    public void recordFailure(Throwable e) {
+      span.recordException(e);
+      span.setStatus(StatusCode.ERROR, String.valueOf(e.getMessage()));
+    }
+
+    @Override
+    public void close() {
+      scope.close();
+      span.end();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.pricesparser.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Байты тела ответа по хостам: сколько пришло по сети и сколько получилось после распаковки.
+ * Отношение двух счётчиков показывает экономию трафика от сжатия.
+ */
+public class BandwidthMeter {
+
+  private final MeterRegistry meterRegistry;
+
+  public BandwidthMeter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static BandwidthMeter disabled() {
+    return new BandwidthMeter(new SimpleMeterRegistry());
+  }
+
+  public void record(String url, String encoding, long wireBytes, long decodedBytes) {
+    String host = HostConcurrencyLimiter.hostOf(url);
+    String contentEncoding = encoding != null ? encoding : "identity";
+    meterRegistry.counter("fetch_wire_bytes_total", "host", host, "encoding", contentEncoding)
+        .increment(wireBytes);
+    meterRegistry.counter("fetch_decoded_bytes_total", "host", host, "encoding", contentEncoding)
+        .increment(decodedBytes);
+  }
+}
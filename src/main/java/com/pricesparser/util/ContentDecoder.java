@@ -0,0 +1,99 @@
+package com.pricesparser.util;
+
+import java.util.Locale;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+/**
+ * Потоковая распаковка тела ответа по {@code Content-Encoding}: чанки декодируются по мере
+ * прихода, сжатое тело целиком нигде не накапливается. Поддерживаются gzip и deflate; brotli
+ * в Netty требует нативной библиотеки, поэтому не запрашивается.
+ */
+public final class ContentDecoder implements AutoCloseable {
+
+  public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final String encoding;
+  private final EmbeddedChannel channel;
+  private boolean started;
+
+  private ContentDecoder(String encoding, ZlibWrapper wrapper) {
+    this.encoding = encoding;
+    this.channel = new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(wrapper));
+  }
+
+  // null для тела без сжатия
+  public static ContentDecoder forEncoding(String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+    return switch (encoding) {
+      case "", "identity" -> null;
+      case "gzip", "x-gzip" -> new ContentDecoder("gzip", ZlibWrapper.GZIP);
+      // Серверы шлют deflate и с заголовком zlib, и без него
+      case "deflate", "x-deflate" -> new ContentDecoder("deflate", ZlibWrapper.ZLIB_OR_NONE);
+      default -> throw new RuntimeException("Неподдерживаемое сжатие ответа: " + contentEncoding);
+    };
+  }
+
+  public String encoding() {
+    return encoding;
+  }
+
+  public byte[] decode(byte[] chunk) {
+    if (chunk.length == 0) {
+      return EMPTY;
+    }
+    started = true;
+    channel.writeInbound(Unpooled.wrappedBuffer(chunk));
+    return drain();
+  }
+
+  // Пустое тело (304, HEAD) не является ошибкой формата
+  public byte[] finish() {
+    if (!started) {
+      return EMPTY;
+    }
+    channel.finish();
+    return drain();
+  }
+
+  @Override
+  public void close() {
+    channel.finishAndReleaseAll();
+  }
+
+  private byte[] drain() {
+    ByteBuf first = channel.readInbound();
+    if (first == null) {
+      return EMPTY;
+    }
+    ByteBuf next = channel.readInbound();
+    if (next == null) {
+      return toArray(first);
+    }
+    CompositeByteBuf all = Unpooled.compositeBuffer().addComponents(true, first, next);
+    while ((next = channel.readInbound()) != null) {
+      all.addComponent(true, next);
+    }
+    return toArray(all);
+  }
+
+  private static byte[] toArray(ByteBuf buffer) {
+    try {
+      byte[] bytes = new byte[buffer.readableBytes()];
+      buffer.readBytes(bytes);
+      return bytes;
+    } finally {
+      buffer.release();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.pricesparser.util;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Запрашивает сжатие у сервера и распаковывает тело ответа {@code WebClient} по чанкам через
+ * {@link ContentDecoder}, записывая байты до и после распаковки в {@link BandwidthMeter}.
+ */
+public class ContentDecodingFilter implements ExchangeFilterFunction {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final BandwidthMeter bandwidthMeter;
+
+  public ContentDecodingFilter(BandwidthMeter bandwidthMeter) {
+    this.bandwidthMeter = bandwidthMeter;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    ClientRequest compressed = ClientRequest.from(request).headers(headers -> {
+      if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+        headers.set(HttpHeaders.ACCEPT_ENCODING, ContentDecoder.ACCEPT_ENCODING);
+      }
+    }).build();
+    String url = request.url().toString();
+    return next.exchange(compressed).map(response -> decoded(url, response));
+  }
+
+  private ClientResponse decoded(String url, ClientResponse response) {
+    String encoding = response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    return response.mutate().headers(headers -> {
+      if (encoding != null) {
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+      }
+    }).body(body -> Flux.defer(() -> {
+      ContentDecoder decoder = ContentDecoder.forEncoding(encoding);
+      long[] wireAndDecoded = new long[2];
+      return body.map(buffer -> {
+        byte[] wire = toBytes(buffer);
+        wireAndDecoded[0] += wire.length;
+        return decoder != null ? decoder.decode(wire) : wire;
+      }).concatWith(Mono.fromSupplier(() -> decoder != null ? decoder.finish() : EMPTY))
+          .filter(chunk -> chunk.length > 0)
+          .doOnNext(chunk -> wireAndDecoded[1] += chunk.length)
+          .map(chunk -> (DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(chunk))
+          .doFinally(signal -> {
+            if (decoder != null) {
+              decoder.close();
+            }
+            bandwidthMeter.record(url, decoder != null ? decoder.encoding() : null,
+                wireAndDecoded[0], wireAndDecoded[1]);
+          });
+    })).build();
+  }
+
+  private static byte[] toBytes(DataBuffer buffer) {
+    try {
+      byte[] bytes = new byte[buffer.readableByteCount()];
+      buffer.read(bytes);
+      return bytes;
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+}
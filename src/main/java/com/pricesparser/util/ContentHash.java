@@ -0,0 +1,97 @@
+package com.pricesparser.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Быстрый некриптографический 64-битный хэш для сравнения версий страницы. {@code 0} не
+ * возвращается, он означает «хэш неизвестен».
+ */
+public final class ContentHash {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final long M1 = 0x87c37b91114253d5L;
+  private static final long M2 = 0x4cf5ad432745937fL;
+
+  private ContentHash() {
+  }
+
+  public static long hash64(byte[] data) {
+    return hash64(data, 0, data.length);
+  }
+
+  public static long hash64(byte[] data, int offset, int length) {
+    long h = length * M2;
+    int i = offset;
+    int end = offset + length;
+    for (; i + 8 <= end; i += 8) {
+      h = mix(h, (long) LONGS.get(data, i));
+    }
+    long tail = 0;
+    for (int shift = 0; i < end; i++, shift += 8) {
+      tail |= (data[i] & 0xFFL) << shift;
+    }
+    return finish(mix(h, tail));
+  }
+
+  public static long hash64(CharSequence text) {
+    return hash64(text, 0, text.length());
+  }
+
+  public static long hash64(CharSequence text, int from, int to) {
+    long h = (to - from) * M1;
+    int i = from;
+    for (; i + 4 <= to; i += 4) {
+      h = mix(h, text.charAt(i) | (long) text.charAt(i + 1) << 16
+          | (long) text.charAt(i + 2) << 32 | (long) text.charAt(i + 3) << 48);
+    }
+    long tail = 0;
+    for (int shift = 0; i < to; i++, shift += 16) {
+      tail |= (long) text.charAt(i) << shift;
+    }
+    return finish(mix(h, tail));
+  }
+
+  private static long mix(long h, long k) {
+    k *= M1;
+    k = Long.rotateLeft(k, 31);
+    k *= M2;
+    h ^= k;
+    return Long.rotateLeft(h, 27) * 5 + 0x52dce729;
+  }
+
+  private static long finish(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h != 0 ? h : 1;
+  }
+
+  // Побайтовый вариант для данных, которые нормализуются на лету и не лежат одним массивом
+  public static final class Accumulator {
+
+    private long h = M2;
+    private long word;
+    private int shift;
+    private long length;
+
+    public void add(int b) {
+      word |= (b & 0xFFL) << shift;
+      shift += 8;
+      length++;
+      if (shift == 64) {
+        h = mix(h, word);
+        word = 0;
+        shift = 0;
+      }
+    }
+
+    public long finish() {
+      return ContentHash.finish(mix(h, word) ^ length);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.pricesparser.util;
+
+import java.util.List;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+public class EscalationSampler implements Sampler {
+
+  private final Sampler delegate;
+  private final Sampler escalations;
+
+  public EscalationSampler(Sampler delegate, Sampler escalations) {
+    this.delegate = delegate;
+    this.escalations = escalations;
+  }
+
+  @Override
+  public SamplingResult shouldSample(Context parentContext, String traceId, String name,
+      SpanKind spanKind, Attributes attributes, List<LinkData> parentLinks) {
+    if (Boolean.TRUE.equals(attributes.get(AdaptiveTracer.ESCALATED))) {
+      return escalations.shouldSample(parentContext, traceId, name, spanKind, attributes,
+          parentLinks);
+    }
+    return delegate.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+  }
+
+  @Override
+  public String getDescription() {
+    return "EscalationSampler{" + delegate.getDescription() + ", escalations="
+        + escalations.getDescription() + "}";
+  }
+}
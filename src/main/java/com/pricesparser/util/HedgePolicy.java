@@ -0,0 +1,94 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Когда отправлять дублирующий запрос: по последним временам ответа хоста считается заданный
+ * перцентиль, и если первый запрос не ответил за это время, отправляется второй. Доля побед
+ * второго запроса показывает, окупается ли лишняя нагрузка на хост.
+ */
+public class HedgePolicy {
+
+  private final boolean enabled;
+  private final int windowSize;
+  private final int minSamples;
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long maxDelayNanos;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  public HedgePolicy(int windowSize, int minSamples, double percentile, Duration minDelay,
+      Duration maxDelay, MeterRegistry meterRegistry) {
+    this(true, windowSize, minSamples, percentile, minDelay, maxDelay, meterRegistry);
+  }
+
+  private HedgePolicy(boolean enabled, int windowSize, int minSamples, double percentile,
+      Duration minDelay, Duration maxDelay, MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.windowSize = Math.max(1, windowSize);
+    this.minSamples = Math.max(1, Math.min(minSamples, this.windowSize));
+    this.percentile = percentile;
+    this.minDelayNanos = minDelay.toNanos();
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static HedgePolicy disabled() {
+    return new HedgePolicy(false, 1, 1, 1, Duration.ZERO, Duration.ZERO,
+        new SimpleMeterRegistry());
+  }
+
+  public void recordLatency(String host, long latencyNanos) {
+    if (enabled) {
+      windows.computeIfAbsent(host, key -> new LatencyWindow()).add(latencyNanos);
+    }
+  }
+
+  // null — замеров по хосту ещё мало, дублировать запрос рано
+  public Duration hedgeDelay(String host) {
+    if (!enabled) {
+      return null;
+    }
+    LatencyWindow window = windows.get(host);
+    long quantile = window != null ? window.quantile() : -1;
+    if (quantile < 0) {
+      return null;
+    }
+    return Duration.ofNanos(Math.min(maxDelayNanos, Math.max(minDelayNanos, quantile)));
+  }
+
+  // Учитываются только запросы, по которым дубль действительно ушёл
+  public void recordHedged(String host, boolean hedgeWon) {
+    meterRegistry.counter("http_hedged_requests_total", "host", host, "winner",
+        hedgeWon ? "hedge" : "primary").increment();
+  }
+
+  private final class LatencyWindow {
+
+    private final long[] samples = new long[windowSize];
+    private int next;
+    private int count;
+
+    synchronized void add(long latencyNanos) {
+      samples[next] = latencyNanos;
+      next = (next + 1) % windowSize;
+      count = Math.min(count + 1, windowSize);
+    }
+
+    synchronized long quantile() {
+      if (count < minSamples) {
+        return -1;
+      }
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      return sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(percentile * count) - 1))];
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Предохранитель на каждый хост. По скользящему окну последних запросов считается доля ошибок;
+ * когда она превышает порог, запросы к хосту сразу отклоняются. После паузы пропускается
+ * несколько пробных запросов, и только их успех снова открывает хост.
+ */
+public class HostCircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(HostCircuitBreaker.class);
+
+  // Порядок задаёт значение метрики: 0 — закрыт, 1 — пробные запросы, 2 — разомкнут
+  public enum State {
+    CLOSED, HALF_OPEN, OPEN
+  }
+
+  private final boolean enabled;
+  private final int windowSize;
+  private final int minimumCalls;
+  private final double failureRateThreshold;
+  private final long openNanos;
+  private final int halfOpenProbes;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier clock;
+  private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+  public HostCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+      Duration openDuration, int halfOpenProbes, MeterRegistry meterRegistry) {
+    this(true, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenProbes,
+        meterRegistry, System::nanoTime);
+  }
+
+  HostCircuitBreaker(boolean enabled, int windowSize, int minimumCalls,
+      double failureRateThreshold, Duration openDuration, int halfOpenProbes,
+      MeterRegistry meterRegistry, LongSupplier clock) {
+    this.enabled = enabled;
+    this.windowSize = Math.max(1, windowSize);
+    this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+    this.failureRateThreshold = failureRateThreshold;
+    this.openNanos = openDuration.toNanos();
+    this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    this.meterRegistry = meterRegistry;
+    this.clock = clock;
+  }
+
+  public static HostCircuitBreaker disabled() {
+    return new HostCircuitBreaker(false, 1, 1, 1, Duration.ZERO, 1, new SimpleMeterRegistry(),
+        System::nanoTime);
+  }
+
+  // false — хост отключён, запрос делать не нужно
+  public boolean tryAcquire(String host) {
+    if (!enabled) {
+      return true;
+    }
+    Breaker breaker = breaker(host);
+    if (breaker.tryAcquire(clock.getAsLong())) {
+      return true;
+    }
+    meterRegistry.counter("http_circuit_breaker_rejected_total", "host", host).increment();
+    return false;
+  }
+
+  public void onSuccess(String host) {
+    if (enabled) {
+      breaker(host).record(false, clock.getAsLong());
+    }
+  }
+
+  public void onFailure(String host) {
+    if (enabled) {
+      breaker(host).record(true, clock.getAsLong());
+    }
+  }
+
+  // Запрос отменён без результата: пробный слот освобождается
+  public void release(String host) {
+    if (enabled) {
+      breaker(host).release();
+    }
+  }
+
+  public State state(String host) {
+    return enabled ? breaker(host).state : State.CLOSED;
+  }
+
+  private Breaker breaker(String host) {
+    return breakers.computeIfAbsent(host, key -> {
+      Breaker breaker = new Breaker(key);
+      Gauge.builder("http_circuit_breaker_state", breaker, b -> b.state.ordinal())
+          .description("Circuit breaker state of a host: 0 closed, 1 half-open, 2 open")
+          .tag("host", key).register(meterRegistry);
+      return breaker;
+    });
+  }
+
+  private final class Breaker {
+
+    private final String host;
+    private final boolean[] outcomes = new boolean[windowSize];
+    private volatile State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    Breaker(String host) {
+      this.host = host;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+      if (state == State.OPEN) {
+        if (now - openedAt < openNanos) {
+          return false;
+        }
+        transition(State.HALF_OPEN);
+        probesInFlight = 0;
+        probeSuccesses = 0;
+      }
+      if (state == State.HALF_OPEN) {
+        if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+          return false;
+        }
+        probesInFlight++;
+      }
+      return true;
+    }
+
+    synchronized void record(boolean failure, long now) {
+      switch (state) {
+        case HALF_OPEN -> {
+          probesInFlight = Math.max(0, probesInFlight - 1);
+          if (failure) {
+            open(now);
+          } else if (++probeSuccesses >= halfOpenProbes) {
+            reset();
+            transition(State.CLOSED);
+            logger.info("Хост {} снова доступен после пробных запросов", host);
+          }
+        }
+        case CLOSED -> {
+          if (calls == windowSize && outcomes[next]) {
+            failures--;
+          }
+          outcomes[next] = failure;
+          next = (next + 1) % windowSize;
+          calls = Math.min(calls + 1, windowSize);
+          if (failure) {
+            failures++;
+          }
+          if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            logger.warn("Хост {} отключён: {} ошибок из {} последних запросов", host, failures,
+                calls);
+            open(now);
+          }
+        }
+        // Ответы на запросы, начатые до размыкания, ничего не меняют
+        default -> {
+        }
+      }
+    }
+
+    synchronized void release() {
+      if (state == State.HALF_OPEN) {
+        probesInFlight = Math.max(0, probesInFlight - 1);
+      }
+    }
+
+    private void open(long now) {
+      openedAt = now;
+      reset();
+      transition(State.OPEN);
+    }
+
+    private void reset() {
+      next = 0;
+      calls = 0;
+      failures = 0;
+      Arrays.fill(outcomes, false);
+    }
+
+    private void transition(State target) {
+      state = target;
+      meterRegistry.counter("http_circuit_breaker_transitions_total", "host", host, "state",
+          target.name().toLowerCase(Locale.ROOT)).increment();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.pricesparser.util;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ограничивает число одновременных задач парсинга глобально и на каждый хост. Нужен для
+ * виртуальных потоков, где размер пула больше ничего не ограничивает.
+ */
+public class HostConcurrencyLimiter {
+
+  private final Semaphore global;
+  private final int perHostLimit;
+  private final Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  public HostConcurrencyLimiter(int globalLimit, int perHostLimit, MeterRegistry meterRegistry) {
+    this.global = globalLimit > 0 ? new Semaphore(globalLimit) : null;
+    this.perHostLimit = perHostLimit;
+    if (global != null) {
+      Gauge.builder("parse_concurrency_permits_in_use", global,
+          semaphore -> globalLimit - semaphore.availablePermits())
+          .description("Parse tasks holding a global concurrency permit")
+          .register(meterRegistry);
+    }
+    Gauge.builder("parse_concurrency_waiting", waiting, AtomicInteger::get)
+        .description("Parse tasks waiting for a global or per-host permit")
+        .register(meterRegistry);
+  }
+
+  public static HostConcurrencyLimiter unbounded() {
+    return new HostConcurrencyLimiter(0, 0, new SimpleMeterRegistry());
+  }
+
+  public <T> T call(String url, Supplier<T> task) {
+    Semaphore host = perHostLimit > 0
+        ? hosts.computeIfAbsent(hostOf(url), key -> new Semaphore(perHostLimit))
+        : null;
+    acquire(global);
+    try {
+      acquire(host);
+      try {
+        return task.get();
+      } finally {
+        release(host);
+      }
+    } finally {
+      release(global);
+    }
+  }
+
+  private void acquire(Semaphore semaphore) {
+    if (semaphore == null || semaphore.tryAcquire()) {
+      return;
+    }
+    waiting.incrementAndGet();
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Прервано ожидание разрешения на парсинг", e);
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private static void release(Semaphore semaphore) {
+    if (semaphore != null) {
+      semaphore.release();
+    }
+  }
+
+  public static String hostOf(String url) {
+    try {
+      String host = URI.create(url).getHost();
+      return host != null ? host.toLowerCase(Locale.ROOT) : "unknown";
+    } catch (IllegalArgumentException e) {
+      return "unknown";
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token bucket на каждый хост с AIMD: быстрые ответы 2xx аддитивно поднимают скорость, 429 и 503
+ * мультипликативно снижают её и на время {@code Retry-After} останавливают запросы к хосту.
+ */
+public class HostRateLimiter {
+
+  private static final Logger logger = LoggerFactory.getLogger(HostRateLimiter.class);
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final boolean enabled;
+  private final double initialRate;
+  private final double minRate;
+  private final double maxRate;
+  private final double increaseStep;
+  private final double decreaseFactor;
+  private final double burst;
+  private final long slowResponseNanos;
+  private final Duration maxRetryAfter;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier clock;
+  private final Map<String, HostBucket> buckets = new ConcurrentHashMap<>();
+
+  public HostRateLimiter(double initialRate, double minRate, double maxRate, double increaseStep,
+      double decreaseFactor, int burst, Duration slowResponse, Duration maxRetryAfter,
+      MeterRegistry meterRegistry) {
+    this(true, initialRate, minRate, maxRate, increaseStep, decreaseFactor, burst, slowResponse,
+        maxRetryAfter, meterRegistry, System::nanoTime);
+  }
+
+  HostRateLimiter(boolean enabled, double initialRate, double minRate, double maxRate,
+      double increaseStep, double decreaseFactor, int burst, Duration slowResponse,
+      Duration maxRetryAfter, MeterRegistry meterRegistry, LongSupplier clock) {
+    this.enabled = enabled;
+    this.initialRate = initialRate;
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.increaseStep = increaseStep;
+    this.decreaseFactor = decreaseFactor;
+    this.burst = Math.max(1, burst);
+    this.slowResponseNanos = slowResponse.toNanos();
+    this.maxRetryAfter = maxRetryAfter;
+    this.meterRegistry = meterRegistry;
+    this.clock = clock;
+  }
+
+  public static HostRateLimiter disabled() {
+    return new HostRateLimiter(false, 1, 1, 1, 0, 1, 1, Duration.ZERO, Duration.ZERO,
+        new SimpleMeterRegistry(), System::nanoTime);
+  }
+
+  public boolean tryAcquire(String host) {
+    return !enabled || bucket(host).tryAcquire(clock.getAsLong());
+  }
+
+  public double rate(String host) {
+    return bucket(host).rate;
+  }
+
+  // Сколько ещё хост просил не присылать запросы после 429 или 503
+  public Duration pauseRemaining(String host) {
+    if (!enabled) {
+      return Duration.ZERO;
+    }
+    return Duration.ofNanos(Math.max(0, bucket(host).pauseRemaining(clock.getAsLong())));
+  }
+
+  public void onResponse(String url, int status, long latencyNanos, String retryAfter) {
+    if (!enabled) {
+      return;
+    }
+    String host = HostConcurrencyLimiter.hostOf(url);
+    HostBucket bucket = bucket(host);
+    long now = clock.getAsLong();
+    if (status == 429 || status == 503) {
+      Duration pause = parseRetryAfter(retryAfter, Instant.now());
+      if (pause != null && pause.compareTo(maxRetryAfter) > 0) {
+        pause = maxRetryAfter;
+      }
+      double rate = bucket.decrease(now, pause);
+      meterRegistry.counter("politeness_throttled_total", "host", host, "status",
+          String.valueOf(status)).increment();
+      logger.warn("Хост {} ответил {}: скорость снижена до {} запр/с, пауза {}", host, status,
+          String.format("%.2f", rate), pause != null ? pause : "нет");
+    } else if (status >= 200 && status < 300 && latencyNanos < slowResponseNanos) {
+      bucket.increase();
+    }
+  }
+
+  private HostBucket bucket(String host) {
+    return buckets.computeIfAbsent(host, key -> {
+      HostBucket bucket = new HostBucket(clock.getAsLong());
+      Gauge.builder("politeness_host_rate", bucket, b -> b.rate)
+          .description("Current request rate allowed for a host, requests per second")
+          .tag("host", key).register(meterRegistry);
+      return bucket;
+    });
+  }
+
+  // Retry-After бывает числом секунд или HTTP-датой
+  static Duration parseRetryAfter(String value, Instant now) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    String trimmed = value.trim();
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+    } catch (NumberFormatException e) {
+      try {
+        Instant until =
+            ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        return until.isAfter(now) ? Duration.between(now, until) : Duration.ZERO;
+      } catch (DateTimeParseException ignored) {
+        logger.debug("Некорректный Retry-After: {}", value);
+        return null;
+      }
+    }
+  }
+
+  private final class HostBucket {
+
+    private volatile double rate = initialRate;
+    private double tokens = 1;
+    private long refilledAt;
+    private long blockedUntil;
+
+    HostBucket(long now) {
+      this.refilledAt = now;
+      this.blockedUntil = now;
+    }
+
+    synchronized boolean tryAcquire(long now) {
+      if (now - blockedUntil < 0) {
+        return false;
+      }
+      tokens = Math.min(burst, tokens + (now - refilledAt) * rate / NANOS_PER_SECOND);
+      refilledAt = now;
+      if (tokens < 1) {
+        return false;
+      }
+      tokens -= 1;
+      return true;
+    }
+
+    synchronized long pauseRemaining(long now) {
+      return blockedUntil - now;
+    }
+
+    synchronized void increase() {
+      rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    synchronized double decrease(long now, Duration pause) {
+      rate = Math.max(minRate, rate * decreaseFactor);
+      tokens = 0;
+      long pauseNanos = pause != null ? pause.toNanos() : (long) (NANOS_PER_SECOND / rate);
+      blockedUntil = now + pauseNanos;
+      refilledAt = blockedUntil;
+      return rate;
+    }
+  }
+}
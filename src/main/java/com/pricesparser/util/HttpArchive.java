@@ -0,0 +1,163 @@
+package com.pricesparser.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Архив записанных ответов для воспроизведения без сети: статус, заголовки и распакованное
+ * тело. Файл — один поток gzip с записями подряд; после каждой записи поток сбрасывается на
+ * диск, поэтому архив читается и после аварийной остановки записи.
+ */
+public final class HttpArchive {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpArchive.class);
+
+  private static final int MAGIC = 0x50504841;
+  private static final int VERSION = 1;
+
+  // Длина и сжатие тела меняются при воспроизведении, соединением управляет сервер
+  private static final Set<String> SKIPPED_HEADERS = Set.of("content-length",
+      "content-encoding", "transfer-encoding", "connection", "keep-alive", "set-cookie");
+
+  public record Entry(String url, int status, Map<String, String> headers, byte[] body) {
+  }
+
+  private final Map<String, Entry> entries;
+
+  private HttpArchive(Map<String, Entry> entries) {
+    this.entries = entries;
+  }
+
+  public static HttpArchive load(Path file) {
+    Map<String, Entry> entries = new LinkedHashMap<>();
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new RuntimeException("Файл не является архивом ответов: " + file);
+      }
+      while (true) {
+        Entry entry;
+        try {
+          entry = readEntry(in);
+        } catch (EOFException e) {
+          break;
+        }
+        // Повторная запись того же адреса заменяет старую
+        entries.put(key(entry.url()), entry);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Не удалось прочитать архив ответов " + file + ": "
+          + e.getMessage(), e);
+    }
+    logger.info("Загружено {} ответов из архива {}", entries.size(), file);
+    return new HttpArchive(entries);
+  }
+
+  // Адрес без схемы и хоста: воспроизводящий сервер отвечает на любом порту
+  public static String key(String url) {
+    URI uri = URI.create(url);
+    String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+    return uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+  }
+
+  public Entry get(String pathAndQuery) {
+    return entries.get(pathAndQuery);
+  }
+
+  public Collection<Entry> entries() {
+    return entries.values();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private static Entry readEntry(DataInputStream in) throws IOException {
+    String url = in.readUTF();
+    int status = in.readInt();
+    int headerCount = in.readUnsignedShort();
+    Map<String, String> headers = new LinkedHashMap<>();
+    for (int i = 0; i < headerCount; i++) {
+      headers.put(in.readUTF(), in.readUTF());
+    }
+    byte[] body = new byte[in.readInt()];
+    in.readFully(body);
+    return new Entry(url, status, headers, body);
+  }
+
+  public static final class Writer implements AutoCloseable {
+
+    private final Path file;
+    private final DataOutputStream out;
+    private int written;
+
+    public Writer(Path file) {
+      this.file = file;
+      try {
+        if (file.getParent() != null) {
+          Files.createDirectories(file.getParent());
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(
+            new GZIPOutputStream(Files.newOutputStream(file), true)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+      } catch (IOException e) {
+        throw new RuntimeException("Не удалось создать архив ответов " + file + ": "
+            + e.getMessage(), e);
+      }
+      logger.info("Запись ответов в архив {}", file);
+    }
+
+    public synchronized void append(Entry entry) {
+      try {
+        out.writeUTF(entry.url());
+        out.writeInt(entry.status());
+        Map<String, String> headers = new LinkedHashMap<>();
+        entry.headers().forEach((name, value) -> {
+          if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+            headers.put(name, value);
+          }
+        });
+        out.writeShort(headers.size());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+          out.writeUTF(header.getKey());
+          out.writeUTF(header.getValue());
+        }
+        out.writeInt(entry.body().length);
+        out.write(entry.body());
+        out.flush();
+        written++;
+      } catch (IOException e) {
+        logger.error("Не удалось записать ответ {} в архив: {}", entry.url(), e.getMessage());
+      }
+    }
+
+    @Override
+    public synchronized void close() {
+      try {
+        out.close();
+        logger.info("Архив ответов {} закрыт, записей: {}", file, written);
+      } catch (IOException e) {
+        logger.error("Не удалось закрыть архив ответов {}: {}", file, e.getMessage());
+      }
+    }
+  }
+}
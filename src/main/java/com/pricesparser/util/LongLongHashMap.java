@@ -0,0 +1,133 @@
+package com.pricesparser.util;
+
+import java.util.Arrays;
+
+/**
+ * Хэш-таблица {@code long -> long} с открытой адресацией без упаковки в {@code Long} и без
+ * объектов-записей: два массива и линейное пробирование. Ключ {@code 0} и значение {@code 0}
+ * зарезервированы под «нет записи». Не потокобезопасна.
+ */
+public final class LongLongHashMap {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private long[] values;
+  private int mask;
+  private int size;
+
+  public LongLongHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  // 0, если ключа нет
+  public long get(long key) {
+    checkKey(key);
+    for (int i = slot(key); ; i = i + 1 & mask) {
+      long current = keys[i];
+      if (current == key) {
+        return values[i];
+      }
+      if (current == 0) {
+        return 0;
+      }
+    }
+  }
+
+  // value = 0 удаляет ключ
+  public void put(long key, long value) {
+    checkKey(key);
+    if (value == 0) {
+      remove(key);
+      return;
+    }
+    int i = slot(key);
+    while (keys[i] != 0 && keys[i] != key) {
+      i = i + 1 & mask;
+    }
+    if (keys[i] == 0) {
+      keys[i] = key;
+      if (++size > keys.length / 2) {
+        values[i] = value;
+        resize(keys.length * 2);
+        return;
+      }
+    }
+    values[i] = value;
+  }
+
+  public void remove(long key) {
+    checkKey(key);
+    int i = slot(key);
+    while (keys[i] != key) {
+      if (keys[i] == 0) {
+        return;
+      }
+      i = i + 1 & mask;
+    }
+    size--;
+    // Сдвигаем следующие записи цепочки на освободившееся место, чтобы поиск не оборвался на дыре
+    int gap = i;
+    for (int j = gap + 1 & mask; keys[j] != 0; j = j + 1 & mask) {
+      int home = slot(keys[j]);
+      if ((j - home & mask) >= (j - gap & mask)) {
+        keys[gap] = keys[j];
+        values[gap] = values[j];
+        gap = j;
+      }
+    }
+    keys[gap] = 0;
+    values[gap] = 0;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0);
+    Arrays.fill(values, 0);
+    size = 0;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int j = slot(oldKeys[i]);
+        while (keys[j] != 0) {
+          j = j + 1 & mask;
+        }
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  private int slot(long key) {
+    long h = key * 0x9e3779b97f4a7c15L;
+    return (int) (h ^ h >>> 32) & mask;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2L) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static void checkKey(long key) {
+    if (key == 0) {
+      throw new RuntimeException("Ключ 0 зарезервирован под пустую ячейку");
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.pricesparser.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+
+/**
+ * {@link ReactorNettyClientRequestFactory}, ответы которого не закрывают соединение из общего
+ * пула. В Spring 6.1.1 {@code close()} ответа всегда вызывает {@code Connection.dispose()}, а к
+ * этому моменту прочитанный ответ уже вернул соединение в пул: dispose закрывает его под чужим
+ * запросом, и тот падает с {@code PrematureCloseException}. Здесь {@code close()} дочитывает и
+ * освобождает тело, а соединение остаётся Reactor Netty: целое уходит в пул, оборванное он
+ * закрывает сам.
+ */
+public class PooledConnectionRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+  public PooledConnectionRequestFactory(ReactorNettyClientRequestFactory requestFactory) {
+    super(requestFactory);
+  }
+
+  @Override
+  protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod,
+      ClientHttpRequestFactory requestFactory) throws IOException {
+    return new PooledRequest(requestFactory.createRequest(uri, httpMethod));
+  }
+
+  private static final class PooledRequest implements ClientHttpRequest {
+
+    private final ClientHttpRequest delegate;
+
+    PooledRequest(ClientHttpRequest delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+      return delegate.getMethod();
+    }
+
+    @Override
+    public URI getURI() {
+      return delegate.getURI();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public OutputStream getBody() throws IOException {
+      return delegate.getBody();
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      return new PooledResponse(delegate.execute());
+    }
+  }
+
+  private static final class PooledResponse implements ClientHttpResponse {
+
+    private final ClientHttpResponse delegate;
+
+    PooledResponse(ClientHttpResponse delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return delegate.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return delegate.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return delegate.getBody();
+    }
+
+    // Тело запоминается в ответе: если его уже прочитали, getBody вернёт тот же поток
+    @Override
+    public void close() {
+      try {
+        delegate.getBody().close();
+      } catch (IOException | RuntimeException e) {
+        // Тела нет (204, 304) или чтение оборвалось: соединение уже отпущено или закрыто
+      }
+    }
+  }
+}
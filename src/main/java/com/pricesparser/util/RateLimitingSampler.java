@@ -0,0 +1,44 @@
+package com.pricesparser.util;
+
+import java.util.List;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+public class RateLimitingSampler implements Sampler {
+
+  private final double maxPerSecond;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+
+  public RateLimitingSampler(double maxPerSecond) {
+    this.maxPerSecond = maxPerSecond;
+    this.tokens = maxPerSecond;
+  }
+
+  @Override
+  public SamplingResult shouldSample(Context parentContext, String traceId, String name,
+      SpanKind spanKind, Attributes attributes, List<LinkData> parentLinks) {
+    return tryAcquire() ? SamplingResult.recordAndSample() : SamplingResult.drop();
+  }
+
+  private synchronized boolean tryAcquire() {
+    long now = System.nanoTime();
+    tokens = Math.min(maxPerSecond, tokens + (now - lastRefillNanos) * maxPerSecond / 1e9);
+    lastRefillNanos = now;
+    if (tokens < 1) {
+      return false;
+    }
+    tokens--;
+    return true;
+  }
+
+  @Override
+  public String getDescription() {
+    return "RateLimitingSampler{" + maxPerSecond + "/s}";
+  }
+}
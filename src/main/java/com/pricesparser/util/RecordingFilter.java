@@ -0,0 +1,79 @@
+package com.pricesparser.util;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Режим записи для {@code WebClient}: каждый ответ читается целиком и добавляется в
+ * {@link HttpArchive}, а дальше отдаётся из памяти. Ранний обрыв загрузки при записи поэтому
+ * экономит только разбор, зато в архив попадает полная страница.
+ */
+public class RecordingFilter implements ExchangeFilterFunction, AutoCloseable {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final HttpArchive.Writer writer;
+
+  private RecordingFilter(HttpArchive.Writer writer) {
+    this.writer = writer;
+  }
+
+  public static RecordingFilter to(Path archive) {
+    return new RecordingFilter(new HttpArchive.Writer(archive));
+  }
+
+  public static RecordingFilter disabled() {
+    return new RecordingFilter(null);
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (writer == null) {
+      return next.exchange(request);
+    }
+    String url = request.url().toString();
+    return next.exchange(request).flatMap(response -> {
+      // На 304 тела нет, записывать нечего
+      if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+        return Mono.just(response);
+      }
+      return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class)).map(buffer -> {
+        try {
+          byte[] bytes = new byte[buffer.readableByteCount()];
+          buffer.read(bytes);
+          return bytes;
+        } finally {
+          DataBufferUtils.release(buffer);
+        }
+      }).defaultIfEmpty(EMPTY).map(body -> {
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().asHttpHeaders().forEach(
+            (name, values) -> headers.put(name, String.join(", ", values)));
+        writer.append(new HttpArchive.Entry(url, response.statusCode().value(), headers, body));
+        // Исходное тело уже прочитано: подменяем его, а не освобождаем повторно
+        return response.mutate().body(consumed -> Flux.defer(() -> Flux.just(
+            (DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(body)))).build();
+      });
+    });
+  }
+
+  @Override
+  public void close() {
+    if (writer != null) {
+      writer.close();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Локальный HTTP-сервер, отдающий ответы из {@link HttpArchive} вместо магазина. Задержка,
+ * разброс, доля ошибок и полоса пропускания настраиваются, поэтому нагрузочный прогон
+ * воспроизводим без сети. Ответ ищется по пути и query, хост запроса не важен.
+ */
+public class ReplayServer {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReplayServer.class);
+
+  // Тело при ограничении полосы отдаётся чанками примерно по 50 мс
+  private static final int SHAPING_SLICES_PER_SECOND = 20;
+  private static final int MIN_SHAPING_CHUNK = 1024;
+
+  /**
+   * @param bytesPerSecond полоса на один ответ, 0 — без ограничения
+   * @param errorRate доля запросов, на которые сервер отвечает 503
+   */
+  public record Options(Duration latency, Duration jitter, double errorRate,
+      long bytesPerSecond) {
+
+    public static Options none() {
+      return new Options(Duration.ZERO, Duration.ZERO, 0, 0);
+    }
+  }
+
+  private final HttpArchive archive;
+  private final Options options;
+  private final String host;
+  private final int port;
+  private final AtomicLong served = new AtomicLong();
+  private final AtomicLong injectedErrors = new AtomicLong();
+  private final AtomicLong missing = new AtomicLong();
+  private DisposableServer server;
+
+  // port 0 — любой свободный
+  public ReplayServer(HttpArchive archive, Options options, String host, int port) {
+    this.archive = archive;
+    this.options = options;
+    this.host = host;
+    this.port = port;
+  }
+
+  public void start() {
+    server = HttpServer.create().host(host).port(port).handle(this::handle).bindNow();
+    logger.info("Воспроизведение {} ответов на {}: задержка {} ± {}, ошибки {}, полоса {} Б/с",
+        archive.size(), baseUrl(), options.latency(), options.jitter(), options.errorRate(),
+        options.bytesPerSecond() > 0 ? options.bytesPerSecond() : "без ограничения");
+  }
+
+  public void stop() {
+    if (server != null) {
+      server.disposeNow();
+      logger.info("Воспроизведение остановлено: отдано {}, ошибок {}, не найдено {}",
+          served.get(), injectedErrors.get(), missing.get());
+    }
+  }
+
+  public String baseUrl() {
+    return "http://" + server.host() + ":" + server.port();
+  }
+
+  public long servedCount() {
+    return served.get();
+  }
+
+  private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+    return Mono.delay(delay()).then(Mono.defer(() -> respond(request, response)));
+  }
+
+  private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response) {
+    HttpArchive.Entry entry = archive.get(request.uri());
+    if (entry == null) {
+      missing.incrementAndGet();
+      return response.status(404).send();
+    }
+    if (options.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate()) {
+      injectedErrors.incrementAndGet();
+      return response.status(503).send();
+    }
+    served.incrementAndGet();
+    String etag = entry.headers().entrySet().stream()
+        .filter(header -> header.getKey().equalsIgnoreCase("ETag")).map(Map.Entry::getValue)
+        .findFirst().orElse(null);
+    if (etag != null && etag.equals(request.requestHeaders().get("If-None-Match"))) {
+      return response.status(304).header("ETag", etag).send();
+    }
+    response.status(entry.status());
+    entry.headers().forEach(response::header);
+    byte[] body = entry.body();
+    response.header("Content-Length", String.valueOf(body.length));
+    return response.sendByteArray(shaped(body)).then();
+  }
+
+  private Duration delay() {
+    long jitterNanos = options.jitter().toNanos();
+    long extra = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0;
+    return options.latency().plusNanos(extra);
+  }
+
+  private Publisher<byte[]> shaped(byte[] body) {
+    long bytesPerSecond = options.bytesPerSecond();
+    if (bytesPerSecond <= 0 || body.length == 0) {
+      return Mono.just(body);
+    }
+    int chunkSize = (int) Math.max(MIN_SHAPING_CHUNK, bytesPerSecond / SHAPING_SLICES_PER_SECOND);
+    Duration interval = Duration.ofNanos(chunkSize * 1_000_000_000L / bytesPerSecond);
+    int chunks = (body.length + chunkSize - 1) / chunkSize;
+    return Flux.range(0, chunks).delayElements(interval).map(i -> Arrays.copyOfRange(body,
+        i * chunkSize, Math.min(body.length, (i + 1) * chunkSize)));
+  }
+}
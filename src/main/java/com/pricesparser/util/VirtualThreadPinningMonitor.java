@@ -0,0 +1,79 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Слушает JFR-событие {@code jdk.VirtualThreadPinned}: виртуальный поток заблокировался внутри
+ * {@code synchronized} (Hibernate, H2, jsoup) и удерживал поток-носитель.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 6;
+
+  private final RecordingStream stream;
+  private final Counter pinnedCounter;
+  private final Timer pinnedTimer;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+    this.pinnedCounter = Counter.builder("virtual_thread_pinned_total")
+        .description("Virtual threads that blocked while pinned to a carrier thread")
+        .register(meterRegistry);
+    this.pinnedTimer = Timer.builder("virtual_thread_pinned_seconds")
+        .description("Time virtual threads stayed pinned to a carrier thread")
+        .register(meterRegistry);
+    if (threshold == null) {
+      this.stream = null;
+      return;
+    }
+    this.stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    logger.info("Мониторинг закрепления виртуальных потоков запущен, порог {} мс",
+        threshold.toMillis());
+  }
+
+  public static VirtualThreadPinningMonitor disabled() {
+    return new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), null);
+  }
+
+  public boolean isEnabled() {
+    return stream != null;
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedCounter.increment();
+    pinnedTimer.record(event.getDuration());
+    if (logger.isDebugEnabled() && event.getStackTrace() != null) {
+      List<RecordedFrame> frames = event.getStackTrace().getFrames();
+      logger.debug("Виртуальный поток закреплён на {} мс:\n  {}", event.getDuration().toMillis(),
+          frames.stream().limit(LOGGED_FRAMES)
+              .map(frame -> frame.getMethod().getType().getName() + "."
+                  + frame.getMethod().getName() + ":" + frame.getLineNumber())
+              .collect(Collectors.joining("\n  ")));
+    }
+  }
+
+  @Override
+  public void close() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+}
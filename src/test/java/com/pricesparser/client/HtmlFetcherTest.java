@@ -0,0 +1,116 @@
+package com.pricesparser.client;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.pricesparser.parser.FetchBudget;
+import com.pricesparser.parser.PageFetcher;
+import com.pricesparser.service.FeignClientService;
+import com.pricesparser.service.RestTemplateService;
+import com.pricesparser.service.WebClientService;
+import com.pricesparser.util.BandwidthMeter;
+import com.pricesparser.util.HedgePolicy;
+import com.pricesparser.util.HostCircuitBreaker;
+import com.pricesparser.util.HostRateLimiter;
+import com.pricesparser.util.PooledConnectionRequestFactory;
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Feign;
+import feign.Target;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@DisplayName("HtmlFetcher Tests")
+class HtmlFetcherTest {
+
+  private static final String PAGE = "<html><body><h1>Смартфон</h1></body></html>";
+
+  private HttpServer server;
+  private ConnectionProvider connectionProvider;
+  private List<HtmlFetcher> fetchers;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/catalog", exchange -> {
+      byte[] body = (PAGE + exchange.getRequestURI())
+          .getBytes(Charset.forName("windows-1251"));
+      exchange.getResponseHeaders().add("Content-Type", "text/html; charset=windows-1251");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/missing", exchange -> {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+    connectionProvider = ConnectionProvider.create("fetcher-test", 4);
+    HttpClient httpClient = HttpClient.create(connectionProvider);
+    fetchers = List.of(
+        new PageFetcher(httpClient, BandwidthMeter.disabled(), FetchBudget.disabled()),
+        new JsoupHtmlFetcher(),
+        new RestTemplateService(
+            new RestTemplate(new PooledConnectionRequestFactory(
+                new ReactorNettyClientRequestFactory(httpClient)))),
+        new WebClientService(
+            WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build(),
+            FetchBudget.disabled(), HostCircuitBreaker.disabled(), HostRateLimiter.disabled(),
+            HedgePolicy.disabled()),
+        new FeignClientService(Feign.builder().contract(new SpringMvcContract())
+            .decoder(new SpringDecoder(HttpMessageConverters::new))
+            .target(Target.EmptyTarget.create(ProductHtmlClient.class))));
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    server.stop(0);
+  }
+
+  @Test
+  @DisplayName("Все клиенты должны загрузить страницу по полному адресу в кодировке ответа")
+  void shouldFetchSamePageWithEveryClient() {
+    assertThat(fetchers).extracting(HtmlFetcher::name)
+        .containsExactly("netty", "jsoup", "resttemplate", "webclient", "feign");
+
+    for (HtmlFetcher fetcher : fetchers) {
+      assertThat(fetcher.fetch(baseUrl + "/catalog/phone?id=7")).as(fetcher.name())
+          .isEqualTo(PAGE + "/catalog/phone?id=7");
+      assertThat(fetcher.fetch(baseUrl + "/catalog/phone/")).as(fetcher.name())
+          .isEqualTo(PAGE + "/catalog/phone/");
+      assertThat(fetcher.fetch(baseUrl + "/catalog/?id=7")).as(fetcher.name())
+          .isEqualTo(PAGE + "/catalog/?id=7");
+    }
+  }
+
+  @Test
+  @DisplayName("Все клиенты должны бросать исключение на статус ошибки")
+  void shouldFailOnErrorStatusWithEveryClient() {
+    for (HtmlFetcher fetcher : fetchers) {
+      assertThatThrownBy(() -> fetcher.fetch(baseUrl + "/missing")).as(fetcher.name())
+          .isInstanceOf(RuntimeException.class);
+    }
+  }
+}
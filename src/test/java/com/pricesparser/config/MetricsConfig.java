@@ -37,4 +37,20 @@ public class MetricsConfig {
                 .description("Total number of products saved to database")
                 .register(registry);
     }
+
+    @Bean
+    public Counter conditionalFetchHitCounter(MeterRegistry registry) {
+        return Counter.builder("conditional_fetch_total")
+                .description("Re-crawled pages found unchanged (304 or identical body)")
+                .tag("result", "hit")
+                .register(registry);
+    }
+
+    @Bean
+    public Counter conditionalFetchMissCounter(MeterRegistry registry) {
+        return Counter.builder("conditional_fetch_total")
+                .description("Pages downloaded and parsed in full (changed or no validators)")
+                .tag("result", "miss")
+                .register(registry);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.pricesparser.controller;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,18 +16,26 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pricesparser.dto.ParseRequest;
 import com.pricesparser.dto.ProductResponse;
-import com.pricesparser.service.ProductParseService;
+import com.pricesparser.service.ParseJob;
+import com.pricesparser.service.ParseJobService;
 import com.pricesparser.service.ProductService;
 
+import reactor.core.publisher.Flux;
+
 @WebMvcTest(ParseController.class)
 @DisplayName("ParseController Tests")
 class ParseControllerTest {
@@ -37,21 +47,89 @@ class ParseControllerTest {
   private ObjectMapper objectMapper;
 
   @MockBean
-  private ProductParseService productParseService;
+  private ParseJobService parseJobService;
 
   @MockBean
   private ProductService productService;
 
+  private static ParseJob job(String id, ParseJob.State state, int total, int inFlight,
+      int cancelled) {
+    ParseJob job = mock(ParseJob.class);
+    when(job.id()).thenReturn(id);
+    when(job.state()).thenReturn(state);
+    when(job.total()).thenReturn(total);
+    when(job.inFlight()).thenReturn(inFlight);
+    when(job.cancelled()).thenReturn(cancelled);
+    when(job.finished()).thenReturn(cancelled);
+    return job;
+  }
+
   @Test
-  @DisplayName("Должен принять запрос на парсинг")
+  @DisplayName("Должен принять запрос на парсинг и вернуть id задания")
   void shouldAcceptParseRequest() throws Exception {
     ParseRequest request = new ParseRequest(List.of("https://example.com/product1"));
+    ParseJob job = job("job-1", ParseJob.State.RUNNING, 1, 1, 0);
+    when(parseJobService.submit(request.getUrls())).thenReturn(job);
 
     mockMvc
         .perform(post("/api/parse").contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isAccepted())
-        .andExpect(content().string(org.hamcrest.Matchers.containsString("Парсинг запущен")));
+        .andExpect(header().string("Location", "/api/jobs/job-1"))
+        .andExpect(jsonPath("$.id").value("job-1")).andExpect(jsonPath("$.state").value("RUNNING"))
+        .andExpect(jsonPath("$.total").value(1));
+  }
+
+  @Test
+  @DisplayName("Должен отклонить запрос без URL")
+  void shouldRejectEmptyParseRequest() throws Exception {
+    mockMvc
+        .perform(post("/api/parse").contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new ParseRequest(List.of()))))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Должен вернуть ход задания и отменить его")
+  void shouldReportAndCancelJob() throws Exception {
+    ParseJob running = job("job-1", ParseJob.State.RUNNING, 2, 1, 0);
+    ParseJob cancelled = job("job-1", ParseJob.State.CANCELLED, 2, 0, 2);
+    when(parseJobService.find("job-1")).thenReturn(Optional.of(running));
+    when(parseJobService.cancel("job-1")).thenReturn(Optional.of(cancelled));
+
+    mockMvc.perform(get("/api/jobs/job-1")).andExpect(status().isOk())
+        .andExpect(jsonPath("$.inFlight").value(1)).andExpect(jsonPath("$.finished").value(0));
+
+    mockMvc.perform(delete("/api/jobs/job-1")).andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("CANCELLED"))
+        .andExpect(jsonPath("$.cancelled").value(2)).andExpect(jsonPath("$.finished").value(2));
+  }
+
+  @Test
+  @DisplayName("Должен вернуть 404 для неизвестного задания")
+  void shouldReturnNotFoundForUnknownJob() throws Exception {
+    when(parseJobService.find("missing")).thenReturn(Optional.empty());
+    when(parseJobService.cancel("missing")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/jobs/missing")).andExpect(status().isNotFound());
+    mockMvc.perform(delete("/api/jobs/missing")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Должен отдать сохранённые товары потоком NDJSON")
+  void shouldStreamJobResultsAsNdjson() throws Exception {
+    ParseJob job = job("job-1", ParseJob.State.COMPLETED, 1, 0, 0);
+    when(job.results()).thenReturn(Flux.just(new ProductResponse(1L, "https://example.com/a",
+        "Test Product", java.math.BigDecimal.TEN, "Description", null, null)));
+    when(parseJobService.find("job-1")).thenReturn(Optional.of(job));
+
+    MvcResult result = mockMvc
+        .perform(get("/api/jobs/job-1/results").accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted()).andReturn();
+
+    mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(jsonPath("$.title").value("Test Product"));
   }
 
   @Test
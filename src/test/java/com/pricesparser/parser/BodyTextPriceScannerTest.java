@@ -0,0 +1,60 @@
+package com.pricesparser.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BodyTextPriceScanner Tests")
+class BodyTextPriceScannerTest {
+
+  private static Element body(String html) {
+    return Jsoup.parse(html).body();
+  }
+
+  @Test
+  @DisplayName("Должен найти первую цену с символом рубля в тексте страницы")
+  void shouldFindFirstPriceInText() {
+    Element body = body("""
+        <div>Артикул 12345</div>
+        <div>Цена: <b>79 990</b> ₽</div>
+        <div>Старая цена 89 990 руб.</div>
+        """);
+
+    BodyTextPriceScanner.Result result = BodyTextPriceScanner.scan(body, 10_000);
+
+    assertThat(result.minorUnits()).isEqualTo(7_999_000L);
+    assertThat(result.budgetExhausted()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Должен отделять цену от предшествующего длинного числа и учитывать копейки")
+  void shouldSplitLongNumberAndKeepKopecks() {
+    Element body = body("<p>Код 1234 1 990,50 р.</p>");
+
+    assertThat(BodyTextPriceScanner.scan(body, 10_000).minorUnits()).isEqualTo(199_050L);
+  }
+
+  @Test
+  @DisplayName("Должен прекратить поиск при исчерпании лимита символов")
+  void shouldStopAtCharBudget() {
+    Element body = body("<p>" + "текст ".repeat(1_000) + "</p><p>1 990 ₽</p>");
+
+    BodyTextPriceScanner.Result result = BodyTextPriceScanner.scan(body, 500);
+
+    assertThat(result.minorUnits()).isEqualTo(PriceScanner.NOT_FOUND);
+    assertThat(result.charsScanned()).isEqualTo(500);
+    assertThat(result.budgetExhausted()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Должен игнорировать числа без знака валюты")
+  void shouldIgnoreNumbersWithoutCurrency() {
+    Element body = body("<div>128 ГБ</div><div>2023 год</div><div>0 ₽</div>");
+
+    assertThat(BodyTextPriceScanner.scan(body, 10_000).minorUnits())
+        .isEqualTo(PriceScanner.NOT_FOUND);
+  }
+}
@@ -0,0 +1,104 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ExtractionProfileRegistry Tests")
+class ExtractionProfileRegistryTest {
+
+  private static final String PROFILES = """
+      [
+        {
+          "host": "shop.example",
+          "title": [ { "selector": "h1.product-title" } ],
+          "price": [ { "selector": "[itemprop=price]", "attribute": "content" } ],
+          "description": [ { "selector": "div.about" } ]
+        }
+      ]
+      """;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ExtractionProfileRegistry registry;
+  private SelectorExtractionEngine generic;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    meterRegistry = new SimpleMeterRegistry();
+    List<ExtractionProfile> profiles = ExtractionProfileRegistry
+        .readProfiles(new ByteArrayInputStream(PROFILES.getBytes(StandardCharsets.UTF_8)));
+    registry = new ExtractionProfileRegistry(profiles, meterRegistry, 1.0);
+    generic = new SelectorExtractionEngine(List.of(
+        ExtractionRule.text(ExtractionField.TITLE, "h1"),
+        ExtractionRule.attribute(ExtractionField.PRICE, "[data-price]", "data-price"),
+        ExtractionRule.attribute(ExtractionField.DESCRIPTION, "meta[name=description]",
+            "content")));
+  }
+
+  @Test
+  @DisplayName("Должен извлечь все поля профилем без общего каскада")
+  void shouldServePageFromProfile() {
+    Document doc = Jsoup.parse("""
+        <h1 class="product-title">Телефон</h1>
+        <meta itemprop="price" content="1990">
+        <div class="about">Описание</div>
+        """);
+
+    ExtractionResult result = registry.extract("https://www.shop.example/p/1", doc, generic);
+
+    assertThat(result.getValue(ExtractionField.TITLE)).isEqualTo("Телефон");
+    assertThat(result.getValue(ExtractionField.PRICE)).isEqualTo("1990");
+    assertThat(meterRegistry.get("parser_profile_extractions_total").tag("outcome", "hit")
+        .counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.find("parser_rule_hits_total")
+        .tag("profile", ExtractionProfileRegistry.GENERIC_PROFILE).counters()).isEmpty();
+    assertThat(meterRegistry.get("parser_rule_hits_total").tag("profile", "shop.example")
+        .tag("field", "title").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Должен дополнить недостающие поля общим каскадом")
+  void shouldFallBackForMissingFields() {
+    Document doc = Jsoup.parse("""
+        <head><meta name="description" content="Из meta"></head>
+        <h1 class="product-title">Телефон</h1>
+        <div data-price="2500"></div>
+        """);
+
+    ExtractionResult result = registry.extract("https://shop.example/p/2", doc, generic);
+
+    assertThat(result.getValue(ExtractionField.TITLE)).isEqualTo("Телефон");
+    assertThat(result.getValue(ExtractionField.PRICE)).isEqualTo("2500");
+    assertThat(result.getValue(ExtractionField.DESCRIPTION)).isEqualTo("Из meta");
+    assertThat(result.getRule(ExtractionField.TITLE).getSelector()).isEqualTo("h1.product-title");
+    assertThat(meterRegistry.get("parser_profile_extractions_total").tag("outcome", "partial")
+        .counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.find("parser_rule_matches_total")
+        .tag("profile", ExtractionProfileRegistry.GENERIC_PROFILE).tag("field", "title")
+        .counters()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Должен использовать общий каскад для неизвестного хоста")
+  void shouldUseGenericCascadeForUnknownHost() {
+    Document doc = Jsoup.parse("<h1>Товар</h1><div data-price=\"100\"></div>");
+
+    ExtractionResult result = registry.extract("https://other.example/p", doc, generic);
+
+    assertThat(registry.findProfile("https://other.example/p")).isEmpty();
+    assertThat(result.getValue(ExtractionField.TITLE)).isEqualTo("Товар");
+    assertThat(meterRegistry.get("parser_rule_evaluation_seconds")
+        .tag("profile", ExtractionProfileRegistry.GENERIC_PROFILE).tag("field", "title")
+        .timer().count()).isEqualTo(1);
+  }
+}
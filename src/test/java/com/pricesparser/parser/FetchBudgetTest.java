@@ -0,0 +1,107 @@
+package com.pricesparser.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("FetchBudget Tests")
+class FetchBudgetTest {
+
+  private static final String PRODUCT = "<html><head><script>var a = '<h1 itemprop=\"name\">';"
+      + "</script></head><body><h1 itemprop=\"name\">Смартфон</h1>"
+      + "<span itemprop=\"price\" content=\"79990\">79 990 ₽</span>"
+      + "<div class=\"product__descr\"><p>Описание <b>товара</b></p></div>";
+  private static final String TAIL = "<script>" + "var recommendations = [];".repeat(4000)
+      + "</script></body></html>";
+  private static final byte[] PAGE = (PRODUCT + TAIL).getBytes(StandardCharsets.UTF_8);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private static FetchBudget.BodyRead feed(FetchBudget.BodyRead read, byte[] page, int chunkSize) {
+    for (int offset = 0; offset < page.length; offset += chunkSize) {
+      if (!read.accept(Arrays.copyOfRange(page, offset, Math.min(offset + chunkSize,
+          page.length)))) {
+        break;
+      }
+    }
+    return read;
+  }
+
+  @Test
+  @DisplayName("Должен остановиться сразу после описания товара")
+  void shouldStopOnceProductRegionIsCaptured() {
+    FetchBudget budget = new FetchBudget(meterRegistry, true, 0, "", 4000);
+
+    FetchBudget.BodyRead read = feed(budget.start("https://shop.ru/p/1"), PAGE, 7);
+    String body = new String(read.finish(PAGE.length), StandardCharsets.UTF_8);
+
+    assertThat(read.outcome()).isEqualTo(FetchBudget.Outcome.REGION_CAPTURED);
+    assertThat(body).startsWith(PRODUCT).doesNotContain("recommendations");
+    assertThat(meterRegistry.get("fetch_body_reads_total").tag("host", "shop.ru")
+        .tag("outcome", "region_captured").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("fetch_body_bytes_saved_total").counter().count())
+        .isEqualTo(PAGE.length - read.bytesRead());
+  }
+
+  @Test
+  @DisplayName("Обрезанное тело и его отпечаток не должны зависеть от размера чанков")
+  void shouldCutAtSameOffsetForAnyChunking() {
+    FetchBudget budget = new FetchBudget(meterRegistry, true, 0, "", 4000);
+
+    byte[] small = feed(budget.start("https://shop.ru/p/1"), PAGE, 7).finish(PAGE.length);
+    byte[] large = feed(budget.start("https://shop.ru/p/1"), PAGE, 1500).finish(PAGE.length);
+
+    assertThat(large).isEqualTo(small);
+    assertThat(new String(small, StandardCharsets.UTF_8)).isEqualTo(PRODUCT);
+    assertThat(ProductFingerprint.of(large)).isEqualTo(ProductFingerprint.of(small));
+  }
+
+  @Test
+  @DisplayName("Должен обрезать тело по лимиту хоста, если карточка не найдена")
+  void shouldCutBodyAtHostBudget() {
+    FetchBudget budget = new FetchBudget(meterRegistry, true, 1 << 20, "shop.ru=1000", 4000);
+    byte[] page = TAIL.getBytes(StandardCharsets.UTF_8);
+
+    FetchBudget.BodyRead limited = feed(budget.start("https://shop.ru/p/1"), page, 300);
+    FetchBudget.BodyRead other = feed(budget.start("https://other.ru/p/1"), page, 300);
+
+    assertThat(limited.outcome()).isEqualTo(FetchBudget.Outcome.BUDGET_EXHAUSTED);
+    assertThat(limited.finish(-1)).hasSize(1000);
+    assertThat(other.outcome()).isEqualTo(FetchBudget.Outcome.FULL);
+    assertThat(other.finish(-1)).isEqualTo(page);
+    assertThat(meterRegistry.find("fetch_body_bytes_saved_total").counter()).isNull();
+  }
+
+  @Test
+  @DisplayName("Без раннего обрыва и лимита тело читается целиком")
+  void shouldReadWholeBodyWhenDisabled() {
+    FetchBudget.BodyRead read = feed(FetchBudget.disabled().start("https://shop.ru/p/1"), PAGE,
+        512);
+
+    assertThat(read.outcome()).isEqualTo(FetchBudget.Outcome.FULL);
+    assertThat(read.finish(PAGE.length)).isEqualTo(PAGE);
+  }
+
+  @Test
+  @DisplayName("Должен знать длину тела только для ответа без сжатия")
+  void shouldDeclareLengthOnlyForIdentityEncoding() {
+    assertThat(FetchBudget.declaredLength("1234", null)).isEqualTo(1234);
+    assertThat(FetchBudget.declaredLength("1234", "identity")).isEqualTo(1234);
+    assertThat(FetchBudget.declaredLength("1234", "gzip")).isEqualTo(-1);
+    assertThat(FetchBudget.declaredLength(null, null)).isEqualTo(-1);
+    assertThat(FetchBudget.declaredLength("много", null)).isEqualTo(-1);
+  }
+
+  @Test
+  @DisplayName("Должен отклонить некорректный лимит хоста")
+  void shouldRejectMalformedHostBudget() {
+    assertThatThrownBy(() -> new FetchBudget(meterRegistry, true, 0, "shop.ru:1000", 4000))
+        .isInstanceOf(RuntimeException.class).hasMessageContaining("shop.ru:1000");
+  }
+}
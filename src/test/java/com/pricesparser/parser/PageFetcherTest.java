@@ -0,0 +1,159 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.util.BandwidthMeter;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@DisplayName("PageFetcher Tests")
+class PageFetcherTest {
+
+  private static final byte[] PAGE =
+      "<html><body><h1>Товар</h1></body></html>".getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] BLOATED = ("<h1 itemprop=\"name\">Товар</h1>"
+      + "<span itemprop=\"price\" content=\"1990\"></span>"
+      + "<div class=\"product__descr\">Описание</div>"
+      + "<script>var x = 1;</script>".repeat(20000)).getBytes(StandardCharsets.UTF_8);
+
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private HttpServer server;
+  private ConnectionProvider connectionProvider;
+  private PageFetcher fetcher;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/product", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=windows-1251");
+        exchange.sendResponseHeaders(200, PAGE.length);
+        exchange.getResponseBody().write(PAGE);
+      }
+      exchange.close();
+    });
+    server.createContext("/gzip", exchange -> {
+      byte[] body = gzip(PAGE);
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/bloated", exchange -> {
+      exchange.sendResponseHeaders(200, BLOATED.length);
+      exchange.getResponseBody().write(BLOATED);
+      exchange.close();
+    });
+    server.createContext("/missing", exchange -> {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+    });
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    connectionProvider = ConnectionProvider.create("test", 1);
+    fetcher = new PageFetcher(HttpClient.create(connectionProvider), BandwidthMeter.disabled(),
+        FetchBudget.disabled());
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    server.stop(0);
+  }
+
+  @Test
+  @DisplayName("Должен переиспользовать соединение из пула между загрузками")
+  void shouldReuseKeepAliveConnection() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      PageFetcher.PageResponse response = fetcher.fetch(baseUrl + "/product", Map.of());
+      assertThat(response.statusCode()).isEqualTo(200);
+      assertThat(response.charset().name()).isEqualTo("windows-1251");
+      assertThat(response.bodyAsBytes()).isEqualTo(PAGE);
+    }
+    fetcher.fetch(baseUrl + "/product", Map.of("If-None-Match", "\"v1\"")).discardBody();
+
+    assertThat(clientPorts).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Должен передавать условные заголовки и возвращать 304 без тела")
+  void shouldSendConditionalHeaders() throws Exception {
+    PageFetcher.PageResponse response =
+        fetcher.fetch(baseUrl + "/product", Map.of("If-None-Match", "\"v1\""));
+
+    assertThat(response.statusCode()).isEqualTo(304);
+    assertThat(response.read()).isEqualTo(-1);
+    response.close();
+  }
+
+  @Test
+  @DisplayName("Должен распаковать gzip на лету и записать байты до и после распаковки")
+  void shouldDecodeGzipAndRecordBandwidth() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PageFetcher meteredFetcher = new PageFetcher(HttpClient.create(connectionProvider),
+        new BandwidthMeter(meterRegistry), FetchBudget.disabled());
+
+    PageFetcher.PageResponse response = meteredFetcher.fetch(baseUrl + "/gzip", Map.of());
+
+    assertThat(response.bodyAsBytes()).isEqualTo(PAGE);
+    assertThat(response.wireBytes()).isEqualTo(gzip(PAGE).length);
+    assertThat(meterRegistry.get("fetch_decoded_bytes_total").tag("host", "127.0.0.1")
+        .tag("encoding", "gzip").counter().count()).isEqualTo(PAGE.length);
+    assertThat(meterRegistry.get("fetch_wire_bytes_total").tag("encoding", "gzip").counter()
+        .count()).isEqualTo(response.wireBytes());
+  }
+
+  @Test
+  @DisplayName("Должен оборвать загрузку после карточки товара")
+  void shouldAbortBodyOnceProductIsCaptured() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PageFetcher budgetedFetcher = new PageFetcher(HttpClient.create(connectionProvider),
+        BandwidthMeter.disabled(), new FetchBudget(meterRegistry, true, 0, "", 4000));
+
+    byte[] body = budgetedFetcher.fetch(baseUrl + "/bloated", Map.of()).bodyWithinBudget();
+
+    assertThat(new String(body, StandardCharsets.UTF_8)).contains("Описание</div>");
+    assertThat(body.length).isLessThan(BLOATED.length / 4);
+    assertThat(meterRegistry.get("fetch_body_bytes_saved_total").counter().count())
+        .isEqualTo(BLOATED.length - body.length);
+    // Недочитанное соединение закрыто, следующая загрузка получает новое
+    assertThat(fetcher.fetch(baseUrl + "/product", Map.of()).bodyAsBytes()).isEqualTo(PAGE);
+  }
+
+  @Test
+  @DisplayName("Должен бросать исключение на статус ошибки")
+  void shouldFailOnErrorStatus() {
+    assertThatThrownBy(() -> fetcher.fetch(baseUrl + "/missing", Map.of()))
+        .isInstanceOf(RuntimeException.class).hasMessageContaining("404");
+  }
+}
@@ -0,0 +1,81 @@
+package com.pricesparser.parser;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.ParseFailureCaptureStore.ParseCapture;
+import com.pricesparser.util.AdaptiveTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ParseFailureCaptureStore Tests")
+class ParseFailureCaptureStoreTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Должен хранить только последние снимки и сжимать страницу")
+  void shouldKeepLatestCapturesCompressed() throws Exception {
+    ParseFailureCaptureStore store =
+        new ParseFailureCaptureStore(directory, 2, 1024, new SimpleMeterRegistry());
+
+    for (int i = 0; i < 3; i++) {
+      byte[] page = ("<html>" + i + "</html>").getBytes(StandardCharsets.UTF_8);
+      store.capture("https://example.com/" + i, "price_zero", List.of("PRICE: не найдено"),
+          () -> page);
+    }
+
+    List<ParseCapture> captures = store.list();
+    assertThat(captures).extracting(ParseCapture::url)
+        .containsExactly("https://example.com/2", "https://example.com/1");
+    try (InputStream in = new GZIPInputStream(
+        Files.newInputStream(store.pageFile(captures.get(0).id()).orElseThrow()))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+          .isEqualTo("<html>2</html>");
+    }
+    try (var files = Files.list(directory)) {
+      assertThat(files.count()).isEqualTo(4);
+    }
+
+    ParseFailureCaptureStore reloaded =
+        new ParseFailureCaptureStore(directory, 2, 1024, new SimpleMeterRegistry());
+    assertThat(reloaded.list()).extracting(ParseCapture::id)
+        .containsExactlyElementsOf(captures.stream().map(ParseCapture::id).toList());
+  }
+
+  @Test
+  @DisplayName("Должен сохранять страницу с трассой правил при нулевой цене")
+  void shouldCaptureZeroPriceParse() {
+    ParseFailureCaptureStore store =
+        new ParseFailureCaptureStore(directory, 10, 1024, new SimpleMeterRegistry());
+    UniversalProductParser parser = new UniversalProductParser(AdaptiveTracer.noop(),
+        ExtractionProfileRegistry.disabled(), store, PageFetcher.standalone(),
+        new SimpleMeterRegistry(), true, 65536);
+
+    Product withPrice = parser.parseFromHtml("https://example.com/ok",
+        "<h1>Товар</h1><span itemprop=\"price\">1 990</span>");
+    Product withoutPrice =
+        parser.parseFromHtml("https://example.com/no-price", "<h1>Товар без цены</h1>");
+
+    assertThat(withPrice.getPrice()).isPositive();
+    assertThat(withoutPrice.getPrice()).isZero();
+    assertThat(store.list()).singleElement().satisfies(capture -> {
+      assertThat(capture.url()).isEqualTo("https://example.com/no-price");
+      assertThat(capture.reason()).isEqualTo("price_zero");
+      assertThat(capture.truncated()).isFalse();
+      assertThat(capture.trace()).contains("TITLE <- h1", "PRICE: не найдено");
+    });
+  }
+}
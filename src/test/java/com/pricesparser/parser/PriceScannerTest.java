@@ -0,0 +1,55 @@
+package com.pricesparser.parser;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PriceScanner Tests")
+class PriceScannerTest {
+
+  @Test
+  @DisplayName("Должен разбирать разделители тысяч: пробел, NBSP, тонкий пробел")
+  void shouldHandleThousandsSeparators() {
+    assertThat(PriceScanner.scanMinorUnits("79 990 ₽")).isEqualTo(7_999_000L);
+    assertThat(PriceScanner.scanMinorUnits("79\u00A0990 ₽")).isEqualTo(7_999_000L);
+    assertThat(PriceScanner.scanMinorUnits("159\u2009990 руб.")).isEqualTo(15_999_000L);
+    assertThat(PriceScanner.scanMinorUnits("1\u202F299\u202F990₽")).isEqualTo(129_999_000L);
+    assertThat(PriceScanner.scanMinorUnits("100.000")).isEqualTo(10_000_000L);
+    assertThat(PriceScanner.scanMinorUnits("1.299,00 ₽")).isEqualTo(129_900L);
+  }
+
+  @Test
+  @DisplayName("Должен разбирать десятичную часть через точку и запятую")
+  void shouldHandleDecimalSeparators() {
+    assertThat(PriceScanner.scanMinorUnits("249999.50")).isEqualTo(24_999_950L);
+    assertThat(PriceScanner.scanMinorUnits("1 990,5 руб")).isEqualTo(199_050L);
+    assertThat(PriceScanner.scanMinorUnits("99999.99")).isEqualTo(9_999_999L);
+    assertThat(PriceScanner.scanMinorUnits("12,99р.")).isEqualTo(1_299L);
+  }
+
+  @Test
+  @DisplayName("Должен пропускать текст перед числом и останавливаться после него")
+  void shouldIgnoreSurroundingText() {
+    assertThat(PriceScanner.scanMinorUnits("Цена: от 12 490 р.")).isEqualTo(1_249_000L);
+    assertThat(PriceScanner.scanMinorUnits("5 490 ₽ 6 990 ₽")).isEqualTo(549_000L);
+  }
+
+  @Test
+  @DisplayName("Должен возвращать NOT_FOUND, если цифр нет")
+  void shouldReturnNotFoundWithoutDigits() {
+    assertThat(PriceScanner.scanMinorUnits("Цена по запросу")).isEqualTo(PriceScanner.NOT_FOUND);
+    assertThat(PriceScanner.scanMinorUnits("")).isEqualTo(PriceScanner.NOT_FOUND);
+    assertThat(PriceScanner.scanMinorUnits(null)).isEqualTo(PriceScanner.NOT_FOUND);
+    assertThat(PriceScanner.toBigDecimal(PriceScanner.NOT_FOUND)).isEqualByComparingTo("0");
+  }
+
+  @Test
+  @DisplayName("Должен строить BigDecimal только из копеек")
+  void shouldConvertMinorUnitsToBigDecimal() {
+    assertThat(PriceScanner.toBigDecimal(7_999_050L))
+        .isEqualByComparingTo(new BigDecimal("79990.50"));
+  }
+}
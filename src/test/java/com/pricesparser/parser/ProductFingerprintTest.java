@@ -0,0 +1,78 @@
+package com.pricesparser.parser;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductFingerprint Tests")
+class ProductFingerprintTest {
+
+  private static final String PAGE = """
+      <html><head><title>Магазин</title>
+      <meta name="csrf-token" content="%s">
+      <meta property="og:title" content="Смартфон">
+      <script>window.session = "%s";</script>
+      <style>.price { color: red; }</style>
+      </head><body><nav>Корзина: %s</nav>
+      <main><h1 class="title">Смартфон 😀</h1>
+      <!-- сгенерировано %s -->
+      <div class="price">%s ₽</div>
+      <script>track("%s");</script>
+      </main><footer>© %s</footer></body></html>
+      """;
+
+  private static String page(String session, String price) {
+    return PAGE.formatted(session, session, session, session, price, session, session);
+  }
+
+  @Test
+  @DisplayName("Должен игнорировать скрипты, комментарии и содержимое вне карточки")
+  void shouldIgnoreVolatileMarkup() {
+    assertThat(ProductFingerprint.of(page("a1", "79 990")))
+        .isEqualTo(ProductFingerprint.of(page("b2-long-token", "79 990")));
+  }
+
+  @Test
+  @DisplayName("Должен игнорировать различия в пробелах")
+  void shouldCollapseWhitespace() {
+    String page = page("a1", "79 990");
+
+    assertThat(ProductFingerprint.of(page.replace("\n", "\n    ")))
+        .isEqualTo(ProductFingerprint.of(page));
+  }
+
+  @Test
+  @DisplayName("Должен меняться при изменении цены или meta-тегов товара")
+  void shouldChangeWithProductData() {
+    String page = page("a1", "79 990");
+
+    assertThat(ProductFingerprint.of(page("a1", "74 990")))
+        .isNotEqualTo(ProductFingerprint.of(page));
+    assertThat(ProductFingerprint.of(page.replace("og:title\" content=\"Смартфон",
+        "og:title\" content=\"Телефон"))).isNotEqualTo(ProductFingerprint.of(page));
+  }
+
+  @Test
+  @DisplayName("Должен учитывать JSON-LD на странице без заголовка h1")
+  void shouldHashJsonLdWithoutHeading() {
+    String page = """
+        <html><head><script type="application/ld+json">{"price": "%s"}</script>
+        <script>var t = %s;</script></head><body></body></html>
+        """;
+
+    assertThat(ProductFingerprint.of(page.formatted("100", "1")))
+        .isEqualTo(ProductFingerprint.of(page.formatted("100", "2")))
+        .isNotEqualTo(ProductFingerprint.of(page.formatted("200", "1")));
+  }
+
+  @Test
+  @DisplayName("Отпечаток байтов UTF-8 должен совпадать с отпечатком строки")
+  void shouldMatchForBytesAndChars() {
+    String page = page("a1", "79 990");
+
+    assertThat(ProductFingerprint.of(page.getBytes(StandardCharsets.UTF_8)))
+        .isEqualTo(ProductFingerprint.of(page));
+  }
+}
@@ -0,0 +1,79 @@
+package com.pricesparser.parser;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SelectorExtractionEngine Tests")
+class SelectorExtractionEngineTest {
+
+  @Test
+  @DisplayName("Должен выбирать правило с наивысшим приоритетом, а не первое в документе")
+  void shouldResolveByRulePriority() {
+    SelectorExtractionEngine engine = new SelectorExtractionEngine(List.of(
+        ExtractionRule.text(ExtractionField.TITLE, "h1[itemprop=name]"),
+        ExtractionRule.attribute(ExtractionField.TITLE, "meta[property=og:title][content]",
+            "content")));
+    Document doc = Jsoup.parse("""
+        <html><head><meta property="og:title" content="Из meta"></head>
+        <body><h1 itemprop="name">Из h1</h1></body></html>
+        """);
+
+    ExtractionResult result = engine.extract(doc);
+
+    assertThat(result.getValue(ExtractionField.TITLE)).isEqualTo("Из h1");
+    assertThat(result.getRule(ExtractionField.TITLE).getSelector())
+        .isEqualTo("h1[itemprop=name]");
+  }
+
+  @Test
+  @DisplayName("Должен переходить к следующему правилу, если значение отклонено")
+  void shouldFallBackWhenFirstMatchRejected() {
+    SelectorExtractionEngine engine = new SelectorExtractionEngine(List.of(
+        ExtractionRule.text(ExtractionField.PRICE, "span[itemprop=price]")
+            .accepting(value -> !value.equals("0")),
+        ExtractionRule.attribute(ExtractionField.PRICE, "[data-price]", "data-price")));
+    Document doc = Jsoup.parse("""
+        <html><body><span itemprop="price">0</span><div data-price="1500"></div></body></html>
+        """);
+
+    ExtractionResult result = engine.extract(doc);
+
+    assertThat(result.getValue(ExtractionField.PRICE)).isEqualTo("1500");
+  }
+
+  @Test
+  @DisplayName("Должен учитывать область поиска правила")
+  void shouldRespectRuleScope() {
+    SelectorExtractionEngine engine = new SelectorExtractionEngine(List.of(
+        ExtractionRule.text(ExtractionField.PRICE, "span[itemprop=price]")
+            .within("[itemprop=offers]")));
+    Document doc = Jsoup.parse("""
+        <html><body>
+          <span itemprop="price">100</span>
+          <div itemprop="offers"><span itemprop="price">200</span></div>
+        </body></html>
+        """);
+
+    ExtractionResult result = engine.extract(doc);
+
+    assertThat(result.getValue(ExtractionField.PRICE)).isEqualTo("200");
+  }
+
+  @Test
+  @DisplayName("Должен оставлять поле неразрешённым, если ни одно правило не сработало")
+  void shouldLeaveFieldUnresolved() {
+    SelectorExtractionEngine engine = new SelectorExtractionEngine(List.of(
+        ExtractionRule.text(ExtractionField.DESCRIPTION, "div.product__descr")));
+
+    ExtractionResult result = engine.extract(Jsoup.parse("<html><body></body></html>"));
+
+    assertThat(result.isResolved(ExtractionField.DESCRIPTION)).isFalse();
+    assertThat(result.getValue(ExtractionField.DESCRIPTION)).isNull();
+  }
+}
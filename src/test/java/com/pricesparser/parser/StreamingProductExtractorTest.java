@@ -0,0 +1,92 @@
+package com.pricesparser.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StreamingProductExtractor Tests")
+class StreamingProductExtractorTest {
+
+  private final StreamingProductExtractor extractor = new StreamingProductExtractor(4000);
+
+  @Test
+  @DisplayName("Должен остановить чтение после извлечения всех полей")
+  void shouldStopReadingWhenAllFieldsFound() throws Exception {
+    String head = """
+        <html><head><script>var s = "<h1 itemprop='name'>Не заголовок</h1>";</script></head>
+        <body>
+          <h1 class="section__title" itemprop="name">Apple iPhone 15 &amp; чехол</h1>
+          <div class="product__price" itemprop="offers">
+            <span itemprop="price">79&nbsp;990 ₽</span>
+          </div>
+          <!-- <div class="product__descr">комментарий</div> -->
+          <div class="product__descr" itemprop="description">
+            <p>Смартфон</p><div>с камерой 48 Мп</div>
+          </div>
+        """;
+    byte[] page = (head + "<footer>" + "x".repeat(512 * 1024) + "</footer></body></html>")
+        .getBytes(StandardCharsets.UTF_8);
+
+    StreamingExtraction extraction =
+        extractor.extract(new ByteArrayInputStream(page), StandardCharsets.UTF_8);
+
+    assertThat(extraction.isComplete()).isTrue();
+    assertThat(extraction.getValue(ExtractionField.TITLE)).isEqualTo("Apple iPhone 15 & чехол");
+    assertThat(extraction.getValue(ExtractionField.PRICE)).isEqualTo("79\u00A0990 ₽");
+    assertThat(extraction.getValue(ExtractionField.DESCRIPTION))
+        .isEqualTo("Смартфон с камерой 48 Мп");
+    assertThat(extraction.getBytesRead()).isLessThan(page.length);
+  }
+
+  @Test
+  @DisplayName("Должен брать цену из атрибута content")
+  void shouldPreferPriceContentAttribute() throws Exception {
+    String html = """
+        <h1 itemprop="name">Товар</h1>
+        <span itemprop="price" content="1990.50">1 990,50 ₽</span>
+        <div class="product__descr">Описание</div>
+        """;
+
+    StreamingExtraction extraction = extractor.extract(
+        new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+    assertThat(extraction.getValue(ExtractionField.PRICE)).isEqualTo("1990.50");
+  }
+
+  @Test
+  @DisplayName("Должен вернуть весь прочитанный документ, если поля не найдены")
+  void shouldReplayConsumedBytesWhenIncomplete() throws Exception {
+    byte[] page = "<html><body><h1 itemprop=\"name\">Без цены</h1></body></html>"
+        .getBytes(StandardCharsets.UTF_8);
+    ByteArrayInputStream in = new ByteArrayInputStream(page);
+
+    StreamingExtraction extraction = extractor.extract(in, StandardCharsets.UTF_8);
+
+    assertThat(extraction.isComplete()).isFalse();
+    assertThat(extraction.getValue(ExtractionField.TITLE)).isEqualTo("Без цены");
+    assertThat(extraction.isReplayable()).isTrue();
+    assertThat(extraction.remainingDocument(in).readAllBytes()).isEqualTo(page);
+  }
+
+  @Test
+  @DisplayName("Должен прекратить чтение и не копить страницу сверх буфера")
+  void shouldStopBufferingWhenLimitExceeded() throws Exception {
+    byte[] page = ("<html><body><h1 itemprop=\"name\">Без цены</h1>" + "x".repeat(64 * 1024)
+        + "</body></html>").getBytes(StandardCharsets.UTF_8);
+    ByteArrayInputStream in = new ByteArrayInputStream(page);
+
+    StreamingExtraction extraction = new StreamingProductExtractor(4000, 16 * 1024)
+        .extract(in, StandardCharsets.UTF_8);
+
+    assertThat(extraction.isComplete()).isFalse();
+    assertThat(extraction.isReplayable()).isFalse();
+    assertThat(extraction.getBytesRead()).isLessThan(page.length);
+    assertThatThrownBy(() -> extraction.remainingDocument(in))
+        .isInstanceOf(RuntimeException.class);
+  }
+}
@@ -0,0 +1,77 @@
+package com.pricesparser.parser;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.model.Product;
+
+@DisplayName("StructuredDataExtractor Tests")
+class StructuredDataExtractorTest {
+
+  private static final String URL = "https://pitergsm.ru/catalog/iphone-15/";
+
+  private final StructuredDataExtractor extractor = new StructuredDataExtractor();
+
+  @Test
+  @DisplayName("Должен найти Product в @graph среди других блоков")
+  void shouldFindProductInGraph() {
+    String html = """
+        <html><head>
+        <script>var ld = "application/ld+json";</script>
+        <SCRIPT TYPE="application/ld+json">{"@type": "Organization", "name": "PiterGSM"}</SCRIPT>
+        <script type="application/ld+json">
+          {"@context": "https://schema.org", "@graph": [
+            {"@type": "BreadcrumbList", "itemListElement": []},
+            {"@type": ["Product"], "brand": {"@type": "Brand", "name": "Apple"},
+             "name": "Apple iPhone 15 &amp; чехол", "description": "Смартфон",
+             "offers": [{"@type": "Offer", "price": 79990}, {"@type": "Offer", "price": 1}]}
+          ]}
+        </script>
+        </head><body></body></html>
+        """;
+
+    Product product = extractor.extract(URL, html.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(product).isNotNull();
+    assertThat(product.getUrl()).isEqualTo(URL);
+    assertThat(product.getTitle()).isEqualTo("Apple iPhone 15 & чехол");
+    assertThat(product.getPrice()).isEqualByComparingTo(new BigDecimal("79990"));
+    assertThat(product.getDescription()).isEqualTo("Смартфон");
+    assertThat(product.getParsedAt()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Должен брать lowPrice из AggregateOffer")
+  void shouldUseAggregateOfferLowPrice() {
+    String html = """
+        <script type="application/ld+json">
+          {"@type": "Product", "name": "Чехол", "description": "Силикон",
+           "offers": {"@type": "AggregateOffer", "lowPrice": "1 990,50", "highPrice": "2990"}}
+        </script>
+        """;
+
+    Product product = extractor.extract(URL, html);
+
+    assertThat(product).isNotNull();
+    assertThat(product.getPrice()).isEqualByComparingTo(new BigDecimal("1990.50"));
+  }
+
+  @Test
+  @DisplayName("Должен вернуть null для неполного или некорректного JSON-LD")
+  void shouldReturnNullWhenIncomplete() {
+    String withoutPrice = """
+        <script type="application/ld+json">
+          {"@type": "Product", "name": "Товар", "description": "Описание"}
+        </script>
+        <script type="application/ld+json">{"@type": "Product", "name": </script>
+        """;
+
+    assertThat(extractor.extract(URL, withoutPrice)).isNull();
+    assertThat(extractor.extract(URL, "<html><body>Нет разметки</body></html>")).isNull();
+  }
+}
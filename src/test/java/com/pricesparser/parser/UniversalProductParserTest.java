@@ -1,31 +1,34 @@
 package com.pricesparser.parser;
 
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.pricesparser.model.Product;
-import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.trace.Tracer;
+import com.pricesparser.util.AdaptiveTracer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @DisplayName("UniversalProductParser Tests")
 class UniversalProductParserTest {
     
     private UniversalProductParser parser;
+    private SimpleMeterRegistry meterRegistry;
     
     @BeforeEach
     void setUp() {
-        OpenTelemetry openTelemetry = mock(OpenTelemetry.class);
-        Tracer tracer = mock(Tracer.class);
-        when(openTelemetry.getTracer(any(String.class), any(String.class))).thenReturn(tracer);
-        parser = new UniversalProductParser(openTelemetry);
+        meterRegistry = new SimpleMeterRegistry();
+        parser = new UniversalProductParser(AdaptiveTracer.noop(),
+            ExtractionProfileRegistry.disabled(), ParseFailureCaptureStore.disabled(),
+            PageFetcher.standalone(), meterRegistry, true, 65536);
     }
     
     @Test
@@ -187,4 +190,102 @@ class UniversalProductParserTest {
         assertThat(product.getTitle()).isEqualTo("Товар без описания");
         assertThat(product.getDescription()).isEmpty();
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Должен извлекать данные из готового Document без повторного парсинга")
+    void shouldParseFromDocument() {
+        String html = """
+            <html>
+                <body>
+                    <h1 class="section__title">Apple iPhone 15</h1>
+                    <div class="product__price" itemprop="offers">
+                        <span itemprop="price">79 990 ₽</span>
+                    </div>
+                    <div class="product__descr" itemprop="description">Смартфон Apple</div>
+                </body>
+            </html>
+            """;
+        Document doc = Jsoup.parse(html);
+        
+        Product fromDocument = parser.parseFromDocument("https://example.com/iphone", doc);
+        Product fromHtml = parser.parseFromHtml("https://example.com/iphone", html);
+        
+        assertThat(fromDocument.getTitle()).isEqualTo("Apple iPhone 15");
+        assertThat(fromDocument.getPrice()).isEqualByComparingTo(new BigDecimal("79990"));
+        assertThat(fromDocument.getDescription()).isEqualTo("Смартфон Apple");
+        assertThat(fromHtml.getTitle()).isEqualTo(fromDocument.getTitle());
+        assertThat(fromHtml.getPrice()).isEqualByComparingTo(fromDocument.getPrice());
+        assertThat(fromHtml.getDescription()).isEqualTo(fromDocument.getDescription());
+    }
+    
+    @Test
+    @DisplayName("Должен брать товар из JSON-LD и считать страницы по пути извлечения")
+    void shouldUseStructuredDataWhenComplete() {
+        String html = """
+            <html>
+                <head>
+                    <script type="application/ld+json">
+                        {"@context": "https://schema.org", "@type": "Product",
+                         "name": "Apple iPhone 15", "description": "Смартфон Apple",
+                         "offers": {"@type": "Offer", "price": "79990.00", "priceCurrency": "RUB"}}
+                    </script>
+                </head>
+                <body><h1>Другой заголовок</h1></body>
+            </html>
+            """;
+        
+        Product product = parser.parseFromHtml("https://www.example.com/iphone", html);
+        parser.parseFromHtml("https://example.com/other", "<html><body><h1>Товар</h1></body></html>");
+        
+        assertThat(product.getTitle()).isEqualTo("Apple iPhone 15");
+        assertThat(product.getPrice()).isEqualByComparingTo(new BigDecimal("79990"));
+        assertThat(product.getDescription()).isEqualTo("Смартфон Apple");
+        assertThat(meterRegistry.get("parser_pages_total").tag("host", "example.com")
+            .tag("path", "structured_data").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("parser_pages_total").tag("host", "example.com")
+            .tag("path", "dom").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Должен отправить If-None-Match и пропустить разбор при 304")
+    void shouldSkipParsingWhenServerAnswersNotModified() throws Exception {
+        String html = """
+            <html><head><title>Товар</title></head>
+            <body><h1>iPhone 15</h1><span itemprop="price">79 990</span></body></html>
+            """;
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/product", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/product";
+
+            ConditionalParse first = parser.parseIfModified(url, HttpValidators.NONE);
+            ConditionalParse second = parser.parseIfModified(url, first.validators());
+
+            assertThat(first.isNotModified()).isFalse();
+            assertThat(first.product().getTitle()).isEqualTo("iPhone 15");
+            assertThat(first.validators().etag()).isEqualTo("\"v1\"");
+            assertThat(first.validators().contentHash()).isNotZero();
+            assertThat(second.isNotModified()).isTrue();
+            assertThat(second.validators()).isEqualTo(first.validators());
+
+            // Сервер без валидаторов: совпадение определяется по хэшу тела
+            ConditionalParse sameBody = parser.parseIfModified(url,
+                new HttpValidators(null, null, first.validators().contentHash()));
+            assertThat(sameBody.isNotModified()).isTrue();
+        } finally {
+            server.stop(0);
+        }
+    }
+}
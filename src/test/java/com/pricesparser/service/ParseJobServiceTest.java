@@ -0,0 +1,136 @@
+package com.pricesparser.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.pricesparser.dto.ProductResponse;
+import com.pricesparser.model.Product;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+@DisplayName("ParseJobService Tests")
+class ParseJobServiceTest {
+
+  private final Map<String, CompletableFuture<Product>> started = new ConcurrentHashMap<>();
+  private SimpleMeterRegistry meterRegistry;
+  private ParseJobService jobService;
+
+  @BeforeEach
+  void setUp() {
+    ProductParseService productParseService = mock(ProductParseService.class);
+    when(productParseService.parseProductInterruptibly(anyString())).thenAnswer(invocation -> {
+      CompletableFuture<Product> future = new CompletableFuture<>();
+      started.put(invocation.getArgument(0), future);
+      return future;
+    });
+    ProductService productService = mock(ProductService.class);
+    when(productService.toResponse(any())).thenAnswer(invocation -> {
+      Product product = invocation.getArgument(0);
+      return new ProductResponse(null, product.getUrl(), product.getTitle(), product.getPrice(),
+          product.getDescription(), null, null);
+    });
+    meterRegistry = new SimpleMeterRegistry();
+    jobService = new ParseJobService(productParseService, productService, meterRegistry, 2, 60);
+  }
+
+  private static List<String> urls(int count) {
+    return IntStream.range(0, count).mapToObj(i -> "https://example.com/p" + i).toList();
+  }
+
+  private static Product product(String url) {
+    return new Product(url, "Товар " + url, BigDecimal.TEN, "Описание");
+  }
+
+  @Test
+  @DisplayName("Должен держать в работе не больше лимита и запускать следующий URL по готовности")
+  void shouldRefillSlotsAsUrlsComplete() {
+    ParseJob job = jobService.submit(urls(5));
+
+    assertThat(started).containsOnlyKeys("https://example.com/p0", "https://example.com/p1");
+    assertThat(job.inFlight()).isEqualTo(2);
+
+    started.get("https://example.com/p1").complete(product("https://example.com/p1"));
+
+    assertThat(started).containsKey("https://example.com/p2").hasSize(3);
+    assertThat(job.inFlight()).isEqualTo(2);
+    assertThat(job.succeeded()).isEqualTo(1);
+    assertThat(meterRegistry.get("parse_jobs_running").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Должен отдавать товары в порядке сохранения и считать исходы")
+  void shouldStreamResultsAndCountOutcomes() {
+    ParseJob job = jobService.submit(urls(4));
+
+    StepVerifier.create(job.results().map(ProductResponse::getUrl))
+        .then(() -> started.get("https://example.com/p1")
+            .complete(product("https://example.com/p1")))
+        .expectNext("https://example.com/p1")
+        .then(() -> started.get("https://example.com/p0")
+            .completeExceptionally(new RuntimeException("HTTP 500")))
+        .then(() -> started.get("https://example.com/p2").complete(null))
+        .then(() -> started.get("https://example.com/p3")
+            .complete(product("https://example.com/p3")))
+        .expectNext("https://example.com/p3")
+        .expectComplete().verify(Duration.ofSeconds(5));
+
+    assertThat(job.state()).isEqualTo(ParseJob.State.COMPLETED);
+    assertThat(job.isDone()).isTrue();
+    assertThat(job.succeeded()).isEqualTo(2);
+    assertThat(job.failed()).isEqualTo(1);
+    assertThat(job.unchanged()).isEqualTo(1);
+    assertThat(job.finished()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Должен повторить уже сохранённые товары для позднего подписчика")
+  void shouldReplayResultsToLateSubscriber() {
+    ParseJob job = jobService.submit(urls(1));
+    started.get("https://example.com/p0").complete(product("https://example.com/p0"));
+
+    StepVerifier.create(job.results().map(ProductResponse::getTitle))
+        .expectNext("Товар https://example.com/p0").expectComplete()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @DisplayName("Должен отменить выполняемые URL и не запускать оставшиеся")
+  void shouldCancelInFlightAndPendingUrls() {
+    ParseJob job = jobService.submit(urls(5));
+
+    assertThat(jobService.cancel(job.id())).contains(job);
+
+    assertThat(started).hasSize(2);
+    assertThat(started.values()).allMatch(CompletableFuture::isCancelled);
+    assertThat(job.state()).isEqualTo(ParseJob.State.CANCELLED);
+    assertThat(job.cancelled()).isEqualTo(5);
+    assertThat(job.inFlight()).isZero();
+    assertThat(job.isDone()).isTrue();
+    StepVerifier.create(job.results()).expectComplete().verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @DisplayName("Должен находить задание по id и не находить неизвестное")
+  void shouldFindJobById() {
+    ParseJob job = jobService.submit(urls(1));
+
+    assertThat(jobService.find(job.id())).contains(job);
+    assertThat(jobService.find("missing")).isEmpty();
+    assertThat(jobService.cancel("missing")).isEmpty();
+  }
+}
@@ -0,0 +1,52 @@
+package com.pricesparser.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.util.HostRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("PolitenessScheduler Tests")
+class PolitenessSchedulerTest {
+
+  @Test
+  @DisplayName("Должен выдавать URL разных хостов по кругу в пределах их токенов")
+  void shouldRoundRobinHostsWithinRateLimits() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    HostRateLimiter limiter = new HostRateLimiter(0.01, 0.01, 1, 0.1, 0.5, 1,
+        Duration.ofSeconds(1), Duration.ofSeconds(60), meterRegistry);
+    PolitenessScheduler scheduler = new PolitenessScheduler(limiter, meterRegistry);
+    scheduler.registerMetrics();
+    scheduler.submit(List.of("https://a.example.com/1", "https://a.example.com/2",
+        "https://a.example.com/3", "https://b.example.com/1", "https://c.example.com/1"));
+
+    List<String> ready = scheduler.pollReady(10);
+
+    assertThat(ready).containsExactly("https://a.example.com/1", "https://b.example.com/1",
+        "https://c.example.com/1");
+    assertThat(scheduler.queuedCount()).isEqualTo(2);
+    assertThat(scheduler.pollReady(10)).isEmpty();
+    assertThat(meterRegistry.get("politeness_queue_depth").tag("host", "a.example.com").gauge()
+        .value()).isEqualTo(2);
+    assertThat(meterRegistry.get("politeness_queued_urls").gauge().value()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Не должен выдавать больше URL, чем свободных мест")
+  void shouldRespectMaxInFlight() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    PolitenessScheduler scheduler =
+        new PolitenessScheduler(HostRateLimiter.disabled(), meterRegistry);
+    scheduler.submit(List.of("https://a.example.com/1", "https://a.example.com/2",
+        "https://b.example.com/1"));
+
+    assertThat(scheduler.pollReady(2)).hasSize(2);
+    assertThat(scheduler.pollReady(2)).hasSize(1);
+    assertThat(scheduler.queuedCount()).isZero();
+  }
+}
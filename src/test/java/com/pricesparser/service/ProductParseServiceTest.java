@@ -1,10 +1,17 @@
 package com.pricesparser.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.AfterEach;
@@ -12,19 +19,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.pricesparser.client.HtmlFetcher;
 import com.pricesparser.model.Product;
+import com.pricesparser.parser.ConditionalParse;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.parser.PageFetcher;
 import com.pricesparser.parser.UniversalProductParser;
+import com.pricesparser.repository.PageValidatorRepository;
 import com.pricesparser.repository.ProductRepository;
+import com.pricesparser.service.ProductParseService.ParseOutcome;
+import com.pricesparser.util.AdaptiveTracer;
+import com.pricesparser.util.HostConcurrencyLimiter;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
-import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.trace.Tracer;
 
 @DisplayName("ProductParseService Tests")
 class ProductParseServiceTest {
@@ -38,7 +55,8 @@ class ProductParseServiceTest {
   private Counter parseSuccessCounter;
   private Counter parseErrorsCounter;
   private Counter productsSavedCounter;
-  private OpenTelemetry openTelemetry;
+  private PageValidatorStore validatorStore;
+  private ContentFingerprintIndex fingerprintIndex;
   private ProductParseService productParseService;
 
   @BeforeEach
@@ -54,13 +72,16 @@ class ProductParseServiceTest {
     parseErrorsCounter = Counter.builder("parse_errors_total").register(meterRegistry);
     productsSavedCounter = Counter.builder("products_saved_total").register(meterRegistry);
 
-    openTelemetry = mock(OpenTelemetry.class);
-    Tracer tracer = mock(Tracer.class);
-    when(openTelemetry.getTracer(any(String.class), any(String.class))).thenReturn(tracer);
+    validatorStore = new PageValidatorStore(mock(PageValidatorRepository.class),
+        Counter.builder("conditional_fetch_total").tag("result", "hit").register(meterRegistry),
+        Counter.builder("conditional_fetch_total").tag("result", "miss").register(meterRegistry));
+
+    fingerprintIndex = new ContentFingerprintIndex(productRepository);
 
     productParseService = new ProductParseService(executorService, parser, productRepository,
         asyncLoggingService, parseDurationTimer, parseSuccessCounter, parseErrorsCounter,
-        productsSavedCounter, openTelemetry);
+        productsSavedCounter, AdaptiveTracer.noop(), HostConcurrencyLimiter.unbounded(),
+        validatorStore, fingerprintIndex, mock(PageFetcher.class), 32, 60);
   }
 
   @AfterEach
@@ -75,7 +96,8 @@ class ProductParseServiceTest {
     Product expectedProduct =
         new Product(url, "Test Product", new BigDecimal("99.99"), "Description");
 
-    when(parser.parse(url)).thenReturn(expectedProduct);
+    when(parser.parseIfModified(url, HttpValidators.NONE))
+        .thenReturn(ConditionalParse.modified(expectedProduct, HttpValidators.NONE));
     when(productRepository.findByUrl(url)).thenReturn(java.util.Optional.empty());
     when(productRepository.save(any(Product.class))).thenReturn(expectedProduct);
 
@@ -95,7 +117,8 @@ class ProductParseServiceTest {
 
     for (String url : urls) {
       Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
-      when(parser.parse(url)).thenReturn(product);
+      when(parser.parseIfModified(url, HttpValidators.NONE))
+          .thenReturn(ConditionalParse.modified(product, HttpValidators.NONE));
       when(productRepository.findByUrl(url)).thenReturn(java.util.Optional.empty());
       when(productRepository.save(any(Product.class))).thenReturn(product);
     }
@@ -110,4 +133,264 @@ class ProductParseServiceTest {
       assertThat(product.getTitle()).isEqualTo("Product");
     }
   }
+
+  @Test
+  @DisplayName("При 304 должен обновить только время парсинга без чтения и сохранения товара")
+  void shouldOnlyTouchParsedAtWhenNotModified() {
+    String url = "https://example.com/product";
+    HttpValidators validators = new HttpValidators("\"v1\"", null, 42);
+    Product first = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+    when(parser.parseIfModified(url, HttpValidators.NONE))
+        .thenReturn(ConditionalParse.modified(first, validators));
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    when(productRepository.save(any(Product.class))).thenReturn(first);
+    productParseService.parseProduct(url);
+    assertThat(first.getContentFingerprint()).isEqualTo(42);
+    assertThat(fingerprintIndex.get(url)).isEqualTo(42);
+
+    when(parser.parseIfModified(url, validators))
+        .thenReturn(ConditionalParse.notModified(validators));
+    when(productRepository.touchParsedAt(eq(url), any(LocalDateTime.class))).thenReturn(1);
+
+    Product result = productParseService.parseProduct(url);
+
+    assertThat(result).isNull();
+    verify(productRepository, times(1)).findByUrl(url);
+    verify(productRepository, times(1)).save(any(Product.class));
+    verify(productRepository).touchParsedAt(eq(url), any(LocalDateTime.class));
+    assertThat(meterRegistry.get("conditional_fetch_total").tag("result", "hit").counter()
+        .count()).isEqualTo(1);
+    assertThat(meterRegistry.get("conditional_fetch_total").tag("result", "miss").counter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Если товара нет в БД, должен загрузить страницу без условных заголовков")
+  void shouldRefetchWhenNotModifiedButProductMissing() {
+    String url = "https://example.com/product";
+    HttpValidators validators = new HttpValidators("\"v1\"", null, 42);
+    Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+    when(parser.parseIfModified(url, HttpValidators.NONE))
+        .thenReturn(ConditionalParse.modified(product, validators));
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    when(productRepository.save(any(Product.class))).thenReturn(product);
+    productParseService.parseProduct(url);
+    when(parser.parseIfModified(url, validators))
+        .thenReturn(ConditionalParse.notModified(validators));
+
+    Product result = productParseService.parseProduct(url);
+
+    assertThat(result).isSameAs(product);
+    verify(productRepository, times(2)).save(any(Product.class));
+    verify(productRepository).touchParsedAt(eq(url), any(LocalDateTime.class));
+  }
+
+  @Test
+  @DisplayName("Батч должен считать неизменившиеся карточки успешно обработанными")
+  void shouldCountUnchangedProductsInBatch() {
+    String url = "https://example.com/product";
+    HttpValidators validators = new HttpValidators(null, null, 42);
+    fingerprintIndex.put(url, 42);
+    when(parser.parseIfModified(url, validators))
+        .thenReturn(ConditionalParse.notModified(validators));
+    when(productRepository.touchParsedAt(eq(url), any(LocalDateTime.class))).thenReturn(1);
+
+    assertThat(productParseService.parseProductsBatch(List.of(url))).isEqualTo(1);
+    assertThat(productParseService.parseProducts(List.of(url))).isEmpty();
+    verify(productRepository, never()).save(any(Product.class));
+  }
+
+  @Test
+  @DisplayName("С другим клиентом должен загрузить страницу им и пропустить неизменную карточку")
+  void shouldFetchWithConfiguredClientAndSkipUnchangedPage() {
+    String url = "https://example.com/product";
+    String html = "<html><h1>Product</h1></html>";
+    Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+    HtmlFetcher htmlFetcher = mock(HtmlFetcher.class);
+    when(htmlFetcher.fetch(url)).thenReturn(html);
+    when(parser.parseFromHtml(url, html)).thenReturn(product);
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    when(productRepository.save(any(Product.class))).thenReturn(product);
+    when(productRepository.touchParsedAt(eq(url), any(LocalDateTime.class))).thenReturn(1);
+    ProductParseService service = new ProductParseService(executorService, parser,
+        productRepository, asyncLoggingService, parseDurationTimer, parseSuccessCounter,
+        parseErrorsCounter, productsSavedCounter, AdaptiveTracer.noop(),
+        HostConcurrencyLimiter.unbounded(), validatorStore, fingerprintIndex, htmlFetcher, 32,
+        60);
+
+    assertThat(service.parseProduct(url)).isSameAs(product);
+    assertThat(service.parseProduct(url)).isNull();
+
+    verify(htmlFetcher, times(2)).fetch(url);
+    verify(parser).parseFromHtml(url, html);
+    verify(parser, never()).parseIfModified(eq(url), any(HttpValidators.class));
+    verify(productRepository).save(any(Product.class));
+  }
+
+  @Test
+  @DisplayName("Разбор для конвейера не должен обращаться к БД, сохранение — отдельным шагом")
+  void shouldParseWithoutDatabaseAndSaveSeparately() {
+    String url = "https://example.com/product";
+    String html = "<html><h1>Product</h1></html>";
+    Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+    when(parser.parseFromHtml(url, html)).thenReturn(product);
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    when(productRepository.save(any(Product.class))).thenReturn(product);
+
+    ConditionalParse parsed = productParseService.parseFetched(url,
+        new WebClientService.ConditionalHtml(html, HttpValidators.NONE));
+
+    assertThat(parsed.product()).isSameAs(product);
+    verify(productRepository, never()).findByUrl(url);
+    assertThat(productParseService.saveParsed(url, parsed)).isSameAs(product);
+    verify(productRepository).save(product);
+    assertThat(fingerprintIndex.get(url)).isEqualTo(parsed.validators().contentHash());
+  }
+
+  private void stubSlowParse(String url, CountDownLatch release, AtomicInteger inFlight,
+      AtomicInteger maxInFlight) {
+    Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+    when(parser.parseIfModified(url, HttpValidators.NONE)).thenAnswer(invocation -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } finally {
+        inFlight.decrementAndGet();
+      }
+      return ConditionalParse.modified(product, HttpValidators.NONE);
+    });
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+  }
+
+  @Test
+  @DisplayName("Поток должен отдавать товары в порядке готовности, а не в порядке URL")
+  void shouldStreamProductsInCompletionOrder() {
+    CountDownLatch slowRelease = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    stubSlowParse("https://example.com/slow", slowRelease, inFlight, maxInFlight);
+    stubSlowParse("https://example.com/fast", new CountDownLatch(0), inFlight, maxInFlight);
+    when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation
+        .getArgument(0));
+
+    // Медленный URL отпускается, только когда быстрый уже выдан потоком
+    List<String> order = productParseService
+        .parseProductsStream(List.of("https://example.com/slow", "https://example.com/fast"))
+        .doOnNext(outcome -> slowRelease.countDown()).map(outcome -> outcome.product().getUrl())
+        .collectList().block(Duration.ofSeconds(10));
+
+    assertThat(order).containsExactly("https://example.com/fast", "https://example.com/slow");
+  }
+
+  @Test
+  @DisplayName("Поток должен держать в работе не больше заданного числа URL")
+  void shouldBoundInFlightUrls() {
+    CountDownLatch release = new CountDownLatch(0);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<String> urls = List.of("https://example.com/p1", "https://example.com/p2",
+        "https://example.com/p3", "https://example.com/p4", "https://example.com/p5");
+    urls.forEach(url -> stubSlowParse(url, release, inFlight, maxInFlight));
+    when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+      Thread.sleep(20);
+      return invocation.getArgument(0);
+    });
+
+    List<ParseOutcome> outcomes = productParseService
+        .parseProductsStream(urls, 1, Duration.ofSeconds(5)).collectList()
+        .block(Duration.ofSeconds(10));
+
+    assertThat(outcomes).hasSize(5).allMatch(ParseOutcome::isSuccess);
+    assertThat(maxInFlight.get()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Поток должен прервать медленный URL по таймауту и отдать остальные")
+  void shouldTimeOutSlowUrl() {
+    CountDownLatch slowRelease = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    stubSlowParse("https://example.com/slow", slowRelease, inFlight, maxInFlight);
+    stubSlowParse("https://example.com/fast", new CountDownLatch(0), inFlight, maxInFlight);
+    when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation
+        .getArgument(0));
+
+    List<ParseOutcome> outcomes = productParseService
+        .parseProductsStream(List.of("https://example.com/slow", "https://example.com/fast"), 2,
+            Duration.ofMillis(300))
+        .collectList().block(Duration.ofSeconds(10));
+
+    assertThat(outcomes).extracting(ParseOutcome::url)
+        .containsExactly("https://example.com/fast", "https://example.com/slow");
+    assertThat(outcomes.get(0).isSuccess()).isTrue();
+    assertThat(outcomes.get(1).error()).hasMessageContaining("Превышено время парсинга");
+    // Поток медленной задачи прерван: она закончилась до выдачи таймаута и ничего не сохранила
+    assertThat(inFlight.get()).isZero();
+    verify(productRepository, times(1)).save(any(Product.class));
+  }
+
+  @Test
+  @DisplayName("Поток не должен начинать следующий URL, пока задача после таймаута не закончилась")
+  void shouldHoldSlotUntilTimedOutTaskFinishes() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<String> urls = List.of("https://example.com/p1", "https://example.com/p2",
+        "https://example.com/p3");
+    for (String url : urls) {
+      Product product = new Product(url, "Product", new BigDecimal("99.99"), "Description");
+      // Разбор не реагирует на прерывание и заканчивается сам
+      when(parser.parseIfModified(url, HttpValidators.NONE)).thenAnswer(invocation -> {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        while (System.nanoTime() < deadline) {
+          Thread.onSpinWait();
+        }
+        inFlight.decrementAndGet();
+        return ConditionalParse.modified(product, HttpValidators.NONE);
+      });
+      when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    }
+    when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation
+        .getArgument(0));
+
+    List<ParseOutcome> outcomes = productParseService
+        .parseProductsStream(urls, 1, Duration.ofMillis(50)).collectList()
+        .block(Duration.ofSeconds(10));
+
+    assertThat(maxInFlight.get()).isEqualTo(1);
+    // Товар успел сохраниться уже после таймаута: он и отдаётся
+    assertThat(outcomes).hasSize(3).allMatch(ParseOutcome::isSuccess);
+  }
+
+  @Test
+  @DisplayName("Отменённое задание не должно сохранять товар уже выполняемого URL")
+  void shouldNotPersistCancelledInFlightUrl() throws Exception {
+    String url = "https://example.com/cancelled";
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean released = new AtomicBoolean();
+    // Разбор не реагирует на прерывание и возвращает товар уже после отмены
+    when(parser.parseIfModified(url, HttpValidators.NONE)).thenAnswer(invocation -> {
+      started.countDown();
+      while (!released.get()) {
+        Thread.onSpinWait();
+      }
+      return ConditionalParse.modified(
+          new Product(url, "Product", new BigDecimal("99.99"), "Description"),
+          HttpValidators.NONE);
+    });
+    when(productRepository.findByUrl(url)).thenReturn(Optional.empty());
+    ParseJobService jobService = new ParseJobService(productParseService,
+        mock(ProductService.class), meterRegistry, 2, 60);
+
+    ParseJob job = jobService.submit(List.of(url));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    jobService.cancel(job.id());
+    released.set(true);
+    job.results().blockLast(Duration.ofSeconds(5));
+
+    assertThat(job.state()).isEqualTo(ParseJob.State.CANCELLED);
+    assertThat(job.cancelled()).isEqualTo(1);
+    assertThat(job.succeeded()).isZero();
+    verify(productRepository, never()).save(any(Product.class));
+  }
 }
@@ -0,0 +1,111 @@
+package com.pricesparser.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.repository.PageValidatorRepository;
+import com.pricesparser.service.WebClientService.ConditionalHtml;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@DisplayName("ReactiveFetchPipeline Tests")
+class ReactiveFetchPipelineTest {
+
+  private ExecutorService parseExecutor;
+  private WebClientService webClientService;
+  private ProductParseService productParseService;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    parseExecutor = Executors.newFixedThreadPool(2);
+    webClientService = mock(WebClientService.class);
+    productParseService = mock(ProductParseService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(productParseService.parseFetchedProduct(anyString(), any(ConditionalHtml.class)))
+        .thenAnswer(invocation -> new Product(invocation.getArgument(0), "Товар",
+            new BigDecimal("100"), "Описание"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    parseExecutor.shutdown();
+  }
+
+  private ReactiveFetchPipeline pipeline(int fetchConcurrency, int bufferSize) {
+    PageValidatorStore validatorStore = new PageValidatorStore(
+        mock(PageValidatorRepository.class), meterRegistry.counter("hit"),
+        meterRegistry.counter("miss"));
+    return new ReactiveFetchPipeline(webClientService, productParseService, validatorStore,
+        parseExecutor, meterRegistry, fetchConcurrency, bufferSize, 2);
+  }
+
+  private static ConditionalHtml page() {
+    return new ConditionalHtml("<html>", HttpValidators.NONE);
+  }
+
+  @Test
+  @DisplayName("Должен пропустить URL с ошибкой загрузки и разобрать остальные")
+  void shouldSkipFailedFetches() {
+    when(webClientService.fetchHtmlIfModified("https://example.com/1", HttpValidators.NONE))
+        .thenReturn(Mono.just(page()));
+    when(webClientService.fetchHtmlIfModified("https://example.com/2", HttpValidators.NONE))
+        .thenReturn(Mono.error(new RuntimeException("timeout")));
+    when(webClientService.fetchHtmlIfModified("https://example.com/3", HttpValidators.NONE))
+        .thenReturn(Mono.empty());
+
+    int successCount = pipeline(8, 4).parseProductsBatch(
+        List.of("https://example.com/1", "https://example.com/2", "https://example.com/3"));
+
+    assertThat(successCount).isEqualTo(1);
+    assertThat(meterRegistry.get("parse_pipeline_stage_items_total").tag("stage", "fetch")
+        .tag("outcome", "error").counter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("parse_pipeline_stage_items_total").tag("stage", "parse")
+        .tag("outcome", "success").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Не должен превышать лимит одновременных загрузок")
+  void shouldBoundConcurrentFetches() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(webClientService.fetchHtmlIfModified(anyString(), any(HttpValidators.class)))
+        .thenAnswer(invocation -> Mono.defer(() -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          return Mono.delay(Duration.ofMillis(20)).map(tick -> {
+            inFlight.decrementAndGet();
+            return page();
+          });
+        }));
+    List<String> urls =
+        IntStream.range(0, 40).mapToObj(i -> "https://example.com/" + i).toList();
+
+    int successCount = pipeline(5, 4).parseProductsBatch(urls);
+
+    assertThat(successCount).isEqualTo(40);
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(5);
+    assertThat(meterRegistry.get("parse_pipeline_stage_in_flight").tag("stage", "fetch").gauge()
+        .value()).isZero();
+    assertThat(meterRegistry.get("parse_pipeline_stage_in_flight").tag("stage", "buffer").gauge()
+        .value()).isZero();
+  }
+}
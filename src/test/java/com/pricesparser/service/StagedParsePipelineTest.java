@@ -0,0 +1,153 @@
+package com.pricesparser.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.pricesparser.model.Product;
+import com.pricesparser.parser.ConditionalParse;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.repository.PageValidatorRepository;
+import com.pricesparser.service.WebClientService.ConditionalHtml;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@DisplayName("StagedParsePipeline Tests")
+class StagedParsePipelineTest {
+
+  private WebClientService webClientService;
+  private ProductParseService productParseService;
+  private MeterRegistry meterRegistry;
+  private final AtomicInteger fetches = new AtomicInteger();
+  private StagedParsePipeline pipeline;
+
+  @BeforeEach
+  void setUp() {
+    webClientService = mock(WebClientService.class);
+    productParseService = mock(ProductParseService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(webClientService.fetchHtmlIfModified(anyString(), any(HttpValidators.class)))
+        .thenAnswer(invocation -> Mono.fromCallable(() -> {
+          fetches.incrementAndGet();
+          return new ConditionalHtml("<html></html>", HttpValidators.NONE);
+        }));
+    when(productParseService.parseFetched(anyString(), any(ConditionalHtml.class)))
+        .thenAnswer(invocation -> ConditionalParse.modified(new Product(invocation.getArgument(0),
+            "Товар", new BigDecimal("100"), "Описание"), HttpValidators.NONE));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+  }
+
+  private StagedParsePipeline pipeline(int workers, int queueCapacity) {
+    PageValidatorStore validatorStore = new PageValidatorStore(
+        mock(PageValidatorRepository.class), meterRegistry.counter("hit"),
+        meterRegistry.counter("miss"));
+    pipeline = new StagedParsePipeline(webClientService, productParseService, validatorStore,
+        meterRegistry, workers, workers, workers, queueCapacity);
+    return pipeline;
+  }
+
+  private static List<String> urls(int count) {
+    return IntStream.range(0, count).mapToObj(i -> "https://example.com/p/" + i).toList();
+  }
+
+  @Test
+  @DisplayName("Должен провести каждый URL через загрузку, разбор и сохранение")
+  void shouldPassEveryUrlThroughAllStages() {
+    when(productParseService.saveParsed(anyString(), any(ConditionalParse.class)))
+        .thenAnswer(invocation -> ((ConditionalParse) invocation.getArgument(1)).product());
+
+    List<CompletableFuture<Product>> results = pipeline(2, 4).parseProductsAsync(urls(20));
+
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+    assertThat(results).extracting(CompletableFuture::join).extracting(Product::getUrl)
+        .containsExactlyElementsOf(urls(20));
+    for (String stage : List.of("fetch", "parse", "persist")) {
+      assertThat(meterRegistry.get("staged_pipeline_items_total").tag("stage", stage)
+          .tag("outcome", "success").counter().count()).isEqualTo(20);
+      assertThat(meterRegistry.get("staged_pipeline_service_seconds").tag("stage", stage)
+          .timer().count()).isEqualTo(20);
+    }
+  }
+
+  @Test
+  @DisplayName("Медленное сохранение должно остановить загрузку, а не копить страницы")
+  void shouldThrottleFetchingWhenPersistIsSlow() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(productParseService.saveParsed(anyString(), any(ConditionalParse.class)))
+        .thenAnswer(invocation -> {
+          release.await();
+          return ((ConditionalParse) invocation.getArgument(1)).product();
+        });
+    pipeline(1, 1);
+
+    CompletableFuture<List<CompletableFuture<Product>>> submitted =
+        CompletableFuture.supplyAsync(() -> pipeline.parseProductsAsync(urls(10)));
+    awaitGauge("staged_pipeline_queue_depth", "fetch", 1);
+    Thread.sleep(200);
+
+    // Одна страница сохраняется, по одной ждёт в очереди и в руках у разбора и у загрузки
+    assertThat(fetches.get()).isEqualTo(5);
+    assertThat(submitted).isNotDone();
+    assertThat(gauge("staged_pipeline_queue_depth", "persist")).isEqualTo(1);
+    assertThat(gauge("staged_pipeline_utilization", "persist")).isEqualTo(1);
+
+    release.countDown();
+    List<CompletableFuture<Product>> results = submitted.get(5, TimeUnit.SECONDS);
+    CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    assertThat(fetches.get()).isEqualTo(10);
+    assertThat(meterRegistry.get("staged_pipeline_blocked_seconds_total").tag("stage", "fetch")
+        .functionCounter().count()).isPositive();
+  }
+
+  @Test
+  @DisplayName("Ошибка этапа должна завершить только свой URL")
+  void shouldFailOnlyTheUrlWhoseStageFailed() {
+    when(productParseService.parseFetched(eq("https://example.com/p/1"),
+        any(ConditionalHtml.class))).thenThrow(new RuntimeException("не разобрать"));
+    when(productParseService.saveParsed(anyString(), any(ConditionalParse.class)))
+        .thenAnswer(invocation -> ((ConditionalParse) invocation.getArgument(1)).product());
+
+    List<CompletableFuture<Product>> results = pipeline(1, 2).parseProductsAsync(urls(3));
+
+    CompletableFuture.allOf(results.get(0), results.get(2)).join();
+    assertThat(results.get(1)).isCompletedExceptionally();
+    assertThat(meterRegistry.get("staged_pipeline_items_total").tag("stage", "parse")
+        .tag("outcome", "error").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("staged_pipeline_items_total").tag("stage", "persist")
+        .tag("outcome", "success").counter().count()).isEqualTo(2);
+  }
+
+  private double gauge(String name, String stage) {
+    return meterRegistry.get(name).tag("stage", stage).gauge().value();
+  }
+
+  private void awaitGauge(String name, String stage, double value) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (gauge(name, stage) != value && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
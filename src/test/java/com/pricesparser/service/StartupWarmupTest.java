@@ -0,0 +1,93 @@
+package com.pricesparser.service;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.parser.ExtractionProfileRegistry;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@DisplayName("StartupWarmup Tests")
+class StartupWarmupTest {
+
+  private final AtomicInteger headRequests = new AtomicInteger();
+  private HttpServer server;
+  private ConnectionProvider connectionProvider;
+  private String baseUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      if ("HEAD".equals(exchange.getRequestMethod())) {
+        headRequests.incrementAndGet();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    connectionProvider = ConnectionProvider.create("warmup-test", 4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    server.stop(0);
+  }
+
+  private StartupWarmup warmup(boolean enabled, int parseIterations) {
+    return new StartupWarmup(HttpClient.create(connectionProvider),
+        ExtractionProfileRegistry.disabled(), enabled, 2, parseIterations, 20, 5, true, 65536,
+        4000);
+  }
+
+  @Test
+  @DisplayName("Должен разрешить хосты, открыть соединения и прогнать разбор образцов")
+  void shouldWarmHostsAndParser() {
+    StartupWarmup warmup = warmup(true, 3);
+
+    warmup.run(List.of(baseUrl + "/product/1", baseUrl + "/product/2", "не url"));
+
+    assertThat(warmup.isComplete()).isTrue();
+    assertThat(headRequests.get()).isEqualTo(2);
+    assertThat(warmup.details()).containsEntry("hostsResolved", 1)
+        .containsEntry("connectionsOpened", 2L).containsEntry("parseIterations", 3)
+        .containsKey("durationMs");
+    assertThat((int) warmup.details().get("parseSamples")).isPositive();
+  }
+
+  @Test
+  @DisplayName("Должен завершить прогрев, даже если хост не разрешается")
+  void shouldCompleteWhenHostIsUnresolvable() {
+    StartupWarmup warmup = warmup(true, 1);
+
+    warmup.run(List.of("https://no-such-host.invalid/product"));
+
+    assertThat(warmup.isComplete()).isTrue();
+    assertThat(warmup.details()).containsEntry("hostsResolved", 0)
+        .containsEntry("hostsUnresolved", List.of("no-such-host.invalid"));
+  }
+
+  @Test
+  @DisplayName("Выключенный прогрев сразу считается завершённым")
+  void shouldCompleteImmediatelyWhenDisabled() {
+    StartupWarmup warmup = warmup(false, 1);
+
+    warmup.start(List.of(baseUrl + "/product/1"));
+
+    assertThat(warmup.phase()).isEqualTo(StartupWarmup.Phase.DONE);
+    assertThat(headRequests.get()).isZero();
+  }
+}
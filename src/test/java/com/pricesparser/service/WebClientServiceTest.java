@@ -1,11 +1,32 @@
 package com.pricesparser.service;
 
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.pricesparser.config.WebClientConfig;
+import com.pricesparser.parser.FetchBudget;
+import com.pricesparser.parser.HttpValidators;
+import com.pricesparser.util.BandwidthMeter;
+import com.pricesparser.util.HedgePolicy;
+import com.pricesparser.util.HostCircuitBreaker;
+import com.pricesparser.util.HostRateLimiter;
+import com.pricesparser.util.RecordingFilter;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.test.StepVerifier;
 
 @DisplayName("WebClientService Tests")
@@ -15,7 +36,33 @@ class WebClientServiceTest {
 
   @BeforeEach
   void setUp() {
-    webClientService = new WebClientService();
+    webClientService = newService(FetchBudget.disabled(), HostCircuitBreaker.disabled(),
+        HedgePolicy.disabled());
+  }
+
+  private static WebClientService newService(FetchBudget fetchBudget,
+      HostCircuitBreaker circuitBreaker, HedgePolicy hedgePolicy) {
+    return newService(HttpClient.create(), fetchBudget, circuitBreaker,
+        HostRateLimiter.disabled(), hedgePolicy);
+  }
+
+  private static WebClientService newService(HttpClient httpClient, FetchBudget fetchBudget,
+      HostCircuitBreaker circuitBreaker, HostRateLimiter rateLimiter, HedgePolicy hedgePolicy) {
+    return new WebClientService(new WebClientConfig().webClient(httpClient,
+        BandwidthMeter.disabled(), RecordingFilter.disabled()), fetchBudget, circuitBreaker,
+        rateLimiter, hedgePolicy);
+  }
+
+  private static HttpServer startServer(String path, HttpHandler handler) throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(path, handler);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    return server;
+  }
+
+  private static String url(HttpServer server, String path) {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + path;
   }
 
   @Test
@@ -56,6 +103,168 @@ class WebClientServiceTest {
     }).verifyComplete();
   }
 
+  @Test
+  @DisplayName("Должен дочитать тело только до карточки товара")
+  void shouldStopReadingBodyOnceProductIsCaptured() throws Exception {
+    byte[] page = ("<h1 itemprop=\"name\">Товар</h1><span itemprop=\"price\" content=\"1990\">"
+        + "</span><div class=\"product__descr\">Описание</div>"
+        + "<script>var x = 1;</script>".repeat(20000)).getBytes(StandardCharsets.UTF_8);
+    HttpServer server = startServer("/product", exchange -> {
+      exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+      exchange.sendResponseHeaders(200, page.length);
+      exchange.getResponseBody().write(page);
+      exchange.close();
+    });
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    WebClientService budgeted = newService(new FetchBudget(meterRegistry, true, 0, "", 4000),
+        HostCircuitBreaker.disabled(), HedgePolicy.disabled());
+
+    try {
+      StepVerifier.create(budgeted.fetchHtmlIfModified(url(server, "/product"),
+          HttpValidators.NONE))
+          .assertNext(fetched -> assertThat(fetched.html()).contains("Описание</div>")
+              .hasSizeLessThan(page.length / 4))
+          .verifyComplete();
+      assertThat(meterRegistry.get("fetch_body_reads_total").tag("outcome", "region_captured")
+          .counter().count()).isEqualTo(1);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  @DisplayName("Должен отправить дубль медленного запроса и взять первый ответ")
+  void shouldHedgeSlowRequest() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = startServer("/slow", exchange -> {
+      if (requests.incrementAndGet() == 1) {
+        try {
+          Thread.sleep(3000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      byte[] body = "<html>ok</html>".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    HedgePolicy hedgePolicy = new HedgePolicy(10, 1, 0.95, Duration.ofMillis(10),
+        Duration.ofSeconds(1), meterRegistry);
+    hedgePolicy.recordLatency("127.0.0.1", Duration.ofMillis(100).toNanos());
+    WebClientService hedged =
+        newService(FetchBudget.disabled(), HostCircuitBreaker.disabled(), hedgePolicy);
+
+    try {
+      long start = System.nanoTime();
+      assertThat(hedged.fetchHtml(url(server, "/slow")).block()).isEqualTo("<html>ok</html>");
+
+      assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+      assertThat(requests.get()).isEqualTo(2);
+      assertThat(meterRegistry.get("http_hedged_requests_total").tag("winner", "hedge")
+          .counter().count()).isEqualTo(1);
+      // Победивший дубль записан со временем от старта основного запроса, а не от своего
+      assertThat(hedgePolicy.hedgeDelay("127.0.0.1")).isGreaterThan(Duration.ofMillis(100));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  @DisplayName("Не должен отправлять дубль, если лимит скорости хоста исчерпан")
+  void shouldNotHedgeWhenHostIsThrottled() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = startServer("/slow", exchange -> {
+      requests.incrementAndGet();
+      try {
+        Thread.sleep(500);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] body = "<html>ok</html>".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    HedgePolicy hedgePolicy = new HedgePolicy(10, 1, 0.95, Duration.ofMillis(10),
+        Duration.ofSeconds(1), meterRegistry);
+    hedgePolicy.recordLatency("127.0.0.1", Duration.ofMillis(100).toNanos());
+    HostRateLimiter rateLimiter = new HostRateLimiter(0.1, 0.1, 1.0, 0.1, 0.5, 1,
+        Duration.ofSeconds(2), Duration.ofSeconds(600), meterRegistry);
+    // Единственный токен забрал основной запрос, выданный планировщиком
+    assertThat(rateLimiter.tryAcquire("127.0.0.1")).isTrue();
+    WebClientService hedged = newService(HttpClient.create(), FetchBudget.disabled(),
+        HostCircuitBreaker.disabled(), rateLimiter, hedgePolicy);
+
+    try {
+      assertThat(hedged.fetchHtml(url(server, "/slow")).block()).isEqualTo("<html>ok</html>");
+
+      assertThat(requests.get()).isEqualTo(1);
+      assertThat(meterRegistry.find("http_hedged_requests_total").counter()).isNull();
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  @DisplayName("Должен перестать ходить на хост после серии ошибок")
+  void shouldFailFastWhenHostBreakerIsOpen() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = startServer("/broken", exchange -> {
+      requests.incrementAndGet();
+      exchange.sendResponseHeaders(503, -1);
+      exchange.close();
+    });
+    HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(4, 2, 0.5,
+        Duration.ofMinutes(1), 1, new SimpleMeterRegistry());
+    WebClientService guarded =
+        newService(FetchBudget.disabled(), circuitBreaker, HedgePolicy.disabled());
+
+    try {
+      StepVerifier.create(guarded.fetchHtml(url(server, "/broken")))
+          .expectErrorSatisfies(error -> assertThat(error).hasMessageContaining("отключён"))
+          .verify(Duration.ofSeconds(10));
+
+      assertThat(requests.get()).isEqualTo(2);
+      assertThat(circuitBreaker.state("127.0.0.1")).isEqualTo(HostCircuitBreaker.State.OPEN);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  @DisplayName("Не должен повторять 503 до конца паузы из Retry-After")
+  void shouldNotRetryInsideRetryAfterPause() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = startServer("/busy", exchange -> {
+      requests.incrementAndGet();
+      exchange.getResponseHeaders().add("Retry-After", "120");
+      exchange.sendResponseHeaders(503, -1);
+      exchange.close();
+    });
+    HostRateLimiter rateLimiter = new HostRateLimiter(1.0, 0.1, 10.0, 0.1, 0.5, 2,
+        Duration.ofSeconds(2), Duration.ofSeconds(600), new SimpleMeterRegistry());
+    ConnectionProvider connectionProvider = ConnectionProvider.create("retry-after-test", 2);
+    WebClientService politeClient = newService(
+        new WebClientConfig().fetchHttpClient(connectionProvider, rateLimiter),
+        FetchBudget.disabled(), HostCircuitBreaker.disabled(), rateLimiter,
+        HedgePolicy.disabled());
+
+    try {
+      StepVerifier.create(politeClient.fetchHtml(url(server, "/busy")))
+          .expectError(WebClientResponseException.ServiceUnavailable.class)
+          .verify(Duration.ofSeconds(5));
+
+      assertThat(requests.get()).isEqualTo(1);
+      assertThat(rateLimiter.pauseRemaining("127.0.0.1")).isGreaterThan(Duration.ofSeconds(100));
+    } finally {
+      connectionProvider.dispose();
+      server.stop(0);
+    }
+  }
+
   @Test
   @DisplayName("Должен обработать таймаут")
   void shouldHandleTimeout() {
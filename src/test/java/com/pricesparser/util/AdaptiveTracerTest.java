@@ -0,0 +1,153 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.util.AdaptiveTracer.Level;
+import com.pricesparser.util.AdaptiveTracer.TracedSpan;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+@DisplayName("AdaptiveTracer Tests")
+class AdaptiveTracerTest {
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+
+  private AdaptiveTracer tracer(Level level, Sampler rootSampler) {
+    return tracer(level, rootSampler, 0);
+  }
+
+  private AdaptiveTracer tracer(Level level, Sampler rootSampler, double detailRatio) {
+    SdkTracerProvider provider = SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+        .setSampler(Sampler.parentBased(new EscalationSampler(rootSampler, Sampler.alwaysOn())))
+        .build();
+    return new AdaptiveTracer(OpenTelemetrySdk.builder().setTracerProvider(provider).build(),
+        level, detailRatio, Duration.ofSeconds(10));
+  }
+
+  private void runParse(AdaptiveTracer tracer, boolean fail) {
+    TracedSpan root = tracer.start("parseProduct").setAttribute("url", "https://example.com/1");
+    try {
+      TracedSpan fetch = tracer.start("fetchHtml");
+      try (TracedSpan extract = tracer.start("extractFields")) {
+        extract.setDetailAttribute("title", "Apple iPhone 15");
+      } finally {
+        fetch.close();
+      }
+      if (fail) {
+        root.recordFailure(new IllegalStateException("Цена не найдена"));
+      }
+    } finally {
+      root.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Должен экспортировать только корневой спан для быстрого успешного парсинга")
+  void shouldExportOnlyRootWhenCoarse() {
+    runParse(tracer(Level.COARSE, Sampler.alwaysOn()), false);
+
+    assertThat(exported).extracting(SpanData::getName).containsExactly("parseProduct");
+    assertThat(exported.get(0).getAttributes().get(AdaptiveTracer.ESCALATED)).isNull();
+  }
+
+  @Test
+  @DisplayName("Должен восстановить этапы задним числом при ошибке")
+  void shouldReplayStagesOnFailure() {
+    runParse(tracer(Level.COARSE, Sampler.alwaysOn()), true);
+
+    assertThat(exported).extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("parseProduct", "fetchHtml", "extractFields");
+    SpanData root = span("parseProduct");
+    SpanData fetch = span("fetchHtml");
+    SpanData extract = span("extractFields");
+    assertThat(root.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    assertThat(root.getAttributes().get(AdaptiveTracer.ESCALATION_REASON)).isEqualTo("error");
+    assertThat(fetch.getParentSpanId()).isEqualTo(root.getSpanId());
+    assertThat(extract.getParentSpanId()).isEqualTo(fetch.getSpanId());
+    assertThat(extract.getStartEpochNanos()).isGreaterThanOrEqualTo(fetch.getStartEpochNanos());
+    assertThat(extract.getEndEpochNanos()).isLessThanOrEqualTo(fetch.getEndEpochNanos());
+  }
+
+  @Test
+  @DisplayName("Должен выгрузить эскалированную трассу, даже если корень не попал в выборку")
+  void shouldEscalateUnsampledRoot() {
+    runParse(tracer(Level.COARSE, Sampler.alwaysOff()), false);
+    assertThat(exported).isEmpty();
+
+    runParse(tracer(Level.COARSE, Sampler.alwaysOff()), true);
+    assertThat(exported).extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("parseProduct", "fetchHtml", "extractFields");
+    assertThat(exported).allSatisfy(
+        span -> assertThat(span.getAttributes().get(AdaptiveTracer.ESCALATED)).isTrue());
+  }
+
+  @Test
+  @DisplayName("Должен создавать настоящие дочерние спаны на уровне full")
+  void shouldCreateChildSpansWhenFull() {
+    runParse(tracer(Level.FULL, Sampler.alwaysOn()), false);
+
+    assertThat(exported).extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("parseProduct", "fetchHtml", "extractFields");
+    assertThat(span("extractFields").getAttributes().get(AttributeKey.stringKey("title")))
+        .isEqualTo("Apple iPhone 15");
+    assertThat(span("parseProduct").getAttributes().get(AdaptiveTracer.ESCALATED)).isNull();
+  }
+
+  @Test
+  @DisplayName("Не должен строить детальные спаны под корнем, не попавшим в выборку")
+  void shouldDetailOnlySampledRoots() {
+    runParse(tracer(Level.SAMPLED, Sampler.alwaysOn(), 1), false);
+    assertThat(exported).extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("parseProduct", "fetchHtml", "extractFields");
+    assertThat(exported).allSatisfy(
+        span -> assertThat(span.getAttributes().get(AdaptiveTracer.ESCALATED)).isNull());
+    exported.clear();
+
+    // Под отброшенным корнем этапы только запоминаются, поэтому ошибка восстанавливает их
+    runParse(tracer(Level.SAMPLED, Sampler.alwaysOff(), 1), true);
+    assertThat(exported).extracting(SpanData::getName)
+        .containsExactlyInAnyOrder("parseProduct", "fetchHtml", "extractFields");
+    assertThat(exported).allSatisfy(
+        span -> assertThat(span.getAttributes().get(AdaptiveTracer.ESCALATED)).isTrue());
+  }
+
+  private SpanData span(String name) {
+    return exported.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+  }
+
+  private final class CollectingExporter implements SpanExporter {
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      exported.addAll(spans);
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}
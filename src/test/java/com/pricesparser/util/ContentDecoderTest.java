@@ -0,0 +1,85 @@
+package com.pricesparser.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ContentDecoder Tests")
+class ContentDecoderTest {
+
+  private static final byte[] PAGE = "<html><h1>Смартфон</h1><span class=\"price\">79 990 ₽</span>"
+      .repeat(200).getBytes(StandardCharsets.UTF_8);
+
+  private static byte[] gzip(byte[] data) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] deflate(byte[] data, boolean zlibHeader) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DeflaterOutputStream deflate =
+        new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, !zlibHeader))) {
+      deflate.write(data);
+    }
+    return out.toByteArray();
+  }
+
+  // Чанки по 3 байта: заголовок gzip тоже приходит по частям
+  private static byte[] decodeInChunks(ContentDecoder decoder, byte[] encoded) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int offset = 0; offset < encoded.length; offset += 3) {
+      out.writeBytes(decoder.decode(
+          Arrays.copyOfRange(encoded, offset, Math.min(offset + 3, encoded.length))));
+    }
+    out.writeBytes(decoder.finish());
+    decoder.close();
+    return out.toByteArray();
+  }
+
+  @Test
+  @DisplayName("Должен распаковать gzip, пришедший мелкими чанками")
+  void shouldDecodeGzipChunks() throws Exception {
+    byte[] encoded = gzip(PAGE);
+
+    assertThat(encoded.length).isLessThan(PAGE.length / 10);
+    assertThat(decodeInChunks(ContentDecoder.forEncoding("gzip"), encoded)).isEqualTo(PAGE);
+  }
+
+  @Test
+  @DisplayName("Должен распаковать deflate с заголовком zlib и без него")
+  void shouldDecodeDeflateWithAndWithoutZlibHeader() throws Exception {
+    assertThat(decodeInChunks(ContentDecoder.forEncoding("deflate"), deflate(PAGE, true)))
+        .isEqualTo(PAGE);
+    assertThat(decodeInChunks(ContentDecoder.forEncoding("Deflate"), deflate(PAGE, false)))
+        .isEqualTo(PAGE);
+  }
+
+  @Test
+  @DisplayName("Должен пропускать тело без сжатия и отклонять неизвестное сжатие")
+  void shouldHandleIdentityAndUnsupportedEncodings() {
+    assertThat(ContentDecoder.forEncoding(null)).isNull();
+    assertThat(ContentDecoder.forEncoding("identity")).isNull();
+    assertThatThrownBy(() -> ContentDecoder.forEncoding("br"))
+        .isInstanceOf(RuntimeException.class).hasMessageContaining("br");
+  }
+
+  @Test
+  @DisplayName("Пустое тело со сжатием не должно быть ошибкой")
+  void shouldAcceptEmptyBody() {
+    ContentDecoder decoder = ContentDecoder.forEncoding("gzip");
+
+    assertThat(decoder.finish()).isEmpty();
+    decoder.close();
+  }
+}
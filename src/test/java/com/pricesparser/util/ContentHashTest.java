@@ -0,0 +1,35 @@
+package com.pricesparser.util;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ContentHash Tests")
+class ContentHashTest {
+
+  @Test
+  @DisplayName("Должен давать одинаковый хэш для одинакового содержимого и разный для изменённого")
+  void shouldDetectChangedContent() {
+    String page = "<html><body><span itemprop=\"price\">79 990</span></body></html>";
+    String changed = page.replace("79 990", "78 990");
+
+    assertThat(ContentHash.hash64(page.getBytes(StandardCharsets.UTF_8)))
+        .isEqualTo(ContentHash.hash64(page.getBytes(StandardCharsets.UTF_8)))
+        .isNotEqualTo(ContentHash.hash64(changed.getBytes(StandardCharsets.UTF_8)));
+    assertThat(ContentHash.hash64(page)).isEqualTo(ContentHash.hash64(new StringBuilder(page)))
+        .isNotEqualTo(ContentHash.hash64(changed));
+  }
+
+  @Test
+  @DisplayName("Не должен возвращать 0 и должен учитывать хвост и длину")
+  void shouldNeverReturnZeroAndCoverTail() {
+    assertThat(ContentHash.hash64(new byte[0])).isNotZero();
+    assertThat(ContentHash.hash64("")).isNotZero();
+    assertThat(ContentHash.hash64(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}))
+        .isNotEqualTo(ContentHash.hash64(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 10}));
+    assertThat(ContentHash.hash64(new byte[] {0})).isNotEqualTo(ContentHash.hash64(new byte[2]));
+    assertThat(ContentHash.hash64("abcde")).isNotEqualTo(ContentHash.hash64("abcdf"));
+  }
+}
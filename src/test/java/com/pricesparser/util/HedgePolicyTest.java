@@ -0,0 +1,75 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("HedgePolicy Tests")
+class HedgePolicyTest {
+
+  private static final String HOST = "shop.example.com";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final HedgePolicy policy = new HedgePolicy(20, 10, 0.95, Duration.ofMillis(5),
+      Duration.ofSeconds(2), meterRegistry);
+
+  private static long millis(long value) {
+    return Duration.ofMillis(value).toNanos();
+  }
+
+  @Test
+  @DisplayName("Не должен дублировать запрос, пока замеров мало")
+  void shouldWaitForEnoughSamples() {
+    for (int i = 0; i < 9; i++) {
+      policy.recordLatency(HOST, millis(100));
+    }
+
+    assertThat(policy.hedgeDelay(HOST)).isNull();
+    assertThat(policy.hedgeDelay("other.example.com")).isNull();
+    assertThat(HedgePolicy.disabled().hedgeDelay(HOST)).isNull();
+  }
+
+  @Test
+  @DisplayName("Задержка дубля равна p95 последних ответов хоста")
+  void shouldUsePercentileOfRecentLatencies() {
+    for (int i = 1; i <= 20; i++) {
+      policy.recordLatency(HOST, millis(i * 10));
+    }
+    assertThat(policy.hedgeDelay(HOST)).isEqualTo(Duration.ofMillis(190));
+
+    // Окно скользит: медленные ответы вытесняют быстрые
+    for (int i = 0; i < 20; i++) {
+      policy.recordLatency(HOST, millis(1000));
+    }
+    assertThat(policy.hedgeDelay(HOST)).isEqualTo(Duration.ofMillis(1000));
+  }
+
+  @Test
+  @DisplayName("Задержка ограничена снизу и сверху")
+  void shouldClampDelay() {
+    for (int i = 0; i < 10; i++) {
+      policy.recordLatency(HOST, millis(1));
+      policy.recordLatency("slow.example.com", millis(60_000));
+    }
+
+    assertThat(policy.hedgeDelay(HOST)).isEqualTo(Duration.ofMillis(5));
+    assertThat(policy.hedgeDelay("slow.example.com")).isEqualTo(Duration.ofSeconds(2));
+  }
+
+  @Test
+  @DisplayName("Должен считать победы дублирующих запросов по хосту")
+  void shouldCountHedgeWinners() {
+    policy.recordHedged(HOST, true);
+    policy.recordHedged(HOST, false);
+    policy.recordHedged(HOST, true);
+
+    assertThat(meterRegistry.get("http_hedged_requests_total").tag("winner", "hedge").counter()
+        .count()).isEqualTo(2);
+    assertThat(meterRegistry.get("http_hedged_requests_total").tag("winner", "primary")
+        .counter().count()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,121 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.pricesparser.util.HostCircuitBreaker.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("HostCircuitBreaker Tests")
+class HostCircuitBreakerTest {
+
+  private static final String HOST = "shop.example.com";
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private SimpleMeterRegistry meterRegistry;
+  private HostCircuitBreaker breaker;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    breaker = new HostCircuitBreaker(true, 4, 4, 0.5, Duration.ofSeconds(10), 2, meterRegistry,
+        now::get);
+  }
+
+  private void call(boolean failure) {
+    assertThat(breaker.tryAcquire(HOST)).isTrue();
+    if (failure) {
+      breaker.onFailure(HOST);
+    } else {
+      breaker.onSuccess(HOST);
+    }
+  }
+
+  private void openBreaker() {
+    call(false);
+    call(true);
+    call(false);
+    call(true);
+  }
+
+  @Test
+  @DisplayName("Должен размыкаться, когда доля ошибок в окне достигла порога")
+  void shouldOpenWhenFailureRateCrossesThreshold() {
+    call(true);
+    call(true);
+    call(true);
+    assertThat(breaker.state(HOST)).isEqualTo(State.CLOSED);
+
+    call(false);
+    assertThat(breaker.state(HOST)).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquire(HOST)).isFalse();
+    assertThat(breaker.tryAcquire("other.example.com")).isTrue();
+    assertThat(meterRegistry.get("http_circuit_breaker_state").tag("host", HOST).gauge().value())
+        .isEqualTo(2);
+    assertThat(meterRegistry.get("http_circuit_breaker_rejected_total").tag("host", HOST)
+        .counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Старые ошибки должны уходить из окна")
+  void shouldSlideWindow() {
+    call(true);
+    for (int i = 0; i < 6; i++) {
+      call(false);
+    }
+    call(true);
+
+    assertThat(breaker.state(HOST)).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("После паузы пропускает только пробные запросы и закрывается по их успеху")
+  void shouldCloseAfterSuccessfulProbes() {
+    openBreaker();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertThat(breaker.tryAcquire(HOST)).isTrue();
+    assertThat(breaker.tryAcquire(HOST)).isTrue();
+    assertThat(breaker.tryAcquire(HOST)).isFalse();
+    assertThat(breaker.state(HOST)).isEqualTo(State.HALF_OPEN);
+
+    breaker.onSuccess(HOST);
+    breaker.onSuccess(HOST);
+    assertThat(breaker.state(HOST)).isEqualTo(State.CLOSED);
+    assertThat(meterRegistry.get("http_circuit_breaker_transitions_total")
+        .tag("state", "closed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Ошибка пробного запроса снова размыкает предохранитель")
+  void shouldReopenOnFailedProbe() {
+    openBreaker();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    assertThat(breaker.tryAcquire(HOST)).isTrue();
+    breaker.onFailure(HOST);
+
+    assertThat(breaker.state(HOST)).isEqualTo(State.OPEN);
+    now.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertThat(breaker.tryAcquire(HOST)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Отменённый пробный запрос освобождает слот")
+  void shouldReleaseCancelledProbe() {
+    openBreaker();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    breaker.tryAcquire(HOST);
+    breaker.tryAcquire(HOST);
+
+    breaker.release(HOST);
+
+    assertThat(breaker.tryAcquire(HOST)).isTrue();
+  }
+}
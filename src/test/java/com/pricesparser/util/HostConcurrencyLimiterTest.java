@@ -0,0 +1,75 @@
+package com.pricesparser.util;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("HostConcurrencyLimiter Tests")
+class HostConcurrencyLimiterTest {
+
+  @Test
+  @DisplayName("Должен ограничивать параллелизм на хост и глобально на виртуальных потоках")
+  void shouldLimitPerHostAndGlobally() throws Exception {
+    HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(5, 2, new SimpleMeterRegistry());
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    ConcurrentHashMap<String, AtomicInteger> activePerHost = new ConcurrentHashMap<>();
+    ConcurrentHashMap<String, Integer> maxPerHost = new ConcurrentHashMap<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<String>> futures = IntStream.range(0, 60).mapToObj(i -> {
+        String url = "https://shop" + (i % 4) + ".example.com/product/" + i;
+        return executor.submit(() -> limiter.call(url, () -> {
+          String host = HostConcurrencyLimiter.hostOf(url);
+          int hostActive =
+              activePerHost.computeIfAbsent(host, key -> new AtomicInteger()).incrementAndGet();
+          maxPerHost.merge(host, hostActive, Math::max);
+          maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          active.decrementAndGet();
+          activePerHost.get(host).decrementAndGet();
+          return url;
+        }));
+      }).toList();
+      for (Future<String> future : futures) {
+        future.get();
+      }
+    }
+
+    assertThat(maxActive.get()).isLessThanOrEqualTo(5);
+    assertThat(maxPerHost).hasSize(4);
+    assertThat(maxPerHost.values()).allSatisfy(max -> assertThat(max).isLessThanOrEqualTo(2));
+  }
+
+  @Test
+  @DisplayName("Должен отпускать разрешения после исключения в задаче")
+  void shouldReleasePermitsOnFailure() {
+    HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1, 1, new SimpleMeterRegistry());
+
+    for (int i = 0; i < 3; i++) {
+      try {
+        limiter.call("https://example.com/", () -> {
+          throw new IllegalStateException("ошибка");
+        });
+      } catch (IllegalStateException expected) {
+        // разрешения должны вернуться, иначе следующий вызов зависнет
+      }
+    }
+
+    assertThat(limiter.call("https://example.com/", () -> "ok")).isEqualTo("ok");
+  }
+}
@@ -0,0 +1,104 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("HostRateLimiter Tests")
+class HostRateLimiterTest {
+
+  private static final String HOST = "shop.example.com";
+  private static final String URL = "https://shop.example.com/product/1";
+  private static final long FAST = Duration.ofMillis(100).toNanos();
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private SimpleMeterRegistry meterRegistry;
+  private HostRateLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    limiter = new HostRateLimiter(true, 1.0, 0.1, 4.0, 0.5, 0.5, 2, Duration.ofSeconds(1),
+        Duration.ofSeconds(60), meterRegistry, now::get);
+  }
+
+  private void advance(Duration duration) {
+    now.addAndGet(duration.toNanos());
+  }
+
+  @Test
+  @DisplayName("Должен выдавать токены со скоростью хоста")
+  void shouldRefillTokensAtHostRate() {
+    assertThat(limiter.tryAcquire(HOST)).isTrue();
+    assertThat(limiter.tryAcquire(HOST)).isFalse();
+
+    advance(Duration.ofMillis(500));
+    assertThat(limiter.tryAcquire(HOST)).isFalse();
+    advance(Duration.ofMillis(500));
+    assertThat(limiter.tryAcquire(HOST)).isTrue();
+    assertThat(limiter.tryAcquire("other.example.com")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Должен повышать скорость на быстрых 2xx и не выше максимума")
+  void shouldIncreaseAdditivelyOnFastSuccess() {
+    limiter.onResponse(URL, 200, FAST, null);
+    assertThat(limiter.rate(HOST)).isEqualTo(1.5);
+
+    limiter.onResponse(URL, 200, Duration.ofSeconds(2).toNanos(), null);
+    limiter.onResponse(URL, 404, FAST, null);
+    assertThat(limiter.rate(HOST)).isEqualTo(1.5);
+
+    for (int i = 0; i < 10; i++) {
+      limiter.onResponse(URL, 200, FAST, null);
+    }
+    assertThat(limiter.rate(HOST)).isEqualTo(4.0);
+  }
+
+  @Test
+  @DisplayName("На 429 должен вдвое снизить скорость и выдержать паузу Retry-After")
+  void shouldBackOffOnTooManyRequests() {
+    limiter.onResponse(URL, 200, FAST, null);
+    limiter.onResponse(URL, 429, FAST, "3");
+
+    assertThat(limiter.rate(HOST)).isEqualTo(0.75);
+    assertThat(limiter.pauseRemaining(HOST)).isEqualTo(Duration.ofSeconds(3));
+    advance(Duration.ofMillis(2900));
+    assertThat(limiter.tryAcquire(HOST)).isFalse();
+    advance(Duration.ofMillis(100));
+    assertThat(limiter.tryAcquire(HOST)).isFalse();
+    advance(Duration.ofMillis(1400));
+    assertThat(limiter.pauseRemaining(HOST)).isEqualTo(Duration.ZERO);
+    assertThat(limiter.tryAcquire(HOST)).isTrue();
+    assertThat(meterRegistry.get("politeness_throttled_total").tag("host", HOST)
+        .tag("status", "429").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Должен разбирать Retry-After в секундах и в виде HTTP-даты")
+  void shouldParseRetryAfter() {
+    Instant at = Instant.parse("2024-05-01T10:00:00Z");
+
+    assertThat(HostRateLimiter.parseRetryAfter("120", at)).isEqualTo(Duration.ofSeconds(120));
+    assertThat(HostRateLimiter.parseRetryAfter("Wed, 01 May 2024 10:00:30 GMT", at))
+        .isEqualTo(Duration.ofSeconds(30));
+    assertThat(HostRateLimiter.parseRetryAfter("soon", at)).isNull();
+    assertThat(HostRateLimiter.parseRetryAfter(null, at)).isNull();
+  }
+
+  @Test
+  @DisplayName("Выключенный ограничитель не должен задерживать запросы")
+  void shouldNotLimitWhenDisabled() {
+    HostRateLimiter disabled = HostRateLimiter.disabled();
+    for (int i = 0; i < 100; i++) {
+      assertThat(disabled.tryAcquire(HOST)).isTrue();
+    }
+  }
+}
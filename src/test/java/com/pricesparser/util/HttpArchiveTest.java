@@ -0,0 +1,72 @@
+package com.pricesparser.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("HttpArchive Tests")
+class HttpArchiveTest {
+
+  @TempDir
+  Path directory;
+
+  private static HttpArchive.Entry entry(String url, String body) {
+    return new HttpArchive.Entry(url, 200, Map.of("Content-Type", "text/html; charset=utf-8",
+        "Content-Encoding", "gzip"), body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("Должен сохранить и прочитать ответы по пути и query")
+  void shouldRoundTripEntries() {
+    Path file = directory.resolve("replay.bin.gz");
+    try (HttpArchive.Writer writer = new HttpArchive.Writer(file)) {
+      writer.append(entry("https://pitergsm.ru/catalog/phone/?color=red", "<h1>Красный</h1>"));
+      writer.append(entry("https://pitergsm.ru/catalog/phone/", "<h1>старая</h1>"));
+      writer.append(entry("https://pitergsm.ru/catalog/phone/", "<h1>новая</h1>"));
+    }
+
+    HttpArchive archive = HttpArchive.load(file);
+
+    assertThat(archive.size()).isEqualTo(2);
+    assertThat(new String(archive.get("/catalog/phone/?color=red").body(),
+        StandardCharsets.UTF_8)).isEqualTo("<h1>Красный</h1>");
+    HttpArchive.Entry latest = archive.get("/catalog/phone/");
+    assertThat(new String(latest.body(), StandardCharsets.UTF_8)).isEqualTo("<h1>новая</h1>");
+    // Тело хранится распакованным, поэтому Content-Encoding не сохраняется
+    assertThat(latest.headers()).containsOnlyKeys("Content-Type");
+    assertThat(HttpArchive.key("http://127.0.0.1:18080")).isEqualTo("/");
+  }
+
+  @Test
+  @DisplayName("Должен прочитать архив, запись которого оборвалась")
+  void shouldReadArchiveWithoutGzipTrailer() throws Exception {
+    Path file = directory.resolve("complete.bin.gz");
+    try (HttpArchive.Writer writer = new HttpArchive.Writer(file)) {
+      writer.append(entry("https://pitergsm.ru/a", "первая"));
+      writer.append(entry("https://pitergsm.ru/b", "вторая"));
+    }
+    byte[] bytes = Files.readAllBytes(file);
+    Path truncated = directory.resolve("truncated.bin.gz");
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+
+    assertThat(HttpArchive.load(truncated).size()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Должен отклонить файл другого формата")
+  void shouldRejectForeignFile() throws Exception {
+    Path file = directory.resolve("page.html");
+    Files.writeString(file, "<html></html>");
+
+    assertThatThrownBy(() -> HttpArchive.load(file)).isInstanceOf(RuntimeException.class)
+        .hasMessageContaining("архив ответов");
+  }
+}
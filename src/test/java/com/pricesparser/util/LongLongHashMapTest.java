@@ -0,0 +1,75 @@
+package com.pricesparser.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LongLongHashMap Tests")
+class LongLongHashMapTest {
+
+  @Test
+  @DisplayName("Должен хранить, заменять и удалять значения")
+  void shouldPutReplaceAndRemove() {
+    LongLongHashMap map = new LongLongHashMap(4);
+
+    map.put(7, 70);
+    map.put(-3, 30);
+    map.put(7, 71);
+
+    assertThat(map.get(7)).isEqualTo(71);
+    assertThat(map.get(-3)).isEqualTo(30);
+    assertThat(map.get(42)).isZero();
+    assertThat(map.size()).isEqualTo(2);
+
+    map.put(-3, 0);
+    map.remove(7);
+    map.remove(42);
+
+    assertThat(map.get(7)).isZero();
+    assertThat(map.get(-3)).isZero();
+    assertThat(map.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Должен совпадать с HashMap на случайных вставках и удалениях с ростом таблицы")
+  void shouldMatchHashMapUnderRandomOperations() {
+    LongLongHashMap map = new LongLongHashMap(1);
+    Map<Long, Long> expected = new HashMap<>();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 200_000; i++) {
+      // Узкий диапазон ключей даёт много коллизий и удалений внутри цепочек
+      long key = random.nextInt(5000) - 2500;
+      if (key == 0) {
+        continue;
+      }
+      if (random.nextInt(3) == 0) {
+        map.remove(key);
+        expected.remove(key);
+      } else {
+        long value = random.nextLong() | 1;
+        map.put(key, value);
+        expected.put(key, value);
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (long key = -2500; key < 2500; key++) {
+      if (key != 0) {
+        assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, 0L));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Должен отклонить ключ 0")
+  void shouldRejectZeroKey() {
+    assertThatThrownBy(() -> new LongLongHashMap(4).put(0, 1))
+        .isInstanceOf(RuntimeException.class);
+  }
+}
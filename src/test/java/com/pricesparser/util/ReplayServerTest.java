@@ -0,0 +1,113 @@
+package com.pricesparser.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@DisplayName("ReplayServer Tests")
+class ReplayServerTest {
+
+  private static final String PAGE = "<html><h1>Смартфон</h1>" + "x".repeat(20_000) + "</html>";
+
+  @TempDir
+  Path directory;
+
+  private HttpArchive archive;
+  private ReplayServer server;
+
+  @BeforeEach
+  void setUp() {
+    Path file = directory.resolve("recorded.bin.gz");
+    try (HttpArchive.Writer writer = new HttpArchive.Writer(file)) {
+      writer.append(new HttpArchive.Entry("https://pitergsm.ru/catalog/phone/", 200,
+          Map.of("Content-Type", "text/html; charset=utf-8", "ETag", "\"v1\""),
+          PAGE.getBytes(StandardCharsets.UTF_8)));
+    }
+    archive = HttpArchive.load(file);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (server != null) {
+      server.stop();
+    }
+  }
+
+  private ReplayServer start(ReplayServer.Options options) {
+    server = new ReplayServer(archive, options, "127.0.0.1", 0);
+    server.start();
+    return server;
+  }
+
+  private static ResponseEntity<String> get(WebClient webClient, String url,
+      Map<String, String> headers) {
+    return webClient.get().uri(url).headers(h -> headers.forEach(h::set)).exchangeToMono(
+        response -> response.toEntity(String.class)).block(Duration.ofSeconds(10));
+  }
+
+  @Test
+  @DisplayName("Должен отдать записанный ответ, 304 по ETag и 404 для неизвестного адреса")
+  void shouldReplayRecordedResponses() {
+    String baseUrl = start(ReplayServer.Options.none()).baseUrl();
+    WebClient webClient = WebClient.create();
+
+    ResponseEntity<String> page = get(webClient, baseUrl + "/catalog/phone/", Map.of());
+    assertThat(page.getStatusCode().value()).isEqualTo(200);
+    assertThat(page.getBody()).isEqualTo(PAGE);
+    assertThat(page.getHeaders().getETag()).isEqualTo("\"v1\"");
+
+    assertThat(get(webClient, baseUrl + "/catalog/phone/", Map.of("If-None-Match", "\"v1\""))
+        .getStatusCode().value()).isEqualTo(304);
+    assertThat(get(webClient, baseUrl + "/catalog/other/", Map.of()).getStatusCode().value())
+        .isEqualTo(404);
+  }
+
+  @Test
+  @DisplayName("Должен добавлять задержку, ограничивать полосу и внедрять ошибки")
+  void shouldShapeResponses() {
+    String shaped = start(new ReplayServer.Options(Duration.ofMillis(100), Duration.ZERO, 0,
+        40_000)).baseUrl();
+    long startNanos = System.nanoTime();
+    assertThat(get(WebClient.create(), shaped + "/catalog/phone/", Map.of()).getBody())
+        .isEqualTo(PAGE);
+    // 100 мс задержки и ещё около 0,5 с на 20 КБ при 40 КБ/с
+    assertThat(Duration.ofNanos(System.nanoTime() - startNanos))
+        .isGreaterThan(Duration.ofMillis(450));
+    server.stop();
+
+    String failing = start(new ReplayServer.Options(Duration.ZERO, Duration.ZERO, 1, 0))
+        .baseUrl();
+    assertThat(get(WebClient.create(), failing + "/catalog/phone/", Map.of()).getStatusCode()
+        .value()).isEqualTo(503);
+  }
+
+  @Test
+  @DisplayName("Ответы, загруженные через WebClient в режиме записи, попадают в архив")
+  void shouldRecordThroughWebClient() {
+    String baseUrl = start(ReplayServer.Options.none()).baseUrl();
+    Path recorded = directory.resolve("rerecorded.bin.gz");
+
+    try (RecordingFilter recordingFilter = RecordingFilter.to(recorded)) {
+      WebClient webClient = WebClient.builder().filter(recordingFilter)
+          .filter(new ContentDecodingFilter(BandwidthMeter.disabled())).build();
+      String body = webClient.get().uri(baseUrl + "/catalog/phone/").retrieve()
+          .bodyToMono(String.class).block(Duration.ofSeconds(10));
+      assertThat(body).isEqualTo(PAGE);
+    }
+
+    HttpArchive.Entry entry = HttpArchive.load(recorded).get("/catalog/phone/");
+    assertThat(entry.status()).isEqualTo(200);
+    assertThat(new String(entry.body(), StandardCharsets.UTF_8)).isEqualTo(PAGE);
+    assertThat(entry.headers()).containsEntry("ETag", "\"v1\"");
+  }
+}
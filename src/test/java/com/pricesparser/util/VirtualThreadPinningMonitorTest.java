@@ -0,0 +1,53 @@
+package com.pricesparser.util;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("VirtualThreadPinningMonitor Tests")
+class VirtualThreadPinningMonitorTest {
+
+  private final Object lock = new Object();
+
+  @Test
+  @DisplayName("Должен считать виртуальные потоки, заблокированные внутри synchronized")
+  void shouldCountPinnedVirtualThreads() throws Exception {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    try (VirtualThreadPinningMonitor monitor =
+        new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(5))) {
+      assertThat(monitor.isEnabled()).isTrue();
+
+      Thread.ofVirtual().start(() -> {
+        synchronized (lock) {
+          try {
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }).join();
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+      while (meterRegistry.get("virtual_thread_pinned_total").counter().count() == 0
+          && System.nanoTime() < deadline) {
+        Thread.sleep(100);
+      }
+    }
+
+    assertThat(meterRegistry.get("virtual_thread_pinned_total").counter().count())
+        .isGreaterThanOrEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Выключенный монитор не должен запускать JFR")
+  void shouldNotStartWhenDisabled() {
+    try (VirtualThreadPinningMonitor monitor = VirtualThreadPinningMonitor.disabled()) {
+      assertThat(monitor.isEnabled()).isFalse();
+    }
+  }
+}